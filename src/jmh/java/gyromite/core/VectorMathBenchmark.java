@@ -0,0 +1,71 @@
+package gyromite.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vector2 and Mat2 operations, allocating and in place.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VectorMathBenchmark {
+    private final Vector2 a = new Vector2(3.0, 4.0);
+    private final Vector2 b = new Vector2(-1.0, 2.0);
+    private final Vector2 out = new Vector2();
+    private final Mat2 m = new Mat2(0.3);
+    private final Mat2 mOut = new Mat2();
+    private double angle = 0.3;
+
+    @Benchmark
+    public Vector2 add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Vector2 addInPlace() {
+        return a.add(b, out);
+    }
+
+    @Benchmark
+    public double dotAndCross() {
+        return Vector2.dot(a, b) + Vector2.cross(a, b);
+    }
+
+    @Benchmark
+    public Vector2 normalize() {
+        out.set(a);
+        out.normalize();
+        return out;
+    }
+
+    @Benchmark
+    public Vector2 rotate() {
+        return out.set(a).rotate(angle);
+    }
+
+    @Benchmark
+    public Mat2 matSet() {
+        angle += 0.001;
+        m.set(angle);
+        return m;
+    }
+
+    @Benchmark
+    public Vector2 matMul() {
+        return m.mul(a);
+    }
+
+    @Benchmark
+    public Vector2 matMulInPlace() {
+        return m.mul(a, out);
+    }
+
+    @Benchmark
+    public void matTranspose(Blackhole bh) {
+        bh.consume(m.transpose());
+        bh.consume(m.transpose(mOut));
+    }
+}
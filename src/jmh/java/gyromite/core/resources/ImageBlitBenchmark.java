@@ -0,0 +1,54 @@
+package gyromite.core.resources;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blit of the game images in a frame, as read by ImageIO and
+ * converted to compatible images.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImageBlitBenchmark {
+    @Param({ "player", "smick", "tileset" })
+    public String image;
+
+    @Param({ "imageio", "compatible" })
+    public String format;
+
+    private static final int COUNT = 64; // Blits per operation
+
+    private BufferedImage source;
+    private BufferedImage frame;
+    private Graphics2D g;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String name = image.equals("tileset") ? "/tilemaps/tileset.png" : "/img/" + image + ".png";
+        source = ImageIO.read(getClass().getResource(name));
+        if (format.equals("compatible")) {
+            source = ImageUtils.toCompatibleImage(source);
+        }
+        frame = ImageUtils.createCompatibleImage(800, 600, Transparency.OPAQUE);
+        g = frame.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage blit() {
+        for (int i = 0; i < COUNT; i++) {
+            g.drawImage(source, (i * 37) % 700, (i * 53) % 500, null);
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,44 @@
+package gyromite.core.resources;
+
+import gyromite.core.resources.tilemap.TileMapBinary;
+import gyromite.core.resources.tilemap.TileMapData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse of a game tile map from json and from the binary tilemap format,
+ * without the tileset images.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TileMapLoadBenchmark {
+    @Param({ "phase_01", "phase_02" })
+    public String map;
+
+    private URL url;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        url = getClass().getResource("/tilemaps/" + map + ".json");
+        var out = new ByteArrayOutputStream();
+        TileMapBinary.write(Resources.readJsonTilemap(url), out);
+        binary = out.toByteArray();
+    }
+
+    @Benchmark
+    public TileMapData json() throws IOException {
+        return Resources.readJsonTilemap(url);
+    }
+
+    @Benchmark
+    public TileMapData binary() throws IOException {
+        return TileMapBinary.read(ByteBuffer.wrap(binary));
+    }
+}
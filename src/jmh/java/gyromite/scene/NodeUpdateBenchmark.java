@@ -0,0 +1,55 @@
+package gyromite.scene;
+
+import gyromite.core.Vector2;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Update and world transform of deep (chain) and wide (flat) node trees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NodeUpdateBenchmark {
+    @Param({ "deep", "wide" })
+    public String tree;
+
+    @Param({ "100", "1000" })
+    public int nodeCount;
+
+    private final Node root = new Node();
+    private Node leaf;
+    private final Vector2 position = new Vector2();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Node owner = root;
+        for (int i = 0; i < nodeCount; i++) {
+            Node node = owner.addChild(new Node());
+            node.setPosition(1.0, 0.5);
+            node.setOrient(0.01);
+            leaf = node;
+            if (tree.equals("deep")) {
+                owner = node;
+            }
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        root.update();
+    }
+
+    @Benchmark
+    public Vector2 leafWorldPosition() {
+        return leaf.worldPosition(position);
+    }
+
+    @Benchmark
+    public Vector2 leafWorldPositionAfterMove() {
+        // Invalidate the whole tree
+        root.setPosition(root.position().x + 1.0, root.position().y);
+        return leaf.worldPosition(position);
+    }
+}
@@ -0,0 +1,69 @@
+package gyromite.scene;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.core.Size2;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render of sprites scattered on a world 10 times larger than
+ * the camera in both directions, in an offscreen image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SceneRenderBenchmark {
+    @Param({ "1000", "10000" })
+    public int spriteCount;
+
+    @Param({ "image", "sheet" })
+    public String sprite;
+
+    @Param({ "java2d", "software" })
+    public String renderer;
+
+    private FixedStepRunner runner;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("java.awt.headless", "true");
+        Scene scene = new Scene();
+        scene.camera().setSize(new Size2(320, 240));
+        scene.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        scene.setSoftwareRendering(renderer.equals("software"));
+        runner = new FixedStepRunner(scene);
+        runner.init();
+
+        // A single image or a 4x4 sprite sheet
+        int frames = sprite.equals("sheet") ? 4 : 1;
+        BufferedImage image = new BufferedImage(16 * frames, 16 * frames, BufferedImage.TYPE_INT_ARGB);
+        var g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        for (int y = 0; y < frames; y++) {
+            for (int x = 0; x < frames; x++) {
+                g.fillOval(x * 16, y * 16, 16, 16);
+            }
+        }
+        g.dispose();
+
+        Random random = new Random(3);
+        for (int i = 0; i < spriteCount; i++) {
+            Sprite sprite = scene.root().addChild(new Sprite(image));
+            sprite.setSize(new Size2(16, 16));
+            sprite.setHframes(frames);
+            sprite.setVframes(frames);
+            sprite.setFrame(i % (frames * frames));
+            sprite.setPosition((random.nextDouble() - 0.5) * 3200, (random.nextDouble() - 0.5) * 2400);
+        }
+        runner.render();
+    }
+
+    @Benchmark
+    public void render() {
+        runner.render();
+    }
+}
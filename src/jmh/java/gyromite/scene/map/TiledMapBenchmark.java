@@ -0,0 +1,79 @@
+package gyromite.scene.map;
+
+import gyromite.core.resources.tilemap.Layer;
+import gyromite.core.resources.tilemap.TileMapData;
+import gyromite.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build of the game tile maps with their collisions, and of synthetic maps
+ * made of phase 1 repeated in both directions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TiledMapBenchmark {
+    @Param({ "phase_01", "phase_02", "phase_01_x4", "phase_01_x16" })
+    public String map;
+
+    private Scene scene;
+    private TiledMap tiledmap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("java.awt.headless", "true");
+        scene = new Scene();
+        String[] name = map.split("_x");
+        scene.resources().loadTilemap("/tilemaps/" + name[0] + ".json", map);
+        if (name.length > 1) {
+            repeat(scene.resources().getTilemap(map), (int) Math.sqrt(Integer.parseInt(name[1])));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createMap() {
+        tiledmap = scene.root().addChild(new TiledMap(map))
+                .enableCollisions(1, 2, 3, 4, 5, 6, 14)
+                .enableAreas("rope");
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeMap() {
+        scene.root().removeChild(tiledmap);
+        scene.physics().clear();
+    }
+
+    @Benchmark
+    public TiledMap build() {
+        tiledmap.build();
+        return tiledmap;
+    }
+
+    /**
+     * Repeat the tile layers of the map n times in both directions, and drop the objects.
+     */
+    static void repeat(TileMapData tilemap, int n) {
+        var layers = new ArrayList<Layer>();
+        for (var layer : tilemap.layers) {
+            if (layer.data == null) {
+                continue;
+            }
+            var data = new int[layer.data.length * n * n];
+            for (int y = 0; y < layer.height * n; y++) {
+                for (int x = 0; x < layer.width * n; x++) {
+                    data[y * layer.width * n + x] = layer.data[(y % layer.height) * layer.width + x % layer.width];
+                }
+            }
+            layer.data = data;
+            layer.width *= n;
+            layer.height *= n;
+            layers.add(layer);
+        }
+        tilemap.layers = layers;
+        tilemap.width *= n;
+        tilemap.height *= n;
+    }
+}
@@ -0,0 +1,51 @@
+package gyromite.scene.map;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render of the whole tile maps in an offscreen image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TiledMapRenderBenchmark {
+    @Param({ "phase_01", "phase_02", "phase_01_x4" })
+    public String map;
+
+    @Param({ "java2d", "software" })
+    public String renderer;
+
+    private FixedStepRunner runner;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("java.awt.headless", "true");
+        Scene scene = new Scene();
+        String[] name = map.split("_x");
+        scene.resources().loadTilemap("/tilemaps/" + name[0] + ".json", map);
+        if (name.length > 1) {
+            TiledMapBenchmark.repeat(scene.resources().getTilemap(map), (int) Math.sqrt(Integer.parseInt(name[1])));
+        }
+
+        runner = new FixedStepRunner(scene);
+        runner.init();
+        TiledMap tiledmap = scene.root().addChild(new TiledMap(map))
+                .enableCollisions(1, 2, 3, 4, 5, 6, 14)
+                .enableAreas("rope");
+        tiledmap.build();
+
+        scene.camera().setSize(tiledmap.size());
+        scene.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        scene.setSoftwareRendering(renderer.equals("software"));
+        runner.render();
+    }
+
+    @Benchmark
+    public void render() {
+        runner.render();
+    }
+}
@@ -0,0 +1,54 @@
+package gyromite.scene.map;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.core.Size2;
+import gyromite.scene.Camera;
+import gyromite.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render of a tile map upscaled to a 4K offscreen image, as the phases in a 4K window.
+ * The bands are only used by the software renderer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TiledMapUpscaleBenchmark {
+    @Param({ "java2d", "software" })
+    public String renderer;
+
+    @Param({ "1", "2", "4", "8" })
+    public int bands;
+
+    private FixedStepRunner runner;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("java.awt.headless", "true");
+        Scene scene = new Scene();
+        scene.resources().loadTilemap("/tilemaps/phase_01.json", "phase_01");
+
+        runner = new FixedStepRunner(scene);
+        runner.init();
+        TiledMap tiledmap = scene.root().addChild(new TiledMap("phase_01"))
+                .enableCollisions(1, 2, 3, 4, 5, 6, 14)
+                .enableAreas("rope");
+        tiledmap.build();
+
+        double gameHeight = tiledmap.size().height + 32.0;
+        scene.camera().setSize(new Size2(gameHeight * 4.0 / 3.0, gameHeight));
+        scene.camera().setStretchMode(Camera.StretchMode.KEEP_ASPECT);
+        scene.viewport().setSize(3840, 2160);
+        scene.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        scene.setSoftwareRendering(renderer.equals("software"));
+        scene.setRenderBands(bands);
+        runner.render();
+    }
+
+    @Benchmark
+    public void render() {
+        runner.render();
+    }
+}
@@ -0,0 +1,45 @@
+package gyromite.scene.physics;
+
+import gyromite.core.MainLoop;
+import gyromite.scene.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Narrow phase of a pair of overlapping bodies, for each pair of shapes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionsBenchmark {
+    @Param({ "circle-circle", "circle-polygon", "polygon-circle", "polygon-polygon" })
+    public String shapes;
+
+    private final Manifold manifold = new Manifold();
+    private Body a, b;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        PhysicsProvider physics = new PhysicsProvider(MainLoop.DT, 10);
+        String[] names = shapes.split("-");
+        a = createBody(physics, names[0], 0.0, 0.0, 0.0);
+        b = createBody(physics, names[1], 6.0, 5.0, 0.3);
+    }
+
+    @Benchmark
+    public int solve() {
+        manifold.set(a, b);
+        manifold.solve();
+        return manifold.contactCount;
+    }
+
+    private static Body createBody(PhysicsProvider physics, String shape, double x, double y, double orient) {
+        Node node = new Node();
+        node.setPosition(x, y);
+        node.setOrient(orient);
+        Body body = physics.add(node, shape.equals("circle") ? new CircleShape(5) : new PolygonShape(5, 5), Body.Mode.RIGID);
+        body.computePosition();
+        return body;
+    }
+}
@@ -0,0 +1,55 @@
+package gyromite.scene.physics;
+
+import gyromite.core.MainLoop;
+import gyromite.scene.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contact solver on piles of boxes resting on a floor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContactSolverBenchmark {
+    @Param({ "100", "1000", "10000" })
+    public int bodyCount;
+
+    private PhysicsProvider physics;
+    private final ArrayList<Body> bodies = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        physics = new PhysicsProvider(MainLoop.DT, 10);
+
+        // Piles of 10 boxes
+        int piles = Math.max(1, bodyCount / 10);
+        for (int i = 0; i < piles; i++) {
+            Node tile = new Node();
+            tile.setPosition(i * 16.0, 0.0);
+            physics.add(tile, new PolygonShape(8, 8), Body.Mode.STATIC);
+
+            for (int j = 0; j < 10; j++) {
+                Node node = new Node();
+                node.setPosition(i * 16.0, -16.0 - j * 14.0);
+                bodies.add(physics.add(node, new PolygonShape(6, 6), Body.Mode.RIGID));
+            }
+        }
+
+        // Let the piles settle
+        for (int i = 0; i < 100; i++) {
+            step();
+        }
+    }
+
+    @Benchmark
+    public void step() {
+        // Keep the bodies awake so the solver always works on all the contacts
+        for (int i = 0; i < bodies.size(); i++) {
+            bodies.get(i).wake();
+        }
+        physics.step();
+    }
+}
@@ -0,0 +1,65 @@
+package gyromite.scene.physics;
+
+import gyromite.core.MainLoop;
+import gyromite.scene.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full physics step on a game like world: a tile floor with rigid bodies
+ * at rest and one character out of ten walking back and forth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhysicsStepBenchmark {
+    @Param({ "100", "1000", "10000" })
+    public int bodyCount;
+
+    private PhysicsProvider physics;
+    private final ArrayList<Body> characters = new ArrayList<>();
+    private int tick = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        physics = new PhysicsProvider(MainLoop.DT, 10);
+        Random random = new Random(42);
+
+        // Floor with one tile for two bodies
+        int tiles = Math.max(10, bodyCount / 2);
+        double width = tiles * 16.0;
+        for (int i = 0; i < tiles; i++) {
+            Node tile = new Node();
+            tile.setPosition(i * 16.0, 0.0);
+            physics.add(tile, new PolygonShape(8, 8), Body.Mode.STATIC);
+        }
+
+        for (int i = 0; i < bodyCount; i++) {
+            Node node = new Node();
+            node.setPosition(random.nextDouble() * width, -16.0 - random.nextDouble() * 64.0);
+            if (i % 10 == 0) {
+                characters.add(physics.add(node, new PolygonShape(6, 7), Body.Mode.CHARACTER));
+            } else {
+                Shape shape = i % 2 == 0 ? new CircleShape(5) : new PolygonShape(5, 5);
+                physics.add(node, shape, Body.Mode.RIGID);
+            }
+        }
+
+        // Let the bodies fall and settle
+        for (int i = 0; i < 200; i++) {
+            step();
+        }
+    }
+
+    @Benchmark
+    public void step() {
+        double vx = (tick++ / 50) % 2 == 0 ? 40.0 : -40.0;
+        for (int i = 0; i < characters.size(); i++) {
+            characters.get(i).setVelocityX(vx);
+        }
+        physics.step();
+    }
+}
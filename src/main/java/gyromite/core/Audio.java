@@ -1,5 +1,6 @@
 package gyromite.core;
 
+import gyromite.core.resources.ResourceHandle;
 import gyromite.scene.Scene;
 
 import javax.sound.sampled.Clip;
@@ -8,52 +9,72 @@ import javax.sound.sampled.LineListener;
 
 /**
  * Play audio resource.
+ * The playing clip is acquired from the resources so that it is not evicted while playing.
  */
 public class Audio implements LineListener {
     private final Scene scene;
     private Clip currentClip = null;
+    private ResourceHandle<Clip> currentHandle = null;
     public Audio(Scene scene) {
         this.scene = scene;
     }
 
-    public void play(String id) {
+    public synchronized void play(String id) {
         stop();
-        var clip = scene.resources().getAudio(id);
+        var clip = start(id);
         if(clip != null) {
-            clip.addLineListener(this);
-            clip.setMicrosecondPosition(0);
             clip.start();
-            currentClip = clip;
         }
     }
 
-    public void loop(String id) {
+    public synchronized void loop(String id) {
         stop();
-        var clip = scene.resources().getAudio(id);
+        var clip = start(id);
         if(clip != null) {
-            clip.addLineListener(this);
-            clip.setMicrosecondPosition(0);
             clip.loop(Clip.LOOP_CONTINUOUSLY);
-            currentClip = clip;
         }
     }
 
-    public void stop() {
+    public synchronized void stop() {
         if(currentClip != null) {
-            currentClip.stop();
-            currentClip = null;
+            var clip = currentClip;
+            clear();
+            clip.stop();
         }
     }
 
-    public boolean isPlaying() {
+    public synchronized boolean isPlaying() {
         return currentClip != null;
     }
 
     @Override
-    public void update(LineEvent event) {
+    public synchronized void update(LineEvent event) {
         if(event.getType() == LineEvent.Type.STOP || event.getType() == LineEvent.Type.CLOSE) {
-            currentClip = null;
+            if(event.getLine() == currentClip) {
+                clear();
+            }
             event.getLine().removeLineListener(this);
         }
     }
+
+    private Clip start(String id) {
+        var handle = scene.resources().acquireAudio(id);
+        if(handle == null) {
+            return null;
+        }
+        var clip = handle.get();
+        clip.addLineListener(this);
+        clip.setMicrosecondPosition(0);
+        currentClip = clip;
+        currentHandle = handle;
+        return clip;
+    }
+
+    private void clear() {
+        currentClip = null;
+        if(currentHandle != null) {
+            currentHandle.release();
+            currentHandle = null;
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package gyromite.core;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Run a {@link MainLoop} in the calling thread without wall clock pacing.
+ * The ticks are run as fast as possible on the virtual clock of the loop
+ * (see {@link MainLoop#ticks()}), so a run is deterministic if the game is.
+ * Used to simulate long plays, typically with a headless {@link gyromite.scene.Scene}.
+ */
+public class FixedStepRunner {
+    private final MainLoop loop;
+    private boolean initialized = false;
+    private int renderInterval = 0;
+
+    private long ranTicks = 0;
+    private long ranNanos = 0;
+    private long lastTicks = 0;
+    private long lastNanos = 0;
+
+    /**
+     * @param loop The loop to run. Its thread must not be started.
+     */
+    public FixedStepRunner(MainLoop loop) {
+        this.loop = loop;
+    }
+
+    /**
+     * @return The loop run.
+     */
+    public MainLoop loop() {
+        return loop;
+    }
+
+    /**
+     * Set how often a frame is rendered.
+     * @param renderInterval Render a frame every <code>renderInterval</code> ticks, 0 to never render.
+     * @throws IllegalArgumentException If the interval is negative.
+     */
+    public void setRenderInterval(int renderInterval) {
+        if(renderInterval < 0) {
+            throw new IllegalArgumentException("The render interval must not be negative");
+        }
+        this.renderInterval = renderInterval;
+    }
+
+    /**
+     * Preload and initialize the loop if not done yet.
+     * Called by the run methods.
+     * @throws IllegalStateException If the loop thread was started.
+     */
+    public void init() {
+        if(initialized) {
+            return;
+        }
+        if(loop.isStarted()) {
+            throw new IllegalStateException("The loop thread is already started");
+        }
+        initialized = true;
+        loop.preload();
+        loop.init();
+    }
+
+    /**
+     * Run ticks as fast as possible.
+     * @param ticks The number of ticks to run.
+     */
+    public void run(long ticks) {
+        runUntil(() -> false, ticks);
+    }
+
+    /**
+     * Run ticks as fast as possible during a virtual time.
+     * @param seconds The virtual time in seconds.
+     */
+    public void runFor(double seconds) {
+        run((long) StrictMath.ceil(seconds / MainLoop.DT));
+    }
+
+    /**
+     * Run ticks as fast as possible until a condition is met.
+     * The run stops early if the loop is paused, since a paused loop does not tick.
+     * @param condition Checked before each tick.
+     * @param maxTicks The maximum number of ticks to run.
+     * @return The number of ticks run.
+     */
+    public long runUntil(BooleanSupplier condition, long maxTicks) {
+        init();
+
+        long start = System.nanoTime();
+        long count = 0;
+        while (count < maxTicks && !condition.getAsBoolean()) {
+            long ticks = loop.ticks();
+            loop.tick(true);
+            if(loop.ticks() == ticks) {
+                break; // Paused
+            }
+            count++;
+            if(renderInterval > 0 && loop.ticks() % renderInterval == 0) {
+                loop.render();
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        lastTicks = count;
+        lastNanos = nanos;
+        ranTicks += count;
+        ranNanos += nanos;
+        return count;
+    }
+
+    /**
+     * Render a frame.
+     */
+    public void render() {
+        init();
+        loop.render();
+    }
+
+    /**
+     * @return The number of ticks run by this runner.
+     */
+    public long ranTicks() {
+        return ranTicks;
+    }
+
+    /**
+     * @return The ticks per second achieved by all the runs.
+     */
+    public double ticksPerSecond() {
+        return ticksPerSecond(ranTicks, ranNanos);
+    }
+
+    /**
+     * @return The ticks per second achieved by the last run.
+     */
+    public double lastTicksPerSecond() {
+        return ticksPerSecond(lastTicks, lastNanos);
+    }
+
+    /**
+     * @return How many times faster than real time the runs were.
+     */
+    public double speedup() {
+        return ticksPerSecond() / MainLoop.OPTIMAL_TICKS;
+    }
+
+    /**
+     * @return A short report of the achieved speed.
+     */
+    public String report() {
+        return String.format("%d ticks (%.1f s of play) at %.0f ticks/s, x%.1f real time",
+                ranTicks, ranTicks * MainLoop.DT, ticksPerSecond(), speedup());
+    }
+
+    private static double ticksPerSecond(long ticks, long nanos) {
+        return nanos > 0 ? ticks * (double) MainLoop.NANOSECOND / nanos : 0.0;
+    }
+}
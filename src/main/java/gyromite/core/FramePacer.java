@@ -0,0 +1,78 @@
+package gyromite.core;
+
+import java.awt.Canvas;
+
+/**
+ * Pacing strategy of the {@link MainLoop}.
+ * Wait for the next tick or frame deadline and record the frame time statistics.
+ * See {@link SleepPacer}, {@link HybridPacer} and {@link VsyncPacer}.
+ */
+public abstract class FramePacer {
+    private final FrameStats stats = new FrameStats(MainLoop.NANOS_PER_RENDER);
+
+    /**
+     * Create a pacer from its name.
+     * @param name <code>sleep</code>, <code>hybrid</code> or <code>vsync</code>.
+     * @return The pacer.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static FramePacer create(String name) {
+        return switch (name) {
+            case "sleep" -> new SleepPacer();
+            case "hybrid" -> new HybridPacer();
+            case "vsync" -> new VsyncPacer();
+            default -> throw new IllegalArgumentException(String.format("Unknown pacer '%s'", name));
+        };
+    }
+
+    /**
+     * @return The frame time statistics.
+     */
+    public FrameStats stats() {
+        return stats;
+    }
+
+    /**
+     * @return <code>true</code> if presenting a frame waits for the vertical sync.
+     *         The loop then renders without waiting for the frame deadlines.
+     */
+    public boolean isVsync() {
+        return false;
+    }
+
+    /**
+     * Create the buffer strategy of the canvas where the frames are rendered.
+     * @param canvas The canvas.
+     */
+    public void createBufferStrategy(Canvas canvas) {
+        canvas.createBufferStrategy(3);
+    }
+
+    /**
+     * Wait until the deadline, and record how late the wake up was.
+     * @param deadline The deadline in nanoseconds (see {@link System#nanoTime()}).
+     */
+    public final void waitUntil(long deadline) {
+        long now = System.nanoTime();
+        if (deadline - now <= 0) {
+            return;
+        }
+        await(deadline, now);
+        stats.addWakeup(Math.max(0, System.nanoTime() - deadline));
+    }
+
+    /**
+     * Record a rendered frame. Called by the loop after each render.
+     * @param now The time in nanoseconds.
+     */
+    public void frameRendered(long now) {
+        stats.addFrame(now);
+    }
+
+    /**
+     * Wait until the deadline.
+     * @param deadline The deadline in nanoseconds.
+     * @param now The current time in nanoseconds, before the deadline.
+     */
+    protected abstract void await(long deadline, long now);
+}
@@ -0,0 +1,126 @@
+package gyromite.core;
+
+/**
+ * Frame time statistics of a {@link FramePacer}.
+ * Records the interval between rendered frames, and the lateness of the
+ * pacer waking up after a deadline. The methods can be called from any thread.
+ */
+public class FrameStats {
+    private final double targetInterval;
+
+    private long lastFrame = 0;
+    private long frames = 0;
+    private double meanInterval = 0.0;
+    private double m2Interval = 0.0;
+    private long maxInterval = 0;
+    private long missedFrames = 0;
+
+    private long wakeups = 0;
+    private double meanLateness = 0.0;
+    private long maxLateness = 0;
+
+    /**
+     * @param targetInterval The expected interval between frames in nanoseconds.
+     */
+    public FrameStats(double targetInterval) {
+        this.targetInterval = targetInterval;
+    }
+
+    /**
+     * Record a rendered frame.
+     * @param now The time of the frame in nanoseconds (see {@link System#nanoTime()}).
+     */
+    public synchronized void addFrame(long now) {
+        if (lastFrame != 0) {
+            long interval = now - lastFrame;
+            frames++;
+            double delta = interval - meanInterval;
+            meanInterval += delta / frames;
+            m2Interval += delta * (interval - meanInterval);
+            maxInterval = Math.max(maxInterval, interval);
+            if (interval > targetInterval * 1.5) {
+                missedFrames++;
+            }
+        }
+        lastFrame = now;
+    }
+
+    /**
+     * Record a wake up of the pacer.
+     * @param lateness The time elapsed after the deadline in nanoseconds.
+     */
+    public synchronized void addWakeup(long lateness) {
+        wakeups++;
+        meanLateness += (lateness - meanLateness) / wakeups;
+        maxLateness = Math.max(maxLateness, lateness);
+    }
+
+    /**
+     * Clear the statistics. The interval to the next frame is still recorded.
+     */
+    public synchronized void reset() {
+        frames = 0;
+        meanInterval = 0.0;
+        m2Interval = 0.0;
+        maxInterval = 0;
+        missedFrames = 0;
+        wakeups = 0;
+        meanLateness = 0.0;
+        maxLateness = 0;
+    }
+
+    /**
+     * @return The number of frame intervals recorded.
+     */
+    public synchronized long frames() {
+        return frames;
+    }
+
+    /**
+     * @return The mean interval between frames in milliseconds.
+     */
+    public synchronized double meanInterval() {
+        return meanInterval / 1e6;
+    }
+
+    /**
+     * @return The jitter, standard deviation of the interval between frames in milliseconds.
+     */
+    public synchronized double jitter() {
+        return frames > 1 ? Math.sqrt(m2Interval / (frames - 1)) / 1e6 : 0.0;
+    }
+
+    /**
+     * @return The longest interval between frames in milliseconds.
+     */
+    public synchronized double maxInterval() {
+        return maxInterval / 1e6;
+    }
+
+    /**
+     * @return The number of frames shown more than half a frame late.
+     */
+    public synchronized long missedFrames() {
+        return missedFrames;
+    }
+
+    /**
+     * @return The mean lateness of the wake ups in milliseconds.
+     */
+    public synchronized double meanLateness() {
+        return meanLateness / 1e6;
+    }
+
+    /**
+     * @return The maximum lateness of the wake ups in milliseconds.
+     */
+    public synchronized double maxLateness() {
+        return maxLateness / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("frame %.2f ms, jitter %.2f ms, max %.2f ms, missed %d/%d, wake up late %.3f ms (max %.3f ms)",
+                meanInterval(), jitter(), maxInterval(), missedFrames, frames, meanLateness(), maxLateness());
+    }
+}
@@ -0,0 +1,48 @@
+package gyromite.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pacer parking the thread until shortly before the deadline, then spinning.
+ * The wake ups are precise to a few microseconds, at the cost of
+ * busy waiting during the spin threshold.
+ */
+public class HybridPacer extends FramePacer {
+    public static final long DEFAULT_SPIN_THRESHOLD = 500_000;
+
+    private final long spinThreshold;
+
+    public HybridPacer() {
+        this(DEFAULT_SPIN_THRESHOLD);
+    }
+
+    /**
+     * @param spinThreshold The time spent spinning before the deadline in nanoseconds.
+     * @throws IllegalArgumentException If the threshold is negative.
+     */
+    public HybridPacer(long spinThreshold) {
+        if (spinThreshold < 0) {
+            throw new IllegalArgumentException("The spin threshold must not be negative");
+        }
+        this.spinThreshold = spinThreshold;
+    }
+
+    /**
+     * @return The time spent spinning before the deadline in nanoseconds.
+     */
+    public long spinThreshold() {
+        return spinThreshold;
+    }
+
+    @Override
+    protected void await(long deadline, long now) {
+        long remaining = deadline - now;
+        while (remaining > spinThreshold) {
+            LockSupport.parkNanos(remaining - spinThreshold);
+            remaining = deadline - System.nanoTime();
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -7,8 +7,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class MainLoop {
     private final Thread thread = new Thread(this::run);
+    private final Thread renderThread = new Thread(this::runRender);
     private final AtomicBoolean running = new AtomicBoolean();
     private final AtomicBoolean paused = new AtomicBoolean();
+    private long ticks = 0;
+    private volatile boolean renderThreaded = false;
+    private double renderAlpha = 1.0;
+    private volatile FramePacer pacer = defaultPacer();
 
     public static final long NANOSECOND         = 1000000000;
     public static final double OPTIMAL_TICKS    = 50.0;
@@ -17,6 +22,18 @@ public class MainLoop {
     public static final double NANOS_PER_RENDER = NANOSECOND / OPTIMAL_FPS;
     public static final double DT               = 1.0 / OPTIMAL_TICKS;
 
+    /**
+     * @return The pacer given by the <code>gyromite.pacer</code> system property, hybrid if not set or unknown.
+     */
+    private static FramePacer defaultPacer() {
+        try {
+            return FramePacer.create(System.getProperty("gyromite.pacer", "hybrid"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + ", using the hybrid pacer");
+            return new HybridPacer();
+        }
+    }
+
     /**
      * Start the loop. The game thread will be started.
      */
@@ -26,7 +43,7 @@ public class MainLoop {
     }
 
     /**
-     * Destroy the game, stop the thread and join.
+     * Destroy the game, stop the threads and join.
      * Must be called from the main thread.
      * @throws RuntimeException If this method is called from the game thread.
      */
@@ -35,13 +52,8 @@ public class MainLoop {
             throw new RuntimeException("Destroy cannot be called from the game thread");
         }
         running.set(false);
-        while (thread.isAlive()) {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                e.printStackTrace(System.err);
-            }
-        }
+        join(thread);
+        join(renderThread);
     }
 
     /**
@@ -60,57 +72,187 @@ public class MainLoop {
         return this.paused.get();
     }
 
+    /**
+     * @return The pacing strategy of the loop.
+     */
+    public FramePacer pacer() {
+        return pacer;
+    }
+
+    /**
+     * Set the pacing strategy of the loop.
+     * Should be set before the first render, since the vertical sync
+     * pacer creates the buffer strategy of the window.
+     * The default pacer is given by the <code>gyromite.pacer</code> system property
+     * (<code>sleep</code>, <code>hybrid</code> or <code>vsync</code>), hybrid if not set or unknown.
+     * @param pacer The pacer.
+     */
+    public void setPacer(FramePacer pacer) {
+        this.pacer = pacer;
+    }
+
+    /**
+     * @return <code>true</code> if the rendering runs on its own thread.
+     */
+    public boolean isRenderThreaded() {
+        return renderThreaded;
+    }
+
+    /**
+     * Set whether the rendering runs on its own thread. Must be called before the loop is started.
+     * The game thread then only runs the update ticks and calls {@link #snapshot(long)} after each tick,
+     * the render thread calls {@link #render()} to draw the last snapshots.
+     * @param renderThreaded <code>true</code> to render on a separate thread.
+     * @throws IllegalStateException If the loop is started.
+     */
+    public void setRenderThreaded(boolean renderThreaded) {
+        if(isStarted()) {
+            throw new IllegalStateException("The loop is already started");
+        }
+        this.renderThreaded = renderThreaded;
+    }
+
+    /**
+     * @return <code>true</code> if the game thread was started.
+     */
+    public boolean isStarted() {
+        return running.get() || thread.isAlive();
+    }
+
+    /**
+     * @return The number of update ticks since the start.
+     *         This is the virtual clock of the game, a tick lasts {@link #DT} seconds.
+     */
+    public long ticks() {
+        return ticks;
+    }
+
+    /**
+     * @return The virtual time since the start in seconds.
+     */
+    public double time() {
+        return ticks * DT;
+    }
+
+    /**
+     * @return The interpolation factor of the frame being rendered, between the state
+     *         of the previous tick (0) and the state of the last tick (1).
+     *         Always 1 if the game is paused or if the ticks are not run by the loop thread.
+     */
+    public double renderAlpha() {
+        return renderAlpha;
+    }
+
+    /**
+     * Run one update tick, unless the game is paused.
+     * @param processInput <code>true</code> to process the inputs before the update.
+     */
+    void tick(boolean processInput) {
+        if(paused.get()) {
+            return;
+        }
+        if(processInput) {
+            processInput();
+        }
+        updatePhysics();
+        update();
+        ticks++;
+    }
+
     /**
      * Run the game loop
      */
     private void run() {
         long nextTick = System.nanoTime();
-        long nextSecond = nextTick;
         long nextRender = nextTick;
 
         preload();
         init();
 
+        final boolean threaded = renderThreaded;
+        if (threaded) {
+            snapshot(nextTick);
+            renderThread.start();
+        }
+
         while (running.get()) {
             final long now = System.nanoTime();
 
             // update the game
-            boolean isPaused = paused.get();
             if (now - nextTick >= 0) {
-                if(!isPaused) {
-                    processInput();
-                }
+                boolean processInput = true;
                 do {
-                    if(!isPaused) {
-                        updatePhysics();
-                        update();
-                    }
+                    tick(processInput);
+                    processInput = false;
 
                     nextTick += NANOS_PER_TICK;
+                    if (threaded) {
+                        snapshot(nextTick);
+                    }
                 } while (now - nextTick >= 0);
             }
 
+            final FramePacer pacer = this.pacer;
+            if (threaded) {
+                pacer.waitUntil(nextTick);
+                continue;
+            }
+
+            // the last tick is rendered fully one tick after it was run
+            final double alpha = 1.0 - (nextTick - System.nanoTime()) / NANOS_PER_TICK;
+            renderAlpha = isPaused() ? 1.0 : MathUtils.clamp(alpha, 0.0, 1.0);
+            nextRender = renderFrame(pacer, now, nextRender);
+
+            // wait for the next loop
+            pacer.waitUntil(Math.min(nextTick, nextRender));
+        }
+    }
+
+    /**
+     * Run the render loop, when the rendering runs on its own thread
+     */
+    private void runRender() {
+        long nextRender = System.nanoTime();
+
+        while (running.get()) {
+            final FramePacer pacer = this.pacer;
+            nextRender = renderFrame(pacer, System.nanoTime(), nextRender);
+            pacer.waitUntil(nextRender);
+        }
+    }
+
+    /**
+     * Render a frame if the render deadline is reached
+     * @return The next render deadline
+     */
+    private long renderFrame(FramePacer pacer, long now, long nextRender) {
+        if (pacer.isVsync()) {
+            // presenting the frame waits for the vertical blank,
+            // the deadline only limits the rate if it does not
             if (now - nextRender >= 0) {
-                // render the game
                 render();
-                do {
-                    // skip render lag
-                    nextRender += NANOS_PER_RENDER;
-                } while (now - nextRender >= 0);
+                final long rendered = System.nanoTime();
+                pacer.frameRendered(rendered);
+                nextRender = rendered + (long) (NANOS_PER_RENDER / 2);
             }
+        } else if (now - nextRender >= 0) {
+            // render the game
+            render();
+            pacer.frameRendered(System.nanoTime());
+            do {
+                // skip render lag
+                nextRender += NANOS_PER_RENDER;
+            } while (now - nextRender >= 0);
+        }
+        return nextRender;
+    }
 
-            // delay to the next loop
-            final long workTime = System.nanoTime();
-            final long minDelay = Math.min(nextSecond - workTime,
-                    Math.min(nextTick - workTime, nextRender - workTime));
-
-            if (minDelay > 0) {
-                long milliDelay = (minDelay + 1_000_000) / 1_000_000L;
-                try {
-                    Thread.sleep(milliDelay);
-                } catch (InterruptedException e) {
-                    e.printStackTrace(System.err);
-                }
+    private static void join(Thread thread) {
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace(System.err);
             }
         }
     }
@@ -140,6 +282,13 @@ public class MainLoop {
     protected void updatePhysics() { }
     /**
      * Render tick.
+     * Called from the render thread if the rendering runs on its own thread.
      */
     protected void render() { }
+    /**
+     * Capture the game state to render, called after each update tick
+     * when the rendering runs on its own thread.
+     * @param time The time at which the state is rendered in nanoseconds (see {@link System#nanoTime()}).
+     */
+    protected void snapshot(long time) { }
 }
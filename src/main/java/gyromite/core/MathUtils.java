@@ -28,6 +28,20 @@ public class MathUtils {
         return Math.max(min, Math.min(max, val));
     }
 
+    /**
+     * Linear interpolation from a to b
+     */
+    public static double lerp(double a, double b, double alpha) {
+        return a + (b - a) * alpha;
+    }
+
+    /**
+     * Linear interpolation from the angle a to the angle b in radians, along the shortest arc
+     */
+    public static double lerpAngle(double a, double b, double alpha) {
+        return a + Math.IEEEremainder(b - a, 2.0 * PI) * alpha;
+    }
+
     public static double random( double min, double max )
     {
         return (double)((max - min) * Math.random() + min);
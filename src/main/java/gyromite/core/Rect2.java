@@ -43,6 +43,14 @@ public class Rect2 implements Cloneable {
         return min.x == max.x && min.y == max.y;
     }
 
+    /**
+     * @return <code>true</code> if the rectangles overlap or touch.
+     */
+    public boolean intersects(Rect2 rect) {
+        return min.x <= rect.max.x && rect.min.x <= max.x &&
+                min.y <= rect.max.y && rect.min.y <= max.y;
+    }
+
     public Size2 size() {
         return new Size2(max.x - min.x, max.y - min.y);
     }
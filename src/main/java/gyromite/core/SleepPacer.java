@@ -0,0 +1,17 @@
+package gyromite.core;
+
+/**
+ * Pacer sleeping until the deadline, rounded up to the next millisecond.
+ * Cheap, but the wake ups are late by up to a few milliseconds.
+ */
+public class SleepPacer extends FramePacer {
+    @Override
+    protected void await(long deadline, long now) {
+        long milliDelay = (deadline - now + 1_000_000) / 1_000_000L;
+        try {
+            Thread.sleep(milliDelay);
+        } catch (InterruptedException e) {
+            e.printStackTrace(System.err);
+        }
+    }
+}
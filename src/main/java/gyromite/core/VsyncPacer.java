@@ -0,0 +1,47 @@
+package gyromite.core;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.ImageCapabilities;
+
+/**
+ * Pacer synchronizing the frames with the display refresh.
+ * The buffer strategy is created with the vertical sync enabled, through the
+ * JDK internal <code>ExtendedBufferCapabilities</code>, so presenting a frame
+ * waits for the vertical blank. On Java 16 or later the JVM must be run with
+ * <code>--add-exports java.desktop/sun.java2d.pipe.hw=ALL-UNNAMED</code>.
+ * If the vertical sync is not available, behaves like the {@link HybridPacer}.
+ */
+public class VsyncPacer extends HybridPacer {
+    private volatile boolean vsync = false;
+
+    @Override
+    public boolean isVsync() {
+        return vsync;
+    }
+
+    @Override
+    public void createBufferStrategy(Canvas canvas) {
+        try {
+            Class<?> capabilitiesClass = Class.forName("sun.java2d.pipe.hw.ExtendedBufferCapabilities");
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Class<Enum> vsyncTypeClass = (Class<Enum>) Class.forName("sun.java2d.pipe.hw.ExtendedBufferCapabilities$VSyncType");
+            @SuppressWarnings("unchecked")
+            Object vsyncOn = Enum.valueOf(vsyncTypeClass, "VSYNC_ON");
+
+            var capabilities = new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true),
+                    BufferCapabilities.FlipContents.UNDEFINED);
+            var vsyncCapabilities = (BufferCapabilities) capabilitiesClass
+                    .getConstructor(BufferCapabilities.class, vsyncTypeClass)
+                    .newInstance(capabilities, vsyncOn);
+
+            canvas.createBufferStrategy(2, vsyncCapabilities);
+            vsync = true;
+        } catch (ReflectiveOperationException | AWTException | RuntimeException e) {
+            System.err.println("Vertical sync not available: " + e);
+            vsync = false;
+            super.createBufferStrategy(canvas);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package gyromite.core.resources;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Image functions.
+ * The compatible images are in the pixel format of the screen, Java2D draws them
+ * without conversion and keeps a copy in video memory when the pipeline is accelerated.
+ * This copy is restored by Java2D when the video memory surface is lost.
+ */
+public class ImageUtils {
+    /**
+     * @return The graphics configuration of the default screen, null if headless.
+     */
+    public static GraphicsConfiguration graphicsConfiguration() {
+        if(GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    /**
+     * Create an image compatible with the screen.
+     * Without screen, the image is an int RGB image if opaque, a premultiplied int ARGB image otherwise.
+     * @param transparency The transparency of the image, see {@link Transparency}.
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        var config = graphicsConfiguration();
+        if(config != null) {
+            return config.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height, transparency == Transparency.OPAQUE ?
+                BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Convert an image to an image compatible with the screen.
+     * @return The converted image, or the image itself if already compatible.
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        int transparency = image.getTransparency();
+        var config = graphicsConfiguration();
+        if(config != null ? image.getColorModel().equals(config.getColorModel(transparency)) :
+                image.getType() == (transparency == Transparency.OPAQUE ?
+                        BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE)) {
+            return image;
+        }
+        var compatible = createCompatibleImage(image.getWidth(), image.getHeight(), transparency);
+        Graphics2D g = compatible.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+}
@@ -0,0 +1,124 @@
+package gyromite.core.resources;
+
+import javax.sound.sampled.Clip;
+import java.util.LinkedHashMap;
+
+/**
+ * The loaded resources, in the least recently used order with their estimated size.
+ * When the total size exceeds the memory budget, the least recently used resources
+ * without references are evicted.
+ */
+class ResourceCache {
+    static final class Entry {
+        final Object value;
+        final long size;
+        int references = 0;
+        boolean removed = false;
+
+        Entry(Object value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long budget;
+    private long usage = 0;
+
+    ResourceCache(long budget) {
+        this.budget = budget;
+    }
+
+    synchronized long budget() {
+        return budget;
+    }
+    synchronized long usage() {
+        return usage;
+    }
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void setBudget(long budget) {
+        this.budget = budget;
+        evict(null);
+    }
+
+    /**
+     * Add a resource, replacing the resource with the same key.
+     */
+    synchronized void put(String key, Object value, long size) {
+        var old = entries.put(key, new Entry(value, size));
+        if(old != null) {
+            detach(old);
+        }
+        usage += size;
+        evict(key);
+    }
+
+    synchronized Object get(String key) {
+        var entry = entries.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Add a reference to a resource, it is not evicted until released.
+     * @return The entry of the resource, null if not in the cache.
+     */
+    synchronized Entry acquire(String key) {
+        var entry = entries.get(key);
+        if(entry != null) {
+            entry.references++;
+        }
+        return entry;
+    }
+
+    synchronized void release(Entry entry) {
+        entry.references--;
+        if(entry.removed) {
+            if(entry.references == 0) {
+                dispose(entry.value);
+            }
+        } else {
+            evict(null);
+        }
+    }
+
+    /**
+     * Remove a resource. A referenced resource is disposed when released.
+     * @return False if the resource is not in the cache.
+     */
+    synchronized boolean remove(String key) {
+        var entry = entries.remove(key);
+        if(entry == null) {
+            return false;
+        }
+        detach(entry);
+        return true;
+    }
+
+    private void evict(String keep) {
+        var it = entries.entrySet().iterator();
+        while(usage > budget && it.hasNext()) {
+            var e = it.next();
+            if(e.getValue().references == 0 && !e.getKey().equals(keep)) {
+                it.remove();
+                detach(e.getValue());
+            }
+        }
+    }
+
+    private void detach(Entry entry) {
+        usage -= entry.size;
+        entry.removed = true;
+        if(entry.references == 0) {
+            dispose(entry.value);
+        }
+    }
+
+    private static void dispose(Object value) {
+        if(value instanceof Clip) {
+            ((Clip) value).close();
+        }
+    }
+}
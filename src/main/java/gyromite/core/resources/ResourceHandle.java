@@ -0,0 +1,51 @@
+package gyromite.core.resources;
+
+/**
+ * A reference to a loaded resource.
+ * The resource is not evicted from the {@link Resources} cache until the handle is released.
+ * @param <T> The type of the resource.
+ */
+public final class ResourceHandle<T> {
+    private final ResourceCache cache;
+    private final ResourceCache.Entry entry;
+    private final String id;
+    private volatile boolean released = false;
+
+    ResourceHandle(ResourceCache cache, ResourceCache.Entry entry, String id) {
+        this.cache = cache;
+        this.entry = entry;
+        this.id = id;
+    }
+
+    /**
+     * @return The id of the resource.
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * @return The resource.
+     */
+    @SuppressWarnings("unchecked")
+    public T get() {
+        if(released) {
+            throw new IllegalStateException("The resource handle is released");
+        }
+        return (T) entry.value;
+    }
+
+    /**
+     * Release the reference to the resource. Does nothing if already released.
+     */
+    public synchronized void release() {
+        if(!released) {
+            released = true;
+            cache.release(entry);
+        }
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+}
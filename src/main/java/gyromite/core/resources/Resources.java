@@ -2,6 +2,7 @@ package gyromite.core.resources;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import gyromite.core.resources.tilemap.TileMapBinary;
 import gyromite.core.resources.tilemap.TileMapData;
 import gyromite.core.resources.tilemap.TileSet;
 
@@ -11,27 +12,52 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.util.HashMap;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * The resources manager.
  */
 public class Resources {
-    private final Map<String, BufferedImage> images = new HashMap<>();
-    private final Map<String, TileMapData> tilemaps = new HashMap<>();
-    private final Map<String, Font> fonts = new HashMap<>();
-    private final Map<String, Clip> audios = new HashMap<>();
+    static final ObjectMapper JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES, false);
+
+    public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+    private static final long FONT_SIZE = 64L << 10; // Estimated size of a font
+    private static final long OBJECT_SIZE = 256; // Estimated size of a tilemap object or tile data
+
+    private static final String IMAGE = "image/", TILEMAP = "tilemap/", FONT = "font/", AUDIO = "audio/";
+
+    // The loaded resources, and how to read them again when evicted, by kind and id.
+    // The images are cached by name, so the tilesets share them with the images loaded by id.
+    private final ResourceCache cache = new ResourceCache(DEFAULT_MEMORY_BUDGET);
+    private final Map<String, Supplier<Object>> sources = new ConcurrentHashMap<>();
+    private final Map<String, String> imageNames = new ConcurrentHashMap<>();
+
+    private ExecutorService executor = null;
+    private final Queue<CompletableFuture<Boolean>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
 
     /**
      * Load an image.
+     * The image is converted to the format of the screen, see {@link ImageUtils#toCompatibleImage(BufferedImage)}.
+     * An image already loaded with the same name, by another id or by a tilemap, is shared.
      */
     public boolean loadImage(String name, String id) {
-        var img = loadImage(name);
-        if(img == null) {
+        if(!loadImageName(name)) {
             return false;
         }
-        images.put(id, img);
+        imageNames.put(id, name);
         return true;
     }
 
@@ -40,30 +66,303 @@ public class Resources {
      * Only ttf is supported.
      */
     public boolean loadFont(String name, String id) {
+        return load(FONT + id, () -> readFont(name));
+    }
+
+    /**
+     * Load an audio.
+     * Only wav is supported.
+     */
+    public boolean loadAudio(String name, String id) {
+        return load(AUDIO + id, () -> readAudio(name));
+    }
+
+    /**
+     * Load a json tilemap.
+     * The precompiled binary tilemap next to the json file is loaded instead if it exists.
+     * @see TileMapConverter
+     */
+    public boolean loadTilemap(String name, String id) {
+        return load(TILEMAP + id, () -> readTilemap(name));
+    }
+
+    /**
+     * Load an image in the background.
+     * @return The future result of {@link #loadImage(String, String)}.
+     */
+    public CompletableFuture<Boolean> loadImageAsync(String name, String id) {
+        return submit(() -> loadImage(name, id));
+    }
+
+    /**
+     * Load a font in the background.
+     * @return The future result of {@link #loadFont(String, String)}.
+     */
+    public CompletableFuture<Boolean> loadFontAsync(String name, String id) {
+        return submit(() -> loadFont(name, id));
+    }
+
+    /**
+     * Load an audio in the background.
+     * @return The future result of {@link #loadAudio(String, String)}.
+     */
+    public CompletableFuture<Boolean> loadAudioAsync(String name, String id) {
+        return submit(() -> loadAudio(name, id));
+    }
+
+    /**
+     * Load a tilemap in the background.
+     * @return The future result of {@link #loadTilemap(String, String)}.
+     */
+    public CompletableFuture<Boolean> loadTilemapAsync(String name, String id) {
+        return submit(() -> loadTilemap(name, id));
+    }
+
+    /**
+     * @return The ratio of the background loads completed, 1 if none was started.
+     */
+    public double progress() {
+        int done = completed.get();
+        int total = submitted.get();
+        return total == 0 ? 1.0 : (double) done / total;
+    }
+
+    /**
+     * @return True if background loads are not completed.
+     */
+    public boolean isLoading() {
+        return completed.get() < submitted.get();
+    }
+
+    /**
+     * Wait for the completion of the background loads.
+     */
+    public void finishLoading() {
+        CompletableFuture<Boolean> future;
+        while((future = pending.poll()) != null) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                e.getCause().printStackTrace(System.err);
+            }
+        }
+    }
+
+    /**
+     * Get an image without reference. The image may be evicted afterwards,
+     * it must be acquired to be kept, see {@link #acquireImage(String)}.
+     * @return The image, null if not loaded.
+     */
+    public BufferedImage getImage(String id) {
+        var name = imageNames.get(id);
+        return name != null ? (BufferedImage) get(IMAGE + name) : null;
+    }
+    /**
+     * Get a tilemap without reference, see {@link #acquireTilemap(String)}.
+     * @return The tilemap, null if not loaded.
+     */
+    public TileMapData getTilemap(String id) {
+        return (TileMapData) get(TILEMAP + id);
+    }
+    /**
+     * Get a font without reference, see {@link #acquireFont(String)}.
+     * @return The font, null if not loaded.
+     */
+    public Font getFont(String id) {
+        return (Font) get(FONT + id);
+    }
+    /**
+     * Get an audio without reference. An evicted audio is closed,
+     * it must be acquired to be played, see {@link #acquireAudio(String)}.
+     * @return The audio, null if not loaded.
+     */
+    public Clip getAudio(String id) {
+        return (Clip) get(AUDIO + id);
+    }
+
+    /**
+     * Get a reference to an image, the image stays loaded until the handle is released.
+     * @return The handle, null if the image is not loaded.
+     */
+    public ResourceHandle<BufferedImage> acquireImage(String id) {
+        var name = imageNames.get(id);
+        return name != null ? acquire(IMAGE + name, id) : null;
+    }
+    /**
+     * Get a reference to a tilemap, the tilemap stays loaded until the handle is released.
+     * @return The handle, null if the tilemap is not loaded.
+     */
+    public ResourceHandle<TileMapData> acquireTilemap(String id) {
+        return acquire(TILEMAP + id, id);
+    }
+    /**
+     * Get a reference to a font, the font stays loaded until the handle is released.
+     * @return The handle, null if the font is not loaded.
+     */
+    public ResourceHandle<Font> acquireFont(String id) {
+        return acquire(FONT + id, id);
+    }
+    /**
+     * Get a reference to an audio, the audio stays loaded until the handle is released.
+     * @return The handle, null if the audio is not loaded.
+     */
+    public ResourceHandle<Clip> acquireAudio(String id) {
+        return acquire(AUDIO + id, id);
+    }
+
+    /**
+     * Unload an image. A referenced image is released when its last handle is released.
+     * An image shared with another id is kept for this id.
+     * @return False if the image is not loaded.
+     */
+    public boolean unloadImage(String id) {
+        var name = imageNames.remove(id);
+        if(name == null) {
+            return false;
+        }
+        if(!imageNames.containsValue(name)) {
+            unload(IMAGE + name);
+        }
+        return true;
+    }
+    /**
+     * Unload a tilemap. A referenced tilemap is released when its last handle is released.
+     * @return False if the tilemap is not loaded.
+     */
+    public boolean unloadTilemap(String id) {
+        return unload(TILEMAP + id);
+    }
+    /**
+     * Unload a font. A referenced font is released when its last handle is released.
+     * @return False if the font is not loaded.
+     */
+    public boolean unloadFont(String id) {
+        return unload(FONT + id);
+    }
+    /**
+     * Unload an audio. A referenced audio is closed when its last handle is released.
+     * @return False if the audio is not loaded.
+     */
+    public boolean unloadAudio(String id) {
+        return unload(AUDIO + id);
+    }
+
+    /**
+     * @return The maximum estimated size in bytes of the cached resources.
+     */
+    public long memoryBudget() {
+        return cache.budget();
+    }
+    /**
+     * Set the maximum estimated size of the cached resources.
+     * Above the budget, the least recently used resources without handle are evicted,
+     * they are read again from their file when requested.
+     * @param bytes The budget in bytes.
+     */
+    public void setMemoryBudget(long bytes) {
+        cache.setBudget(bytes);
+    }
+    /**
+     * @return The estimated size in bytes of the cached resources.
+     */
+    public long memoryUsage() {
+        return cache.usage();
+    }
+
+    private boolean load(String key, Supplier<Object> source) {
+        var value = source.get();
+        if(value == null) {
+            return false;
+        }
+        sources.put(key, source);
+        cache.put(key, value, sizeOf(value));
+        return true;
+    }
+
+    private Object get(String key) {
+        var value = cache.get(key);
+        if(value == null) {
+            // Evicted, read it again
+            var source = sources.get(key);
+            if(source != null && (value = source.get()) != null) {
+                cache.put(key, value, sizeOf(value));
+            }
+        }
+        return value;
+    }
+
+    private <T> ResourceHandle<T> acquire(String key, String id) {
+        var entry = cache.acquire(key);
+        if(entry == null && get(key) != null) {
+            entry = cache.acquire(key);
+        }
+        return entry != null ? new ResourceHandle<>(cache, entry, id) : null;
+    }
+
+    private boolean unload(String key) {
+        sources.remove(key);
+        return cache.remove(key);
+    }
+
+    private static long sizeOf(Object value) {
+        if(value instanceof BufferedImage) {
+            var image = (BufferedImage) value;
+            return (long) image.getWidth() * image.getHeight() * ((image.getColorModel().getPixelSize() + 7) / 8);
+        } else if(value instanceof Clip) {
+            var clip = (Clip) value;
+            return (long) clip.getFrameLength() * Math.max(1, clip.getFormat().getFrameSize());
+        } else if(value instanceof Font) {
+            return FONT_SIZE;
+        } else if(value instanceof TileMapData) {
+            var tilemap = (TileMapData) value;
+            long size = 0;
+            for(var layer : tilemap.layers) {
+                size += layer.data != null ? (long) layer.data.length * Integer.BYTES : 0;
+                size += layer.objects != null ? layer.objects.size() * OBJECT_SIZE : 0;
+            }
+            for(var tileset : tilemap.tilesets) {
+                size += tileset.tiles.size() * OBJECT_SIZE; // The images are cached apart
+            }
+            return size;
+        }
+        return 0;
+    }
+
+    private synchronized CompletableFuture<Boolean> submit(Supplier<Boolean> load) {
+        if(executor == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                var thread = new Thread(runnable, "resources");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        submitted.incrementAndGet();
+        var future = CompletableFuture.supplyAsync(load, executor)
+                .whenComplete((loaded, e) -> completed.incrementAndGet());
+        pending.add(future);
+        return future;
+    }
+
+    private Font readFont(String name) {
         var stream = getClass().getResourceAsStream(name);
         if(stream == null) {
             System.err.println("Font not found: " + name);
-            return false;
+            return null;
         }
-        try {
-            var font = Font.createFont(Font.TRUETYPE_FONT, stream);
-            fonts.put(id, font);
-            return true;
+        try (stream) {
+            return Font.createFont(Font.TRUETYPE_FONT, stream);
         } catch (IOException | FontFormatException e) {
             e.printStackTrace(System.err);
         }
-        return false;
+        return null;
     }
 
-    /**
-     * Load an audio.
-     * Only wav is supported.
-     */
-    public boolean loadAudio(String name, String id) {
+    private Clip readAudio(String name) {
         var stream = getClass().getResourceAsStream(name);
         if(stream == null) {
             System.err.println("Audio not found: " + name);
-            return false;
+            return null;
         }
         try {
             // add buffer for mark/reset support
@@ -71,85 +370,77 @@ public class Resources {
             var audio = AudioSystem.getAudioInputStream(bufferedIn);
             Clip clip = AudioSystem.getClip();
             clip.open(audio);
-            audios.put(id, clip);
-            return true;
-        } catch (IOException | UnsupportedAudioFileException | LineUnavailableException e) {
+            return clip;
+        } catch (IOException | UnsupportedAudioFileException | LineUnavailableException | IllegalArgumentException e) {
             e.printStackTrace(System.err);
         }
-        return false;
+        return null;
     }
 
-    /**
-     * Load a json tilemap.
-     */
-    public boolean loadTilemap(String name, String id) {
+    private TileMapData readTilemap(String name) {
         var url = getClass().getResource(name);
-        if(url == null) {
+        var binaryUrl = name.endsWith(".json")
+                ? getClass().getResource(name.substring(0, name.length() - 5).concat(TileMapBinary.EXTENSION))
+                : null;
+        if(url == null && binaryUrl == null) {
             System.err.println("Tilemap not found: " + name);
-            return false;
+            return null;
         }
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        mapper.configure(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES, false);
         try {
-            var tilemap = mapper.readValue(url, TileMapData.class);
-            loadTileSets(name, tilemap);
+            var tilemap = binaryUrl != null
+                    ? TileMapBinary.read(readBuffer(binaryUrl))
+                    : readJsonTilemap(url);
             loadTileMapImages(name, tilemap);
-            tilemaps.put(id, tilemap);
-            return true;
+            return tilemap;
         } catch (IOException e) {
             e.printStackTrace(System.err);
         }
-        return false;
+        return null;
     }
 
-    public BufferedImage getImage(String id) {
-        return images.get(id);
-    }
-    public TileMapData getTilemap(String id) {
-        return tilemaps.get(id);
-    }
-    public Font getFont(String id) {
-        return fonts.get(id);
-    }
-    public Clip getAudio(String id) {
-        return audios.get(id);
+    /**
+     * Load an image by name if it is not loaded yet.
+     */
+    private boolean loadImageName(String name) {
+        return sources.containsKey(IMAGE + name) || load(IMAGE + name, () -> readImage(name));
     }
 
-    private BufferedImage loadImage(String name) {
+    private BufferedImage readImage(String name) {
         var url = getClass().getResource(name);
         if(url == null) {
             System.err.println("Image not found: " + name);
             return null;
         }
         try {
-            return ImageIO.read(url);
+            var image = ImageIO.read(url);
+            return image != null ? ImageUtils.toCompatibleImage(image) : null;
         } catch (IOException e) {
             e.printStackTrace(System.err);
         }
         return null;
     }
 
-    private void loadTileSets(String name, TileMapData tilemap) {
-        String dir = getResourceDir(name);
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        mapper.configure(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES, false);
+    /**
+     * Read a json tilemap with its external tilesets, without the images.
+     * @param url The url of the json file, the tilesets are resolved relatively to it.
+     * @return The tilemap.
+     */
+    static TileMapData readJsonTilemap(URL url) throws IOException {
+        var tilemap = JSON.readValue(url, TileMapData.class);
+        loadTileSets(url, tilemap);
+        return tilemap;
+    }
 
+    private static void loadTileSets(URL mapUrl, TileMapData tilemap) {
         var it = tilemap.tilesets.listIterator();
         while (it.hasNext()) {
             var tileset = it.next();
             if(tileset.source == null) {
                 continue;
             }
-            String path = dir.concat(tileset.source.replace('\\', '/'));
-            var url = getClass().getResource(path);
-            if(url == null) {
-                it.remove();
-                continue;
-            }
             try {
-                var loadedTileset = mapper.readValue(url, TileSet.class);
+                var url = new URL(mapUrl, tileset.source.replace('\\', '/'));
+                var loadedTileset = JSON.readValue(url, TileSet.class);
                 loadedTileset.firstgid = tileset.firstgid;
                 it.set(loadedTileset);
             } catch (IOException e) {
@@ -158,11 +449,35 @@ public class Resources {
             }
         }
     }
+
+    /**
+     * Read a resource in a buffer, mapped in memory if the resource is a file.
+     */
+    private static ByteBuffer readBuffer(URL url) throws IOException {
+        if(url.getProtocol().equals("file")) {
+            try (var channel = FileChannel.open(Path.of(url.toURI()))) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (var stream = url.openStream()) {
+            return ByteBuffer.wrap(stream.readAllBytes());
+        }
+    }
+
+    /**
+     * Load the tileset images through the cache, the image name is also its id.
+     */
     private void loadTileMapImages(String name, TileMapData tilemap) {
         String dir = getResourceDir(name);
         for(var tileset : tilemap.tilesets) {
-            String imageName = tileset.image.replace('\\', '/');
-            tileset.loadedImage = loadImage(dir.concat(imageName));
+            String imageName = dir.concat(tileset.image.replace('\\', '/'));
+            if(loadImageName(imageName)) {
+                imageNames.putIfAbsent(imageName, imageName);
+                tileset.loadedImageId = imageName;
+                tileset.loadedImage = (BufferedImage) get(IMAGE + imageName);
+            }
         }
     }
 
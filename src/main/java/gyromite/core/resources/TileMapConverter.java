@@ -0,0 +1,43 @@
+package gyromite.core.resources;
+
+import gyromite.core.resources.tilemap.TileMapBinary;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Converts the json tilemaps of a directory to the binary tilemap format.
+ * The tilesets are embedded in the binary tilemaps, the json tilesets are skipped.
+ * Usage: {@code TileMapConverter <json dir> <output dir>}
+ */
+public class TileMapConverter {
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.err.println("Usage: TileMapConverter <json dir> <output dir>");
+            System.exit(1);
+        }
+        var inputDir = new File(args[0]);
+        var outputDir = new File(args[1]);
+        var files = inputDir.listFiles((dir, name) -> name.endsWith(".json"));
+        if(files == null) {
+            throw new IOException("Not a directory: " + inputDir);
+        }
+        if(!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Can't create the directory " + outputDir);
+        }
+        for(var file : files) {
+            if(!"map".equals(Resources.JSON.readTree(file).path("type").asText())) {
+                continue;
+            }
+            var tilemap = Resources.readJsonTilemap(file.toURI().toURL());
+            String name = file.getName();
+            var output = new File(outputDir, name.substring(0, name.length() - 5).concat(TileMapBinary.EXTENSION));
+            try (var stream = new BufferedOutputStream(new FileOutputStream(output))) {
+                TileMapBinary.write(tilemap, stream);
+            }
+            System.out.println(file.getName() + " -> " + output.getName() + " (" + output.length() + " bytes)");
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package gyromite.core.resources.tilemap;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.io.IOException;
 import java.util.ArrayList;
 
 public class Layer extends TileElement {
@@ -15,6 +20,26 @@ public class Layer extends TileElement {
     public int parallaxx, parallaxy;
     public boolean visible = true;
     public double opacity = 1.0;
-    public ArrayList<Long> data = null;
+    public int[] data = null; // Global tile ids with the flip flags, as unsigned values
+    public String encoding = "csv"; // The encoding of the data in the json file
+    public String compression = ""; // The compression of the data in the json file
     public ArrayList<TileObject> objects = null;
+
+    public Layer() { }
+
+    /**
+     * Json creator, the base64 data is decoded once the compression is known.
+     */
+    @JsonCreator
+    private Layer(@JsonProperty("data") @JsonDeserialize(using = LayerDataDeserializer.class) Object data,
+                  @JsonProperty("compression") String compression) throws IOException {
+        if(compression != null) {
+            this.compression = compression;
+        }
+        if(data instanceof byte[]) {
+            this.data = LayerDataDeserializer.decode((byte[]) data, this.compression);
+        } else {
+            this.data = (int[]) data;
+        }
+    }
 }
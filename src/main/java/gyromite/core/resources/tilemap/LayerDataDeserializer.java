@@ -0,0 +1,89 @@
+package gyromite.core.resources.tilemap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.airlift.compress.MalformedInputException;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Deserializer of the tile data of a layer.
+ * The csv data is read in an {@code int[]} without boxing, the base64 data
+ * is read in a {@code byte[]} to decode with {@link #decode(byte[], String)}
+ * once the compression of the layer is known.
+ */
+class LayerDataDeserializer extends StdDeserializer<Object> {
+    private static final long serialVersionUID = 1L;
+
+    LayerDataDeserializer() {
+        super(Object.class);
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if(p.currentToken() == JsonToken.VALUE_STRING) {
+            return p.getBinaryValue();
+        }
+        if(p.currentToken() != JsonToken.START_ARRAY) {
+            return ctxt.handleUnexpectedToken(int[].class, p);
+        }
+        int[] gids = new int[256];
+        int count = 0;
+        JsonToken token;
+        while((token = p.nextToken()) != JsonToken.END_ARRAY) {
+            if(token != JsonToken.VALUE_NUMBER_INT) {
+                return ctxt.handleUnexpectedToken(int[].class, p);
+            }
+            if(count == gids.length) {
+                gids = Arrays.copyOf(gids, count * 2);
+            }
+            gids[count++] = (int) p.getLongValue(); // The gids are unsigned 32 bits values
+        }
+        return Arrays.copyOf(gids, count);
+    }
+
+    /**
+     * Decode base64 tile data.
+     * @param bytes The bytes decoded from base64.
+     * @param compression The compression of the layer, "zlib", "gzip", "zstd" or empty.
+     * @return The global tile ids with their flags.
+     */
+    static int[] decode(byte[] bytes, String compression) throws IOException {
+        byte[] raw = switch (compression) {
+            case "" -> bytes;
+            case "zlib" -> new InflaterInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+            case "gzip" -> new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+            case "zstd" -> decompressZstd(bytes);
+            default -> throw new IOException("Unsupported tile data compression: " + compression);
+        };
+        if(raw.length % Integer.BYTES != 0) {
+            throw new IOException("Invalid tile data length " + raw.length);
+        }
+        int[] gids = new int[raw.length / Integer.BYTES];
+        ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(gids);
+        return gids;
+    }
+
+    private static byte[] decompressZstd(byte[] bytes) throws IOException {
+        long size = ZstdDecompressor.getDecompressedSize(bytes, 0, bytes.length);
+        if(size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("Unknown zstd tile data size");
+        }
+        byte[] raw = new byte[(int) size];
+        try {
+            int length = new ZstdDecompressor().decompress(bytes, 0, bytes.length, raw, 0, raw.length);
+            return length == raw.length ? raw : Arrays.copyOf(raw, length);
+        } catch (MalformedInputException e) {
+            throw new IOException("Invalid zstd tile data", e);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package gyromite.core.resources.tilemap;
+
+import gyromite.core.Vector2;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * The precompiled binary tilemap format.
+ * A tilemap is written with its tilesets, so loading it needs no json parsing.
+ * The values are big endian, the strings are UTF-8 prefixed with their length
+ * and the lists are prefixed with their size, -1 for null.
+ */
+public final class TileMapBinary {
+    public static final String EXTENSION = ".tmb";
+    private static final int MAGIC = 0x474d5442; // "GMTB"
+    private static final int VERSION = 1;
+
+    private static final byte NULL = 0, STRING = 1, INTEGER = 2, LONG = 3, DOUBLE = 4, BOOLEAN = 5;
+
+    private TileMapBinary() { }
+
+    /**
+     * Write a tilemap.
+     * The external tilesets must be loaded in the tilemap.
+     * @param tilemap The tilemap.
+     * @param stream The output stream, not closed.
+     */
+    public static void write(TileMapData tilemap, OutputStream stream) throws IOException {
+        var out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(tilemap.width);
+        out.writeInt(tilemap.height);
+        out.writeInt(tilemap.tilewidth);
+        out.writeInt(tilemap.tileheight);
+        out.writeBoolean(tilemap.infinite);
+        writeString(out, tilemap.orientation);
+        writeString(out, tilemap.type);
+        writeProperties(out, tilemap);
+        if(tilemap.tilesets == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(tilemap.tilesets.size());
+            for(var tileset : tilemap.tilesets) {
+                if(tileset.source != null) {
+                    throw new IllegalArgumentException("External tileset not loaded: " + tileset.source);
+                }
+                writeTileSet(out, tileset);
+            }
+        }
+        writeLayers(out, tilemap.layers);
+        out.flush();
+    }
+
+    /**
+     * Read a tilemap.
+     * The tileset images are not loaded.
+     * @param buffer The buffer, read from its position.
+     * @return The tilemap.
+     */
+    public static TileMapData read(ByteBuffer buffer) throws IOException {
+        try {
+            if(buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary tilemap");
+            }
+            int version = buffer.getInt();
+            if(version != VERSION) {
+                throw new IOException("Unsupported binary tilemap version " + version);
+            }
+            var tilemap = new TileMapData();
+            tilemap.width = buffer.getInt();
+            tilemap.height = buffer.getInt();
+            tilemap.tilewidth = buffer.getInt();
+            tilemap.tileheight = buffer.getInt();
+            tilemap.infinite = buffer.get() != 0;
+            tilemap.orientation = readString(buffer);
+            tilemap.type = readString(buffer);
+            readProperties(buffer, tilemap);
+            int tilesetCount = buffer.getInt();
+            if(tilesetCount >= 0) {
+                tilemap.tilesets = new ArrayList<>(tilesetCount);
+                for (int i = 0; i < tilesetCount; i++) {
+                    tilemap.tilesets.add(readTileSet(buffer));
+                }
+            }
+            tilemap.layers = readLayers(buffer);
+            return tilemap;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Invalid binary tilemap", e);
+        }
+    }
+
+    private static void writeTileSet(DataOutputStream out, TileSet tileset) throws IOException {
+        writeString(out, tileset.name);
+        writeString(out, tileset.image);
+        out.writeInt(tileset.firstgid);
+        out.writeInt(tileset.columns);
+        out.writeInt(tileset.imagewidth);
+        out.writeInt(tileset.imageheight);
+        out.writeInt(tileset.tilecount);
+        out.writeInt(tileset.tilewidth);
+        out.writeInt(tileset.tileheight);
+        out.writeInt(tileset.spacing);
+        out.writeInt(tileset.margin);
+        writeProperties(out, tileset);
+        out.writeInt(tileset.tiles.size());
+        for(var tile : tileset.tiles) {
+            out.writeInt(tile.id);
+            writeString(out, tile.type);
+            writeProperties(out, tile);
+            out.writeBoolean(tile.objectgroup != null);
+            if(tile.objectgroup != null) {
+                writeLayer(out, tile.objectgroup);
+            }
+            if(tile.animation == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(tile.animation.size());
+                for(var frame : tile.animation) {
+                    out.writeInt(frame.tileid);
+                    out.writeInt(frame.duration);
+                }
+            }
+        }
+    }
+
+    private static TileSet readTileSet(ByteBuffer buffer) {
+        var tileset = new TileSet();
+        tileset.name = readString(buffer);
+        tileset.image = readString(buffer);
+        tileset.firstgid = buffer.getInt();
+        tileset.columns = buffer.getInt();
+        tileset.imagewidth = buffer.getInt();
+        tileset.imageheight = buffer.getInt();
+        tileset.tilecount = buffer.getInt();
+        tileset.tilewidth = buffer.getInt();
+        tileset.tileheight = buffer.getInt();
+        tileset.spacing = buffer.getInt();
+        tileset.margin = buffer.getInt();
+        readProperties(buffer, tileset);
+        int tileCount = buffer.getInt();
+        tileset.tiles = new ArrayList<>(tileCount);
+        for (int i = 0; i < tileCount; i++) {
+            var tile = new TileData();
+            tile.id = buffer.getInt();
+            tile.type = readString(buffer);
+            readProperties(buffer, tile);
+            if(buffer.get() != 0) {
+                tile.objectgroup = readLayer(buffer);
+            }
+            int frameCount = buffer.getInt();
+            if(frameCount >= 0) {
+                tile.animation = new ArrayList<>(frameCount);
+                for (int j = 0; j < frameCount; j++) {
+                    var frame = new TileFrame();
+                    frame.tileid = buffer.getInt();
+                    frame.duration = buffer.getInt();
+                    tile.animation.add(frame);
+                }
+            }
+            tileset.tiles.add(tile);
+        }
+        return tileset;
+    }
+
+    private static void writeLayers(DataOutputStream out, ArrayList<Layer> layers) throws IOException {
+        if(layers == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(layers.size());
+        for(var layer : layers) {
+            writeLayer(out, layer);
+        }
+    }
+
+    private static ArrayList<Layer> readLayers(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if(count < 0) {
+            return null;
+        }
+        var layers = new ArrayList<Layer>(count);
+        for (int i = 0; i < count; i++) {
+            layers.add(readLayer(buffer));
+        }
+        return layers;
+    }
+
+    private static void writeLayer(DataOutputStream out, Layer layer) throws IOException {
+        out.writeInt(layer.id);
+        writeString(out, layer.name);
+        writeString(out, layer.type);
+        out.writeInt(layer.x);
+        out.writeInt(layer.y);
+        out.writeInt(layer.width);
+        out.writeInt(layer.height);
+        out.writeInt(layer.offsetx);
+        out.writeInt(layer.offsety);
+        out.writeInt(layer.parallaxx);
+        out.writeInt(layer.parallaxy);
+        out.writeBoolean(layer.visible);
+        out.writeDouble(layer.opacity);
+        writeProperties(out, layer);
+        if(layer.data == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(layer.data.length);
+            for(int gid : layer.data) {
+                out.writeInt(gid);
+            }
+        }
+        if(layer.objects == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(layer.objects.size());
+            for(var object : layer.objects) {
+                writeObject(out, object);
+            }
+        }
+    }
+
+    private static Layer readLayer(ByteBuffer buffer) {
+        var layer = new Layer();
+        layer.id = buffer.getInt();
+        layer.name = readString(buffer);
+        layer.type = readString(buffer);
+        layer.x = buffer.getInt();
+        layer.y = buffer.getInt();
+        layer.width = buffer.getInt();
+        layer.height = buffer.getInt();
+        layer.offsetx = buffer.getInt();
+        layer.offsety = buffer.getInt();
+        layer.parallaxx = buffer.getInt();
+        layer.parallaxy = buffer.getInt();
+        layer.visible = buffer.get() != 0;
+        layer.opacity = buffer.getDouble();
+        readProperties(buffer, layer);
+        int dataCount = buffer.getInt();
+        if(dataCount >= 0) {
+            // Bulk read of the gids
+            layer.data = new int[dataCount];
+            buffer.asIntBuffer().get(layer.data);
+            buffer.position(buffer.position() + dataCount * Integer.BYTES);
+        }
+        int objectCount = buffer.getInt();
+        if(objectCount >= 0) {
+            layer.objects = new ArrayList<>(objectCount);
+            for (int i = 0; i < objectCount; i++) {
+                layer.objects.add(readObject(buffer));
+            }
+        }
+        return layer;
+    }
+
+    private static void writeObject(DataOutputStream out, TileObject object) throws IOException {
+        out.writeInt(object.id);
+        writeString(out, object.name);
+        out.writeInt(object.gid);
+        out.writeDouble(object.x);
+        out.writeDouble(object.y);
+        out.writeDouble(object.width);
+        out.writeDouble(object.height);
+        writeString(out, object.type);
+        out.writeDouble(object.rotation);
+        out.writeBoolean(object.visible);
+        out.writeBoolean(object.ellipse);
+        if(object.polygon == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(object.polygon.size());
+            for(var point : object.polygon) {
+                out.writeDouble(point.x);
+                out.writeDouble(point.y);
+            }
+        }
+        writeProperties(out, object);
+    }
+
+    private static TileObject readObject(ByteBuffer buffer) {
+        var object = new TileObject();
+        object.id = buffer.getInt();
+        object.name = readString(buffer);
+        object.gid = buffer.getInt();
+        object.x = buffer.getDouble();
+        object.y = buffer.getDouble();
+        object.width = buffer.getDouble();
+        object.height = buffer.getDouble();
+        object.type = readString(buffer);
+        object.rotation = buffer.getDouble();
+        object.visible = buffer.get() != 0;
+        object.ellipse = buffer.get() != 0;
+        int pointCount = buffer.getInt();
+        if(pointCount >= 0) {
+            object.polygon = new ArrayList<>(pointCount);
+            for (int i = 0; i < pointCount; i++) {
+                object.polygon.add(new Vector2(buffer.getDouble(), buffer.getDouble()));
+            }
+        }
+        readProperties(buffer, object);
+        return object;
+    }
+
+    private static void writeProperties(DataOutputStream out, TileElement element) throws IOException {
+        out.writeInt(element.properties.size());
+        for(var property : element.properties) {
+            writeString(out, property.name);
+            writeString(out, property.type);
+            Object value = property.value;
+            if(value == null) {
+                out.writeByte(NULL);
+            } else if(value instanceof Integer) {
+                out.writeByte(INTEGER);
+                out.writeInt((Integer) value);
+            } else if(value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if(value instanceof Number) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(((Number) value).doubleValue());
+            } else if(value instanceof Boolean) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else {
+                out.writeByte(STRING);
+                writeString(out, value.toString());
+            }
+        }
+    }
+
+    private static void readProperties(ByteBuffer buffer, TileElement element) {
+        int count = buffer.getInt();
+        element.properties = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var property = new TileProperty();
+            property.name = readString(buffer);
+            property.type = readString(buffer);
+            byte tag = buffer.get();
+            property.value = switch (tag) {
+                case NULL -> null;
+                case INTEGER -> buffer.getInt();
+                case LONG -> buffer.getLong();
+                case DOUBLE -> buffer.getDouble();
+                case BOOLEAN -> buffer.get() != 0;
+                case STRING -> readString(buffer);
+                default -> throw new IllegalArgumentException("Unknown property tag " + tag);
+            };
+            element.properties.add(property);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if(value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if(length < 0) {
+            return null;
+        }
+        if(length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if(buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
@@ -20,4 +20,6 @@ public class TileSet extends TileElement {
 
     @JsonIgnore
     public BufferedImage loadedImage = null;
+    @JsonIgnore
+    public String loadedImageId = null; // Id of the image in the resources
 }
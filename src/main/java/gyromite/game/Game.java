@@ -1,5 +1,7 @@
 package gyromite.game;
 
+import gyromite.core.resources.ResourceHandle;
+import gyromite.core.resources.tilemap.TileMapData;
 import gyromite.game.scenes.*;
 import gyromite.game.scenes.Menu;
 import gyromite.scene.Scene;
@@ -9,39 +11,50 @@ import java.awt.*;
 public class Game extends Scene {
     private Window window;
     private Phase phase = null;
+    private ResourceHandle<TileMapData> phaseTilemap = null; // The tilemap of the current phase
     private int nextPhase = 1;
     private int playerLife = 5;
     private int nplayers = 1;
 
     public Game() {
         super();
+        setRenderThreaded(true);
     }
 
     @Override
     protected void preload() {
-        resources().loadFont("/fonts/pixel.ttf", "pixel");
-        resources().loadFont("/fonts/pixel1.ttf", "pixel1");
-        resources().loadAudio("/audios/01_Title_Screen.wav", "title");
-        resources().loadAudio("/audios/02_Select_Mode.wav", "select_mode");
-        resources().loadAudio("/audios/06_Phase_Begin.wav", "phase_begin");
-        resources().loadAudio("/audios/09_Game_Over.wav", "game_over");
-        resources().loadAudio("/audios/07_Game_A.wav", "game_a");
-        resources().loadAudio("/audios/05_Time_099.wav", "time_99");
-        resources().loadAudio("/audios/bip.wav", "bip");
-
+        // Only the title image is needed to show the title, the rest is loaded in the background
         resources().loadImage("/img/title.png", "title");
-        resources().loadImage("/img/menu.png", "menu");
 
-        resources().loadImage("/tilemaps/tileset.png", "tileset");
-        resources().loadImage("/img/player.png", "player");
-        resources().loadImage("/img/smick.png", "smick");
-        resources().loadImage("/img/particles.png", "particles");
-        resources().loadImage("/img/bomb.png", "bomb");
+        if(!isHeadless()) {
+            loadAudios();
+        }
+        resources().loadFontAsync("/fonts/pixel.ttf", "pixel");
+        resources().loadFontAsync("/fonts/pixel1.ttf", "pixel1");
+
+        resources().loadImageAsync("/img/menu.png", "menu");
+        resources().loadImageAsync("/tilemaps/tileset.png", "tileset");
+        resources().loadImageAsync("/img/player.png", "player");
+        resources().loadImageAsync("/img/smick.png", "smick");
+        resources().loadImageAsync("/img/particles.png", "particles");
+        resources().loadImageAsync("/img/bomb.png", "bomb");
+    }
+
+    private void loadAudios() {
+        resources().loadAudioAsync("/audios/01_Title_Screen.wav", "title");
+        resources().loadAudioAsync("/audios/02_Select_Mode.wav", "select_mode");
+        resources().loadAudioAsync("/audios/06_Phase_Begin.wav", "phase_begin");
+        resources().loadAudioAsync("/audios/09_Game_Over.wav", "game_over");
+        resources().loadAudioAsync("/audios/07_Game_A.wav", "game_a");
+        resources().loadAudioAsync("/audios/05_Time_099.wav", "time_99");
+        resources().loadAudioAsync("/audios/bip.wav", "bip");
     }
 
     @Override
     protected void init() {
-        window = new Window(800, 600, "Gyromite", this);
+        if(!isHeadless()) {
+            window = new Window(800, 600, "Gyromite", this);
+        }
 
         nextPhase = 1;
         showTitle();
@@ -60,23 +73,34 @@ public class Game extends Scene {
     }
 
     public void showMenu() {
+        resources().finishLoading(); // The menu needs the resources loaded in the background
         camera().reset();
         input().removeAllListeners();
         setRoot(new Menu(this));
     }
 
     public void showPhaseBegin() {
+        resources().finishLoading();
         String name = String.format("phase_%02d", nextPhase);
-        boolean loaded = resources().loadTilemap(
-                String.format("/tilemaps/phase_%02d.json", nextPhase), name);
-        if(!loaded)  {
-            showMenu();
-            return;
-        }
-        for(var layer : resources().getTilemap(name).layers) {
-            if(layer.name.equals("columns_demo")) {
-                layer.visible = false;
-                break;
+        if(phaseTilemap == null || !phaseTilemap.id().equals(name)) {
+            // The previous phase tilemap is not needed anymore
+            if(phaseTilemap != null) {
+                phaseTilemap.release();
+                resources().unloadTilemap(phaseTilemap.id());
+                phaseTilemap = null;
+            }
+            boolean loaded = resources().loadTilemap(
+                    String.format("/tilemaps/phase_%02d.json", nextPhase), name);
+            if(!loaded)  {
+                showMenu();
+                return;
+            }
+            phaseTilemap = resources().acquireTilemap(name);
+            for(var layer : phaseTilemap.get().layers) {
+                if(layer.name.equals("columns_demo")) {
+                    layer.visible = false;
+                    break;
+                }
             }
         }
 
@@ -15,14 +15,16 @@ public class Bomb extends AnimatedSprite {
 
         setBody(new CircleShape(10), Body.Mode.TRANSPARENT);
         size().set(64, 64);
-        this.addAnimation("idle")
-                .addFrames("bomb", 4, 2, 0, 3)
-                .setSpeed(5)
-                .loop(true);
-        this.addAnimation("explode")
-                .addFrames("bomb", 4, 2, 4, 7)
-                .setSpeed(5)
-                .loop(false);
+        setAnimations(scene().animations().define("bomb", animations -> {
+            animations.addAnimation("idle")
+                    .addFrames("bomb", 4, 2, 0, 3)
+                    .setSpeed(5)
+                    .loop(true);
+            animations.addAnimation("explode")
+                    .addFrames("bomb", 4, 2, 4, 7)
+                    .setSpeed(5)
+                    .loop(false);
+        }));
         play("idle");
     }
 
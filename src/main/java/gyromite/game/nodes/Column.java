@@ -68,8 +68,7 @@ public class Column extends Node implements KeyListener {
             sprite.setHframes(6);
             sprite.setVframes(5);
             sprite.size().set(tw, th);
-            sprite.position().x = 0;
-            sprite.position().y = (double)i * th - height / 2.0 + th / 2.0;
+            sprite.setPosition(0, (double)i * th - height / 2.0 + th / 2.0);
             if(i == 0) {
                 sprite.setFrame(type == Type.BLUE ? 6 : 9);
             } else if(i == n - 1) {
@@ -80,16 +79,15 @@ public class Column extends Node implements KeyListener {
         }
 
         size.set(tw, height);
-        position().x += tw / 2.0;
-        position().y += height / 2.0;
+        setPosition(position().x + tw / 2.0, position().y + height / 2.0);
 
         minY = isTop ? position().y : position().y - height + th;
         maxY = isTop ? position().y + height - th : position().y;
 
         setBody(new PolygonShape(tw / 2.0, height / 2.0 - 2.0), Body.Mode.STATIC);
-        body().restitution = 0.0;
-        body().staticFriction = 0.0;
-        body().dynamicFriction = 0.0;
+        body().setRestitution(0.0);
+        body().setStaticFriction(0.0);
+        body().setDynamicFriction(0.0);
 
         scene().input().addListener(this);
     }
@@ -106,23 +104,23 @@ public class Column extends Node implements KeyListener {
         if((!movePaused && delay >= movingDelay) || delay > staticDelay) {
             movePaused = !movePaused;
             if(movePaused) {
-                body().velocity.y = 0.0;
+                body().setVelocityY(0.0);
             } else {
-                body().velocity.y = moveTop ? -MOVE_SPEED : MOVE_SPEED;
+                body().setVelocityY(moveTop ? -MOVE_SPEED : MOVE_SPEED);
             }
             delay = 0.0;
         }
         delay += MainLoop.DT;
 
         if(!moveTop && position().y >= maxY - MathUtils.EPSILON) {
-            position().y = maxY;
+            setPosition(position().x, maxY);
             move = false;
         } else if(moveTop && position().y <= minY + MathUtils.EPSILON) {
-            position().y = minY;
+            setPosition(position().x, minY);
             move = false;
         }
         if(!move) {
-            body().velocity.y = 0.0;
+            body().setVelocityY(0.0);
         }
     }
 
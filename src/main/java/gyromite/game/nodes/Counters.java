@@ -1,8 +1,10 @@
 package gyromite.game.nodes;
 
 import gyromite.core.MainLoop;
+import gyromite.core.Rect2;
 import gyromite.core.Size2;
 import gyromite.game.Game;
+import gyromite.scene.Drawable;
 import gyromite.scene.Node;
 
 import java.awt.*;
@@ -15,6 +17,7 @@ public class Counters extends Node {
 
     private int score = 0;
     private double timeLeft = 999;
+    private Font font, font1;
 
     public void incrementScore(int reward) {
         score += reward;
@@ -24,13 +27,21 @@ public class Counters extends Node {
         return (int)Math.ceil(timeLeft);
     }
 
+    @Override
+    protected void init() {
+        super.init();
+
+        font = scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 11f);
+        font1 = scene().resources().getFont("pixel1").deriveFont(Font.PLAIN, 9.5f);
+    }
+
     @Override
     public void update() {
         super.update();
 
         var camera = scene().camera();
-        position().x = camera.position().x - camera.size().width / 2.0;
-        position().y = camera.position().y - camera.size().height / 2.0 + 26.0;
+        setPosition(camera.position().x - camera.size().width / 2.0,
+                camera.position().y - camera.size().height / 2.0 + 26.0);
         timeLeft = Math.max(0.0, timeLeft - MainLoop.DT * TIME_SCALE);
 
         if(timeLeft == 0) {
@@ -39,59 +50,71 @@ public class Counters extends Node {
     }
 
     @Override
-    public void render(Graphics2D g) {
-        super.render(g);
-
+    protected boolean localBounds(Rect2 out) {
+        // Drawn over the camera view
         Size2 size = scene().camera().size();
+        out.set(0, -26.0, size.width, size.height - 26.0);
+        return true;
+    }
 
-        g.scale(size.width / 256.0, size.height / 224.0);
-
-        double w1 = 32.0;
-        double w2 = 80.0;
-
-        g.setStroke(new BasicStroke(1));
-
-        g.setColor(Color.RED);
-        g.draw(new Line2D.Double(0, 0, w1, 0));
-        g.setColor(Color.ORANGE);
-        g.draw(new Rectangle2D.Double(-2, 4, w1 + 2, 6));
-        g.draw(new Line2D.Double(0, 7, w1, 7));
-        g.setColor(Color.RED);
-        g.draw(new Line2D.Double(0, 14, w1, 14));
-
-        g.translate(w1, 0);
-        g.setColor(Color.BLUE);
-        g.draw(new RoundRectangle2D.Double(5, 0, 70, 14, 1, 1));
-        g.setColor(new Color(168, 228, 252));
-        g.setFont(scene().resources().getFont("pixel1").deriveFont(Font.PLAIN, 9.5f));
-        g.drawString("1p-", 6, 11);
-        g.setColor(Color.GREEN);
-        g.setFont(scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 11f));
-        g.drawString(String.format("%06d" , score), 22, 11);
-        g.translate(w2, 0);
-
-        g.setColor(Color.RED);
-        g.draw(new Line2D.Double(0, 0, w1, 0));
-        g.setColor(Color.ORANGE);
-        g.draw(new Rectangle2D.Double(0, 4, w1, 6));
-        g.draw(new Line2D.Double(0, 7, w1, 7));
-        g.setColor(Color.RED);
-        g.draw(new Line2D.Double(0, 14, w1, 14));
-
-        g.translate(w1, 0);
-        g.setColor(Color.BLUE);
-        g.draw(new RoundRectangle2D.Double(5, 0, 70, 14, 1, 1));
-        g.setColor(Color.GREEN);
-        g.setFont(scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 11f));
-        g.drawString("TIME " + String.format("%03d" , timeLeft()), 8, 11);
-        g.translate(w2, 0);
-
-        g.setColor(Color.RED);
-        g.draw(new Line2D.Double(0, 0, w1, 0));
-        g.setColor(Color.ORANGE);
-        g.draw(new Rectangle2D.Double(0, 4, w1 + 2, 6));
-        g.draw(new Line2D.Double(0, 7, w1, 7));
-        g.setColor(Color.RED);
-        g.draw(new Line2D.Double(0, 14, w1, 14));
+    @Override
+    protected Drawable snapshot() {
+        final Size2 size = new Size2(scene().camera().size().width, scene().camera().size().height);
+        final Font font = this.font;
+        final Font font1 = this.font1;
+        final int score = this.score;
+        final int timeLeft = timeLeft();
+
+        return g -> {
+            g.scale(size.width / 256.0, size.height / 224.0);
+
+            double w1 = 32.0;
+            double w2 = 80.0;
+
+            g.setStroke(new BasicStroke(1));
+
+            g.setColor(Color.RED);
+            g.draw(new Line2D.Double(0, 0, w1, 0));
+            g.setColor(Color.ORANGE);
+            g.draw(new Rectangle2D.Double(-2, 4, w1 + 2, 6));
+            g.draw(new Line2D.Double(0, 7, w1, 7));
+            g.setColor(Color.RED);
+            g.draw(new Line2D.Double(0, 14, w1, 14));
+
+            g.translate(w1, 0);
+            g.setColor(Color.BLUE);
+            g.draw(new RoundRectangle2D.Double(5, 0, 70, 14, 1, 1));
+            g.setColor(new Color(168, 228, 252));
+            g.setFont(font1);
+            g.drawString("1p-", 6, 11);
+            g.setColor(Color.GREEN);
+            g.setFont(font);
+            g.drawString(String.format("%06d" , score), 22, 11);
+            g.translate(w2, 0);
+
+            g.setColor(Color.RED);
+            g.draw(new Line2D.Double(0, 0, w1, 0));
+            g.setColor(Color.ORANGE);
+            g.draw(new Rectangle2D.Double(0, 4, w1, 6));
+            g.draw(new Line2D.Double(0, 7, w1, 7));
+            g.setColor(Color.RED);
+            g.draw(new Line2D.Double(0, 14, w1, 14));
+
+            g.translate(w1, 0);
+            g.setColor(Color.BLUE);
+            g.draw(new RoundRectangle2D.Double(5, 0, 70, 14, 1, 1));
+            g.setColor(Color.GREEN);
+            g.setFont(font);
+            g.drawString("TIME " + String.format("%03d" , timeLeft), 8, 11);
+            g.translate(w2, 0);
+
+            g.setColor(Color.RED);
+            g.draw(new Line2D.Double(0, 0, w1, 0));
+            g.setColor(Color.ORANGE);
+            g.draw(new Rectangle2D.Double(0, 4, w1 + 2, 6));
+            g.draw(new Line2D.Double(0, 7, w1, 7));
+            g.setColor(Color.RED);
+            g.draw(new Line2D.Double(0, 14, w1, 14));
+        };
     }
 }
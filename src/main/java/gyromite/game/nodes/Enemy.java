@@ -50,37 +50,39 @@ public class Enemy extends AnimatedSprite {
         lastHorizontalDirection = direction = Math.random() < 0.5 ? Direction.LEFT : Direction.RIGHT;
         lastVerticalDirection = Direction.UP;
         setBody(new PolygonShape(BODY_WIDTH2, BODY_HEIGHT2), Body.Mode.CHARACTER);
-        body().restitution = 0.0;
+        body().setRestitution(0.0);
         size().set(WIDTH, HEIGHT);
 
-        this.addAnimation("walk")
-                .addFrames("smick", 4, 5, 0, 2)
-                .setSpeed(10)
-                .loop(true);
-        this.addAnimation("eatRadish")
-                .addFrames("smick", 4, 5, 8, 9)
-                .setSpeed(10)
-                .loop(true);
-        this.addAnimation("eatHector")
-                .addFrames("smick", 4, 5, 10, 10)
-                .setSpeed(10)
-                .loop(true);
-        this.addAnimation("jump")
-                .addFrames("smick", 4, 5, 11, 11)
-                .setSpeed(10)
-                .loop(false);
-        this.addAnimation("climb")
-                .addFrames("smick", 4, 5, 12, 13)
-                .setSpeed(10)
-                .loop(false);
-        this.addAnimation("eatHectorOnRope")
-                .addFrames("smick", 4, 5, 14, 14)
-                .setSpeed(10)
-                .loop(false);
-        this.addAnimation("crushing")
-                .addFrames("smick", 4, 5, 16, 16)
-                .setSpeed(10)
-                .loop(false);
+        setAnimations(scene().animations().define("smick", animations -> {
+            animations.addAnimation("walk")
+                    .addFrames("smick", 4, 5, 0, 2)
+                    .setSpeed(10)
+                    .loop(true);
+            animations.addAnimation("eatRadish")
+                    .addFrames("smick", 4, 5, 8, 9)
+                    .setSpeed(10)
+                    .loop(true);
+            animations.addAnimation("eatHector")
+                    .addFrames("smick", 4, 5, 10, 10)
+                    .setSpeed(10)
+                    .loop(true);
+            animations.addAnimation("jump")
+                    .addFrames("smick", 4, 5, 11, 11)
+                    .setSpeed(10)
+                    .loop(false);
+            animations.addAnimation("climb")
+                    .addFrames("smick", 4, 5, 12, 13)
+                    .setSpeed(10)
+                    .loop(false);
+            animations.addAnimation("eatHectorOnRope")
+                    .addFrames("smick", 4, 5, 14, 14)
+                    .setSpeed(10)
+                    .loop(false);
+            animations.addAnimation("crushing")
+                    .addFrames("smick", 4, 5, 16, 16)
+                    .setSpeed(10)
+                    .loop(false);
+        }));
     }
 
     @Override
@@ -104,20 +106,20 @@ public class Enemy extends AnimatedSprite {
         }
 
         if (ropeTile != null) {
-            if(body().gravity.y != 0.0) {
-                body().velocity.set(0, 0);
-                body().gravity.set(0, 0);
-                body().force.set(0, 0);
+            if(body().gravity().y != 0.0) {
+                body().setVelocity(0, 0);
+                body().setGravity(0, 0);
+                body().setForce(0, 0);
             }
-            if(state == State.JUMP && body().velocity.x == 0.0) {
+            if(state == State.JUMP && body().velocity().x == 0.0) {
                 state = State.ROPE_CLIMB;
                 direction = lastVerticalDirection;
             }
             if(state == State.ROPE_CLIMB) {
-                position().x = ropeTile.position().x + 1;
-                body().velocity.x = 0;
+                setPosition(ropeTile.position().x + 1, position().y);
+                body().setVelocityX(0);
             }
-        } else if (body().gravity.y == 0.0) {
+        } else if (body().gravity().y == 0.0) {
             body().resetGravity();
         }
         if((state == State.JUMP && onFloor) || (state == State.ROPE_CLIMB && ropeTile == null)) {
@@ -140,7 +142,7 @@ public class Enemy extends AnimatedSprite {
 
         if(state == State.CRUSHED) {
             // Dead with particles
-            owner().addChild(new SmickParticles()).position().set(position());
+            owner().addChild(new SmickParticles()).setPosition(position());
             remove();
 
             ((Game)scene()).smickDead();
@@ -150,13 +152,13 @@ public class Enemy extends AnimatedSprite {
 
     public void move() {
         if (state == State.JUMP || !onFloor) {
-            body().velocity.x = Math.signum(body().velocity.x) *
-                    Math.max(0, Math.abs(body().velocity.x) - 25.0 / 32.0);
+            body().setVelocityX(Math.signum(body().velocity().x) *
+                    Math.max(0, Math.abs(body().velocity().x) - 25.0 / 32.0));
         } else if(state == State.WALK) {
-            body().velocity.x = direction == Direction.LEFT ? -50.0 : 50.0;
+            body().setVelocityX(direction == Direction.LEFT ? -50.0 : 50.0);
         }
         if(state == State.ROPE_CLIMB) {
-            body().velocity.y = direction == Direction.UP ? -50.0 : 50.0;
+            body().setVelocityY(direction == Direction.UP ? -50.0 : 50.0);
         }
     }
 
@@ -176,20 +178,20 @@ public class Enemy extends AnimatedSprite {
         if(state != State.EATING_RADISH) {
             state = State.EATING_RADISH;
             radish = addChild(new Radish(false));
-            radish.position().set(direction == Direction.RIGHT ? 14 : -14, 0);
+            radish.setPosition(direction == Direction.RIGHT ? 14 : -14, 0);
             radish.setGettingEaten();
 
             body().setMode(Body.Mode.TRANSPARENT);
-            body().velocity.set(0, 0);
-            body().force.set(0, 0);
+            body().setVelocity(0, 0);
+            body().setForce(0, 0);
         }
     }
 
     public void attack(Direction direction) {
         state = State.EATING_HECTOR;
         this.direction = direction;
-        body().velocity.set(0, 0);
-        body().force.set(0, 0);
+        body().setVelocity(0, 0);
+        body().setForce(0, 0);
     }
 
     public boolean isEating() {
@@ -253,13 +255,11 @@ public class Enemy extends AnimatedSprite {
             var tilemap = ((TiledMap)owner());
             int layerId = tilemap.getLayerId("background");
             var coords = tilemap.getTileCoordFromPosition(layerId, position());
-            Tile leftTile = tilemap.getTile(layerId, coords[0] - 1, coords[1]);
-            Tile rightTile = tilemap.getTile(layerId, coords[0] + 1, coords[1]);
+            String leftType = tilemap.getTileType(layerId, coords[0] - 1, coords[1]);
+            String rightType = tilemap.getTileType(layerId, coords[0] + 1, coords[1]);
 
-            boolean obstacleLeft = leftTile != null &&
-                    (leftTile.type.equals("floor") || leftTile.type.equals("wall"));
-            boolean obstacleRight = rightTile != null &&
-                    (rightTile.type.equals("floor") || rightTile.type.equals("wall"));
+            boolean obstacleLeft = "floor".equals(leftType) || "wall".equals(leftType);
+            boolean obstacleRight = "floor".equals(rightType) || "wall".equals(rightType);
 
             boolean jump = (!obstacleLeft || !obstacleRight);// && Math.random() < 0.8;
             if(jump) {
@@ -271,7 +271,7 @@ public class Enemy extends AnimatedSprite {
                     invertDirection();
                 }
                 state = State.JUMP;
-                body().velocity.x = direction == Direction.LEFT ? -50 : 50;
+                body().setVelocityX(direction == Direction.LEFT ? -50 : 50);
             } else {
                 invertDirection();
             }
@@ -319,7 +319,7 @@ public class Enemy extends AnimatedSprite {
             } else if (b.node() instanceof Column) {
                 Column column = (Column) b.node();
                 // Remove column velocity inertia
-                body().velocity.y = 0.0;
+                body().setVelocityY(0.0);
 
                 if(manifold.normal.y == 0) {
                     if(Math.abs(column.position().y - position().y) <=
@@ -341,10 +341,10 @@ public class Enemy extends AnimatedSprite {
                 b.node().remove();
             } else if(b.node() instanceof Enemy) {
                 var other = (Enemy)b.node();
-                if((body().velocity.x > 0 && b.velocity.x < 0 && position().x < other.position().x) ||
-                        (b.velocity.x > 0 && body().velocity.x < 0 && other.position().x < position().x) ||
-                        (body().velocity.y > 0 && b.velocity.y < 0 && position().y < other.position().y) ||
-                        (b.velocity.y > 0 && body().velocity.y < 0 && other.position().y < position().y)
+                if((body().velocity().x > 0 && b.velocity().x < 0 && position().x < other.position().x) ||
+                        (b.velocity().x > 0 && body().velocity().x < 0 && other.position().x < position().x) ||
+                        (body().velocity().y > 0 && b.velocity().y < 0 && position().y < other.position().y) ||
+                        (b.velocity().y > 0 && body().velocity().y < 0 && other.position().y < position().y)
                 ) {
                     invertDirection();
                 }
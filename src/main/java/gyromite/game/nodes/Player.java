@@ -5,7 +5,6 @@ import gyromite.core.Rect2;
 import gyromite.game.Game;
 import gyromite.scene.AnimatedSprite;
 import gyromite.scene.map.Tile;
-import gyromite.scene.map.TiledMap;
 import gyromite.scene.physics.Body;
 import gyromite.scene.physics.PolygonShape;
 
@@ -41,51 +40,53 @@ public class Player extends AnimatedSprite implements KeyListener {
     public void init() {
         scene().input().addListener(this);
         setBody(new PolygonShape(BODY_WIDTH2, BODY_HEIGHT2), Body.Mode.CHARACTER);
-        body().restitution = 0.0;
+        body().setRestitution(0.0);
         size().set(WIDTH, HEIGHT);
 
         scene().camera().follow(this, new Rect2(-150, -150, 150, 150));
 
-        this.addAnimation("idle")
-                .addFrames("player", 6, 5, 0, 0)
-                .setSpeed(1)
-                .loop(false);
-        this.addAnimation("walk")
-                .addFrames("player", 6, 5, 0, 4)
-                .setSpeed(10)
-                .loop(true);
-        this.addAnimation("idleWithRadish")
-                .addFrames("player", 6, 5, 6, 6)
-                .setSpeed(10)
-                .loop(true);
-        this.addAnimation("walkWithRadish")
-                .addFrames("player", 6, 5, 6, 10)
-                .setSpeed(10)
-                .loop(true);
-        this.addAnimation("putRadish")
-                .addFrames("player", 6, 5, 11, 11)
-                .setSpeed(1)
-                .loop(false);
-        this.addAnimation("climb")
-                .addFrames("player", 6, 5, 12, 13)
-                .setSpeed(5)
-                .loop(true);
-        this.addAnimation("idleRope")
-                .addFrames("player", 6, 5, 12, 12)
-                .setSpeed(1)
-                .loop(true);
-        this.addAnimation("jump")
-                .addFrames("player", 6, 5, 14, 14)
-                .setSpeed(1)
-                .loop(true);
-        this.addAnimation("crushing")
-                .addFrames("player", 6, 5, 15, 15);
-        this.addAnimation("crushed")
-                .addFrames("player", 6, 5, 16, 16);
-        this.addAnimation("hit")
-                .addFrames("player", 6, 5, 18, 19)
-                .setSpeed(1)
-                .loop(false);
+        setAnimations(scene().animations().define("player", animations -> {
+            animations.addAnimation("idle")
+                    .addFrames("player", 6, 5, 0, 0)
+                    .setSpeed(1)
+                    .loop(false);
+            animations.addAnimation("walk")
+                    .addFrames("player", 6, 5, 0, 4)
+                    .setSpeed(10)
+                    .loop(true);
+            animations.addAnimation("idleWithRadish")
+                    .addFrames("player", 6, 5, 6, 6)
+                    .setSpeed(10)
+                    .loop(true);
+            animations.addAnimation("walkWithRadish")
+                    .addFrames("player", 6, 5, 6, 10)
+                    .setSpeed(10)
+                    .loop(true);
+            animations.addAnimation("putRadish")
+                    .addFrames("player", 6, 5, 11, 11)
+                    .setSpeed(1)
+                    .loop(false);
+            animations.addAnimation("climb")
+                    .addFrames("player", 6, 5, 12, 13)
+                    .setSpeed(5)
+                    .loop(true);
+            animations.addAnimation("idleRope")
+                    .addFrames("player", 6, 5, 12, 12)
+                    .setSpeed(1)
+                    .loop(true);
+            animations.addAnimation("jump")
+                    .addFrames("player", 6, 5, 14, 14)
+                    .setSpeed(1)
+                    .loop(true);
+            animations.addAnimation("crushing")
+                    .addFrames("player", 6, 5, 15, 15);
+            animations.addAnimation("crushed")
+                    .addFrames("player", 6, 5, 16, 16);
+            animations.addAnimation("hit")
+                    .addFrames("player", 6, 5, 18, 19)
+                    .setSpeed(1)
+                    .loop(false);
+        }));
         play("idle");
     }
 
@@ -95,22 +96,19 @@ public class Player extends AnimatedSprite implements KeyListener {
 
         updateContacts();
 
-        var tiledmap = ((TiledMap)owner());
-        Tile tile = ((TiledMap)owner()).getTileFromPosition(tiledmap.getLayerId("background"), position());
-
         if (ropeTile != null) {
-            if(body().gravity.y != 0.0) {
-                body().velocity.set(0, 0);
-                body().gravity.set(0, 0);
-                body().force.set(0, 0);
+            if(body().gravity().y != 0.0) {
+                body().setVelocity(0, 0);
+                body().setGravity(0, 0);
+                body().setForce(0, 0);
             }
-            if(state == State.JUMP && body().velocity.x == 0.0) {
+            if(state == State.JUMP && body().velocity().x == 0.0) {
                 state = State.IDLE;
             }
             if(state == State.ROPE_CLIMB || state == State.IDLE) {
-                position().x = ropeTile.position().x + 1;
+                setPosition(ropeTile.position().x + 1, position().y);
             }
-        } else if (body().gravity.y == 0.0) {
+        } else if (body().gravity().y == 0.0) {
             body().resetGravity();
         }
 
@@ -121,17 +119,17 @@ public class Player extends AnimatedSprite implements KeyListener {
             }
         }
 
-        if (state == State.JUMP && onFloor && body().velocity.x == 0) {
+        if (state == State.JUMP && onFloor && body().velocity().x == 0) {
             state = State.IDLE;
         }
 
         if (state == State.WALK) {
-            body().velocity.x = direction == Direction.LEFT ? -100 : 100;
+            body().setVelocityX(direction == Direction.LEFT ? -100 : 100);
         } else if (state == State.ROPE_CLIMB) {
-            body().velocity.y = direction == Direction.UP ? -100 : 100;
+            body().setVelocityY(direction == Direction.UP ? -100 : 100);
         } else if (state == State.JUMP) {
-            body().velocity.x = Math.signum(body().velocity.x) *
-                    Math.max(0, Math.abs(body().velocity.x) - 100.0 / 32.0);
+            body().setVelocityX(Math.signum(body().velocity().x) *
+                    Math.max(0, Math.abs(body().velocity().x) - 100.0 / 32.0));
         }
 
         if (state == State.CRUSHING) {
@@ -178,8 +176,8 @@ public class Player extends AnimatedSprite implements KeyListener {
             } else if (onRope() && state != State.JUMP && state != State.WALK) {
                 state = State.JUMP;
                 direction = e.getKeyCode() == KeyEvent.VK_RIGHT ? Direction.RIGHT : Direction.LEFT;
-                body().velocity.x = direction == Direction.LEFT ? -100 : 100;
-                body().velocity.y = 0;
+                body().setVelocityX(direction == Direction.LEFT ? -100 : 100);
+                body().setVelocityY(0);
             }
         } else if (e.getKeyCode() == KeyEvent.VK_UP || e.getKeyCode() == KeyEvent.VK_DOWN) {
             if (onRope() && (state == State.WALK || state == State.IDLE || state == State.ROPE_CLIMB)) {
@@ -197,7 +195,7 @@ public class Player extends AnimatedSprite implements KeyListener {
         if (e.getKeyCode() == KeyEvent.VK_RIGHT || e.getKeyCode() == KeyEvent.VK_LEFT) {
             if (state != State.JUMP) {
                 state = State.IDLE;
-                body().velocity.x = 0;
+                body().setVelocityX(0);
             }
         }
         if (e.getKeyCode() == KeyEvent.VK_UP || e.getKeyCode() == KeyEvent.VK_DOWN) {
@@ -205,7 +203,7 @@ public class Player extends AnimatedSprite implements KeyListener {
                 if(state == State.ROPE_CLIMB) {
                     state = State.IDLE;
                 }
-                body().velocity.y = 0;
+                body().setVelocityY(0);
             }
         }
     }
@@ -240,7 +238,7 @@ public class Player extends AnimatedSprite implements KeyListener {
             } else if (b.node() instanceof Column) {
                 Column column = (Column) b.node();
                 // Remove column velocity inertia
-                body().velocity.y = 0.0;
+                body().setVelocityY(0.0);
 
                 if(manifold.normal.y != 0) {
                     if (manifold.normal.y < 0) {
@@ -272,8 +270,8 @@ public class Player extends AnimatedSprite implements KeyListener {
                         }
                         enemy.attack(dir);
                         state = State.HIT;
-                        body().velocity.set(0, 0);
-                        body().force.set(0, 0);
+                        body().setVelocity(0, 0);
+                        body().setForce(0, 0);
                     }
                 }
             } else if (b.node() instanceof Bomb) {
@@ -328,7 +326,11 @@ public class Player extends AnimatedSprite implements KeyListener {
             flipH(true);
         }
         if(radish != null) {
-            radish.position().set(direction == Direction.RIGHT ? 14 : -14, 0);
+            double radishX = direction == Direction.RIGHT ? 14 : -14;
+            if(radish.position().x != radishX) {
+                radish.setPosition(radishX, 0);
+                radish.resetPreviousTransform(); // Switch hands without sliding
+            }
         }
         if(anim == null) {
             reset();
@@ -8,10 +8,12 @@ public class SmickParticles extends AnimatedSprite {
         super.init();
 
         size().set(108, 64);
-        addAnimation("particles")
-                .addFrames("particles", 3, 1, 0, 2)
-                .setSpeed(5)
-                .loop(false);
+        setAnimations(scene().animations().define("particles", animations -> {
+            animations.addAnimation("particles")
+                    .addFrames("particles", 3, 1, 0, 2)
+                    .setSpeed(5)
+                    .loop(false);
+        }));
         play("particles");
     }
 
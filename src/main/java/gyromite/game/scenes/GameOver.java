@@ -2,6 +2,7 @@ package gyromite.game.scenes;
 
 import gyromite.game.Game;
 import gyromite.scene.Camera;
+import gyromite.scene.Drawable;
 import gyromite.scene.Scene;
 import gyromite.scene.SceneRoot;
 
@@ -9,6 +10,8 @@ import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
 
 public class GameOver extends SceneRoot {
+    private Font font;
+
     public GameOver(Scene scene) {
         super(scene);
     }
@@ -22,6 +25,7 @@ public class GameOver extends SceneRoot {
         cam.setStretchMode(Camera.StretchMode.KEEP_ASPECT);
         cam.position().set(cam.size().width / 2.0, cam.size().height / 2.0);
 
+        font = scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 20f);
         scene().audio().play("game_over");
     }
 
@@ -35,14 +39,16 @@ public class GameOver extends SceneRoot {
     }
 
     @Override
-    protected void render(Graphics2D g) {
-        super.render(g);
+    protected Drawable snapshot() {
+        final Font font = this.font;
 
-        g.setColor(new Color(220, 242, 234));
-        g.setStroke(new BasicStroke(3f));
-        g.draw(new RoundRectangle2D.Double(168, 105, 184, 64, 2, 2));
+        return g -> {
+            g.setColor(new Color(220, 242, 234));
+            g.setStroke(new BasicStroke(3f));
+            g.draw(new RoundRectangle2D.Double(168, 105, 184, 64, 2, 2));
 
-        g.setFont(scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 20f));
-        g.drawString("GAME OVER ", 190f, 144f);
+            g.setFont(font);
+            g.drawString("GAME OVER ", 190f, 144f);
+        };
     }
 }
@@ -2,6 +2,7 @@ package gyromite.game.scenes;
 
 import gyromite.game.Game;
 import gyromite.scene.Camera;
+import gyromite.scene.Drawable;
 import gyromite.scene.Scene;
 import gyromite.scene.SceneRoot;
 import gyromite.scene.Sprite;
@@ -31,6 +32,7 @@ public class Menu extends SceneRoot {
     private Sprite selector;
     private Option selectedOption = Option.TEST;
     private int phase = 1;
+    private Font font;
 
     public Menu(Scene scene) {
         super(scene);
@@ -51,6 +53,7 @@ public class Menu extends SceneRoot {
         selector.setFrame(15);
         selector.size().set(32, 32);
 
+        font = scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 20f);
         scene().audio().play("select_mode");
 
         scene().input().addListener(new KeyListener() {
@@ -81,17 +84,20 @@ public class Menu extends SceneRoot {
     protected void update() {
         super.update();
 
-        selector.position().set(SELECTOR_POS_X, SELECTOR_POS_Y.get(selectedOption));
+        selector.setPosition(SELECTOR_POS_X, SELECTOR_POS_Y.get(selectedOption));
     }
 
     @Override
-    protected void render(Graphics2D g) {
-        super.render(g);
+    protected Drawable snapshot() {
+        final Font font = this.font;
+        final int phase = this.phase;
 
-        g.setFont(scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 20f));
-        g.setColor(new Color(244, 128, 175));
-        g.drawString("PHASE", -64f, -128.5f);
-        g.setColor(new Color(122, 150, 200));
-        g.drawString(String.format("%02d" , phase), 32f, -128.5f);
+        return g -> {
+            g.setFont(font);
+            g.setColor(new Color(244, 128, 175));
+            g.drawString("PHASE", -64f, -128.5f);
+            g.setColor(new Color(122, 150, 200));
+            g.drawString(String.format("%02d" , phase), 32f, -128.5f);
+        };
     }
 }
@@ -59,20 +59,20 @@ public class Phase extends SceneRoot {
                         createColumn(tm, object, Column.Type.RED))
                 .setObjectFactory("characters", "smick", (tm, object, objectLayer) -> {
                     var enemy = new Enemy();
-                    enemy.position().set(object.x + object.width / 2.0, object.y + object.height / 2.0);
+                    enemy.setPosition(object.x + object.width / 2.0, object.y + object.height / 2.0);
                     return enemy;
                 })
                 .setObjectFactory("characters", "player", (tm, object, objectLayer) -> {
                     var player = new Player();
-                    player.position().set(object.x + object.width / 2.0, object.y + object.height / 2.0);
+                    player.setPosition(object.x + object.width / 2.0, object.y + object.height / 2.0);
                     return player;
                 }).setObjectFactory("consumables", "radish", (tm, object, objectLayer) -> {
                     var radish = new Radish(true);
-                    radish.position().set(object.x + object.width / 2.0, object.y + object.height / 2.0);
+                    radish.setPosition(object.x + object.width / 2.0, object.y + object.height / 2.0);
                     return radish;
                 }).setObjectFactory("consumables", "bomb", (tm, object, objectLayer) -> {
                     var bomb = new Bomb();
-                    bomb.position().set(object.x + object.width / 2.0, object.y + object.height / 2.0);
+                    bomb.setPosition(object.x + object.width / 2.0, object.y + object.height / 2.0);
                     bombCount++;
                     return bomb;
                 });
@@ -2,6 +2,7 @@ package gyromite.game.scenes;
 
 import gyromite.game.Game;
 import gyromite.scene.Camera;
+import gyromite.scene.Drawable;
 import gyromite.scene.Scene;
 import gyromite.scene.SceneRoot;
 import gyromite.scene.Sprite;
@@ -13,6 +14,7 @@ public class PhaseBegin extends SceneRoot {
     private final int phase;
     private final int playerLife;
     private final int nplayers;
+    private Font font;
 
     public PhaseBegin(Scene scene, int phase, int playerLife, int nplayers) {
         super(scene);
@@ -36,9 +38,10 @@ public class PhaseBegin extends SceneRoot {
             sprite.setVframes(5);
             sprite.setFrame(17);
             sprite.size().set(32, 44);
-            sprite.position().set(194 + 32 * i, 252);
+            sprite.setPosition(194 + 32 * i, 252);
         }
 
+        font = scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 20f);
         scene().audio().play("phase_begin");
     }
 
@@ -52,16 +55,18 @@ public class PhaseBegin extends SceneRoot {
     }
 
     @Override
-    protected void render(Graphics2D g) {
-        super.render(g);
+    protected Drawable snapshot() {
+        final Font font = this.font;
 
-        g.setColor(new Color(220, 242, 234));
-        g.setStroke(new BasicStroke(3f));
-        g.draw(new RoundRectangle2D.Double(168, 105, 184, 64, 2, 2));
+        return g -> {
+            g.setColor(new Color(220, 242, 234));
+            g.setStroke(new BasicStroke(3f));
+            g.draw(new RoundRectangle2D.Double(168, 105, 184, 64, 2, 2));
 
-        g.setFont(scene().resources().getFont("pixel").deriveFont(Font.PLAIN, 20f));
-        g.drawString("PHASE " + String.format("%02d", phase), 198f, 144f);
+            g.setFont(font);
+            g.drawString("PHASE " + String.format("%02d", phase), 198f, 144f);
 
-        g.drawString(String.format("%01d", nplayers) + " PLAYER", 198f, 228f);
+            g.drawString(String.format("%01d", nplayers) + " PLAYER", 198f, 228f);
+        };
     }
 }
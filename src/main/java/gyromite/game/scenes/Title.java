@@ -2,14 +2,23 @@ package gyromite.game.scenes;
 
 import gyromite.game.Game;
 import gyromite.scene.Camera;
+import gyromite.scene.Drawable;
 import gyromite.scene.Scene;
 import gyromite.scene.SceneRoot;
 import gyromite.scene.Sprite;
 
+import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 
 public class Title extends SceneRoot {
+    private static final int LOADING_BAR_WIDTH = 256;
+    private static final int LOADING_BAR_HEIGHT = 8;
+    private static final int LOADING_BAR_Y = 192;
+
+    private boolean musicStarted = false;
+    private boolean skip = false;
+
     public Title(Scene scene) {
         super(scene);
     }
@@ -23,13 +32,11 @@ public class Title extends SceneRoot {
         scene().camera().size().set(512, 448);
         scene().camera().setStretchMode(Camera.StretchMode.KEEP_ASPECT);
 
-        scene().audio().play("title");
-
         scene().input().addListener(new KeyListener() {
             @Override
             public void keyTyped(KeyEvent e) {
                 if(e.getKeyChar() == '\n') {
-                    showMenu();
+                    skip = true;
                 }
             }
             @Override
@@ -43,11 +50,34 @@ public class Title extends SceneRoot {
     protected void update() {
         super.update();
 
-        if(!scene().audio().isPlaying()) {
+        // The resources are loaded in the background, the music starts as soon as it is loaded.
+        // The loading state is read first, so the music is known to be loaded or missing once it ended.
+        boolean loading = scene().resources().isLoading();
+        if(!musicStarted && scene().resources().getAudio("title") != null) {
+            musicStarted = true;
+            scene().audio().play("title");
+        }
+        if(!loading && (skip || !musicStarted || !scene().audio().isPlaying())) {
             showMenu();
         }
     }
 
+    @Override
+    protected Drawable snapshot() {
+        if(!scene().resources().isLoading()) {
+            return null;
+        }
+        final double progress = scene().resources().progress();
+
+        return g -> {
+            int x = -LOADING_BAR_WIDTH / 2;
+            g.setColor(Color.DARK_GRAY);
+            g.fillRect(x, LOADING_BAR_Y, LOADING_BAR_WIDTH, LOADING_BAR_HEIGHT);
+            g.setColor(Color.WHITE);
+            g.fillRect(x, LOADING_BAR_Y, (int) (LOADING_BAR_WIDTH * progress), LOADING_BAR_HEIGHT);
+        };
+    }
+
     private void showMenu() {
         scene().audio().stop();
         ((Game)scene()).showMenu();
@@ -2,17 +2,14 @@ package gyromite.scene;
 
 import gyromite.core.MainLoop;
 
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
-import java.util.HashMap;
-
 /**
  * A sprite node that can use multiple image for animations.
  * Animations are created using {@link SpriteFrames}.
  * Each animation is associated to an id.
+ * The animations can be shared by the sprites of a scene, see {@link AnimationLibrary}.
  */
 public class AnimatedSprite extends SpriteBase {
-    private final HashMap<String, SpriteFrames> animations = new HashMap<>();
+    private SpriteAnimations animations = null; // Created on the first added animation, or shared
     boolean playing = false;
     boolean playBackwards = false;
     String currentAnimation = "";
@@ -29,14 +26,20 @@ public class AnimatedSprite extends SpriteBase {
      * @return <code>true</code> If the animation with the given id exists.
      */
     public boolean hasAnimation(String id) {
-        return animations.containsKey(id);
+        return animations != null && animations.has(id);
     }
     /**
      * @param id The id of the animation.
      * @return The animation with the given id or null if the animation does not exist.
      */
     public SpriteFrames animation(String id) {
-        return animations.get(id);
+        return animations != null ? animations.get(id) : null;
+    }
+    /**
+     * @return The animations of the sprite, null if it has no animation.
+     */
+    public SpriteAnimations animations() {
+        return animations;
     }
     /**
      * @return Return if an animation is playing.
@@ -77,15 +80,38 @@ public class AnimatedSprite extends SpriteBase {
         this.speedScale = speedScale;
     }
 
+    /**
+     * Use animations shared with other sprites, see {@link AnimationLibrary}.
+     * The current animation is reset if it does not exist in the new animations.
+     * @param animations The animations.
+     */
+    public void setAnimations(SpriteAnimations animations) {
+        if(animations != this.animations) {
+            if(animations != null) {
+                animations.retain();
+            }
+            if(this.animations != null) {
+                this.animations.release();
+            }
+        }
+        this.animations = animations;
+        if(!hasAnimation(currentAnimation)) {
+            reset();
+        }
+    }
+
     /**
      * Add an animation with the given id.
      * @param id The id of the animation.
      * @return The animation frames resources. See {@link SpriteFrames}.
+     * @throws IllegalStateException If the animations of the sprite are shared.
      */
     public SpriteFrames addAnimation(String id) {
-        SpriteFrames a = new SpriteFrames(id, this);
-        animations.put(id, a);
-        return a;
+        if(animations == null) {
+            animations = new SpriteAnimations(this);
+            animations.retain();
+        }
+        return animations.addAnimation(id);
     }
 
     /**
@@ -172,21 +198,20 @@ public class AnimatedSprite extends SpriteBase {
     }
 
     @Override
-    protected void render(Graphics2D g) {
-        super.render(g);
+    protected void destroy() {
+        super.destroy();
+        setAnimations(null);
+    }
 
+    @Override
+    protected Drawable snapshot() {
         if(currentAnimation == null) {
-            return;
+            return null;
         }
         SpriteFrames anim = animation(currentAnimation);
         if(anim == null || currentAnimationFrame < 0 || currentAnimationFrame >= anim.frameCount()) {
-            return;
+            return null;
         }
-        BufferedImage image = anim.getFrame(currentAnimationFrame);
-
-        g.translate(-size().width / 2.0, -size().height / 2.0);
-        g.scale(size().width / (double)image.getWidth(), size().height / (double)image.getHeight());
-
-        g.drawImage(image, 0, 0, null);
+        return snapshot(anim.getFrame(currentAnimationFrame));
     }
 }
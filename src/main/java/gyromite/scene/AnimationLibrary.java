@@ -0,0 +1,59 @@
+package gyromite.scene;
+
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+/**
+ * The animations shared by the {@link AnimatedSprite}s of a scene.
+ * The animations of a sprite sheet are defined once, then every sprite
+ * uses the same frames with {@link AnimatedSprite#setAnimations(SpriteAnimations)}.
+ */
+public class AnimationLibrary {
+    private final Scene scene;
+    private final HashMap<String, SpriteAnimations> animations = new HashMap<>();
+
+    AnimationLibrary(Scene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * @param id The id of the animations.
+     * @return The animations with the given id or null if they are not defined.
+     */
+    public SpriteAnimations get(String id) {
+        return animations.get(id);
+    }
+
+    /**
+     * Define the animations with the given id, if they are not already defined.
+     * The animations are frozen once defined.
+     * @param id The id of the animations.
+     * @param definition Adds the animations, only called the first time.
+     * @return The animations with the given id.
+     */
+    public SpriteAnimations define(String id, Consumer<SpriteAnimations> definition) {
+        var defined = animations.get(id);
+        if(defined == null) {
+            defined = new SpriteAnimations(scene.resources());
+            defined.retain();
+            definition.accept(defined);
+            defined.freeze();
+            animations.put(id, defined);
+        }
+        return defined;
+    }
+
+    /**
+     * Remove the animations with the given id. The sprites using them keep them,
+     * their images are released when the last of these sprites is destroyed.
+     * @return <code>true</code> if the animations were defined.
+     */
+    public boolean remove(String id) {
+        var removed = animations.remove(id);
+        if(removed == null) {
+            return false;
+        }
+        removed.release();
+        return true;
+    }
+}
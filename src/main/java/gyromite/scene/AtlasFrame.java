@@ -0,0 +1,95 @@
+package gyromite.scene;
+
+import gyromite.core.Rect2;
+import gyromite.core.Size2;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A frame of an atlas image, the rectangle of the image drawn by a sprite.
+ * The frame is drawn from the atlas image without creating a sub image, so that
+ * the atlas image stays accelerated. The frames of an image are created once and
+ * shared by all the sprites.
+ */
+public final class AtlasFrame {
+    // The frames of each image by rectangle, weakly referenced because a frame references its image
+    private static final Map<BufferedImage, Map<Long, WeakReference<AtlasFrame>>> frames = new WeakHashMap<>();
+
+    public final BufferedImage image;
+    public final int x, y, width, height;
+
+    private AtlasFrame(BufferedImage image, int x, int y, int width, int height) {
+        this.image = image;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return The frame of the whole image.
+     */
+    public static AtlasFrame of(BufferedImage image) {
+        return of(image, 0, 0, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * @return The frame of a region of the image.
+     */
+    public static AtlasFrame of(BufferedImage image, Rect2 region) {
+        Size2 s = region.size();
+        return of(image, (int)region.min.x, (int)region.min.y, (int)s.width, (int)s.height);
+    }
+
+    /**
+     * @param hframes The number of columns in the sprite sheet.
+     * @param vframes The number of rows in the sprite sheet.
+     * @param frame The position of the frame in the sprite sheet.
+     * @return The frame of a sprite sheet image.
+     */
+    public static AtlasFrame of(BufferedImage image, int hframes, int vframes, int frame) {
+        int frameX = frame % hframes;
+        int frameY = frame / hframes;
+        return of(image, frameX * image.getWidth() / hframes, frameY * image.getHeight() / vframes,
+                image.getWidth() / hframes, image.getHeight() / vframes);
+    }
+
+    /**
+     * @return The frame of a rectangle of the image.
+     * @throws IllegalArgumentException If the rectangle is outside of the image.
+     */
+    public static AtlasFrame of(BufferedImage image, int x, int y, int width, int height) {
+        if(x < 0 || y < 0 || width <= 0 || height <= 0 ||
+                x + width > image.getWidth() || y + height > image.getHeight()) {
+            throw new IllegalArgumentException(String.format(
+                    "Frame (%d, %d, %d, %d) is outside of the image", x, y, width, height));
+        }
+        if(image.getWidth() > 0xffff || image.getHeight() > 0xffff) {
+            return new AtlasFrame(image, x, y, width, height); // Does not fit in the key
+        }
+        long key = (long)x << 48 | (long)y << 32 | (long)width << 16 | height;
+        synchronized (frames) {
+            var imageFrames = frames.computeIfAbsent(image, k -> new HashMap<>());
+            var ref = imageFrames.get(key);
+            AtlasFrame frame = ref != null ? ref.get() : null;
+            if(frame == null) {
+                frame = new AtlasFrame(image, x, y, width, height);
+                imageFrames.put(key, new WeakReference<>(frame));
+            }
+            return frame;
+        }
+    }
+
+    /**
+     * Draw the frame with its top left corner at the origin of the graphics context.
+     * @param g The graphics context.
+     */
+    public void draw(Graphics2D g) {
+        g.drawImage(image, 0, 0, width, height, x, y, x + width, y + height, null);
+    }
+}
@@ -0,0 +1,17 @@
+package gyromite.scene;
+
+import java.awt.geom.AffineTransform;
+
+/**
+ * A {@link Drawable} made of images, which can be added to a {@link SpriteBatch}
+ * instead of being drawn in its own graphics context.
+ */
+public interface BatchDrawable extends Drawable {
+    /**
+     * Add the images to draw to a batch.
+     * @param batch The batch.
+     * @param transform The transform of the local space of the node to the device space.
+     *                  Only valid during the call.
+     */
+    void submit(SpriteBatch batch, AffineTransform transform);
+}
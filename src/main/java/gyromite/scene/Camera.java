@@ -1,5 +1,6 @@
 package gyromite.scene;
 
+import gyromite.core.MathUtils;
 import gyromite.core.Rect2;
 import gyromite.core.Size2;
 import gyromite.core.Vector2;
@@ -47,6 +48,7 @@ public class Camera {
 
     private final Scene scene;
     private final Vector2 position = new Vector2();
+    private final Vector2 previousPosition = new Vector2(); // Position before the last tick
     private final Size2 size = new Size2();
     private final Vector2 offset = new Vector2();
     private final Vector2 zoom = new Vector2();
@@ -60,11 +62,28 @@ public class Camera {
         reset();
     }
 
+    /**
+     * Copy the view of a camera, without the followed node.
+     * @param camera The camera to copy.
+     */
+    Camera(Camera camera) {
+        this.scene = camera.scene;
+        position.set(camera.position);
+        previousPosition.set(camera.previousPosition);
+        size.set(camera.size);
+        offset.set(camera.offset);
+        zoom.set(camera.zoom);
+        bounds.set(camera.bounds);
+        followBox.set(camera.followBox);
+        stretchMode = camera.stretchMode;
+    }
+
     /**
      * Reset all properties of the camera.
      */
     public void reset() {
        position.set(0, 0);
+       previousPosition.set(0, 0);
        size.set(800, 600);
        offset.set(0, 0);
        zoom.set(1, 1);
@@ -180,6 +199,14 @@ public class Camera {
     public void transform(Graphics2D g) {
         g.setTransform(getTransform());
     }
+    /**
+     * Apply the camera transformation interpolated between the last two ticks to the graphics context.
+     * @param g The graphics context.
+     * @param alpha The interpolation factor between the previous tick (0) and the last tick (1).
+     */
+    public void transform(Graphics2D g, double alpha) {
+        g.setTransform(getTransform(alpha));
+    }
 
     /**
      * Follow the node.
@@ -223,6 +250,28 @@ public class Camera {
         return new Vector2();
     }
 
+    /**
+     * @return The rectangle of the world visible in the viewport.
+     */
+    public Rect2 getViewRect() {
+        double width = scene.viewport().getWidth();
+        double height = scene.viewport().getHeight();
+        Vector2 a = getWorldCoordinate(0, 0);
+        Vector2 b = getWorldCoordinate(width, height);
+        return new Rect2(Math.min(a.x, b.x), Math.min(a.y, b.y), Math.max(a.x, b.x), Math.max(a.y, b.y));
+    }
+
+    /**
+     * @return The visible rectangle of the world with a margin of a quarter of its size,
+     *         where the nodes drawn between two ticks may be visible.
+     */
+    Rect2 getCullingRect() {
+        Rect2 view = getViewRect();
+        double marginX = (view.max.x - view.min.x) / 4.0;
+        double marginY = (view.max.y - view.min.y) / 4.0;
+        return view.set(view.min.x - marginX, view.min.y - marginY, view.max.x + marginX, view.max.y + marginY);
+    }
+
     /**
      * Transform world coordinates to screen coordinates.
      * @param world The coordinates in the world.
@@ -247,6 +296,13 @@ public class Camera {
      * @return The camera transformation.
      */
     public AffineTransform getTransform() {
+        return getTransform(1.0);
+    }
+    /**
+     * @param alpha The interpolation factor between the previous tick (0) and the last tick (1).
+     * @return The camera transformation interpolated between the last two ticks.
+     */
+    public AffineTransform getTransform(double alpha) {
         AffineTransform at = new AffineTransform();
 
         if(size.width == 0 || size.height == 0) {
@@ -264,11 +320,23 @@ public class Camera {
         at.scale(zoom.x * scaleFactor.x, zoom.y * scaleFactor.y);
 
         // Move camera
-        at.translate(-position.x, -position.y);
+        if(alpha < 1.0) {
+            at.translate(-MathUtils.lerp(previousPosition.x, position.x, alpha),
+                    -MathUtils.lerp(previousPosition.y, position.y, alpha));
+        } else {
+            at.translate(-position.x, -position.y);
+        }
 
         return at;
     }
 
+    /**
+     * Keep the position before a tick for the interpolation. Called by {@link Scene}
+     */
+    void storePreviousPosition() {
+        previousPosition.set(position);
+    }
+
     /**
      * Update the camera. Called by {@link Scene}
      */
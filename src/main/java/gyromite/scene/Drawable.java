@@ -0,0 +1,18 @@
+package gyromite.scene;
+
+import java.awt.Graphics2D;
+
+/**
+ * What a node draws, captured by {@link Node#snapshot()}.
+ * The drawing is done in the local space of the node. A drawable may be called
+ * from the render thread while the node is updated, so it must only use the
+ * values captured when it was created.
+ */
+@FunctionalInterface
+public interface Drawable {
+    /**
+     * Draw in the graphics context.
+     * @param g The graphics context, transformed to the local space of the node.
+     */
+    void draw(Graphics2D g);
+}
@@ -1,6 +1,7 @@
 package gyromite.scene;
 
-import java.awt.Graphics2D;
+import gyromite.core.Rect2;
+
 import java.awt.Color;
 import java.awt.geom.AffineTransform;
 
@@ -9,10 +10,10 @@ import java.awt.geom.AffineTransform;
  */
 public class FPSViewer extends Node {
     private int ticks = 0;
-    private int frames = 0;
 
     private int averageTicks = 0;
-    private int averageFrames = 0;
+    private long averageFrames = 0;
+    private double averageJitter = 0.0;
 
     private long lastSecondTimeMs = 0;
 
@@ -38,21 +39,32 @@ public class FPSViewer extends Node {
         long timeMs = System.currentTimeMillis();
         if(timeMs - lastSecondTimeMs >= 1000) {
             lastSecondTimeMs = timeMs;
-            averageFrames = frames;
             averageTicks = ticks;
-            frames = 0;
             ticks = 0;
+            if(scene() != null) {
+                // The frames are counted by the pacer, which may run on the render thread
+                var stats = scene().pacer().stats();
+                averageFrames = stats.frames();
+                averageJitter = stats.jitter();
+                stats.reset();
+            }
         }
     }
 
     @Override
-    public void render(Graphics2D g) {
-        super.render(g);
+    protected boolean localBounds(Rect2 out) {
+        return false; // Drawn in the device space
+    }
 
-        frames++;
+    @Override
+    protected Drawable snapshot() {
+        final Color color = this.color;
+        final String text = String.format("FPS: %d Updates: %d Jitter: %.2f ms", averageFrames, averageTicks, averageJitter);
 
-        g.setTransform(new AffineTransform());
-        g.setColor(color);
-        g.drawString("FPS: " + averageFrames + " Updates: " + averageTicks, 10, 20);
+        return g -> {
+            g.setTransform(new AffineTransform());
+            g.setColor(color);
+            g.drawString(text, 10, 20);
+        };
     }
 }
@@ -1,5 +1,7 @@
 package gyromite.scene;
 
+import gyromite.core.MathUtils;
+import gyromite.core.Rect2;
 import gyromite.core.Vector2;
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import gyromite.scene.physics.Body;
@@ -21,10 +23,41 @@ public class Node {
     private Node owner = null;
     private Body body = null;
     private boolean destroyed = false;
+    private boolean visible = true;
 
     private final Vector2 position = new Vector2();
     private double orient = 0.0; // Orientation in radians
 
+    // Transform before the last tick, to interpolate the render between ticks
+    private final Vector2 previousPosition = new Vector2();
+    private double previousOrient = 0.0;
+    private boolean hasPreviousTransform = false;
+    private boolean teleported = false; // Reset since the last render snapshot, see RenderSnapshot
+    // Render state set by the owner before rendering
+    double renderAlpha = 1.0;
+    Rect2 renderView = null; // Visible rectangle of the world, null to render everything
+    private AffineTransform renderTransform = null; // Transform to the device space, reused by the batched render
+    // World bounds cache, valid for the world transform version and the local bounds it was computed from
+    private Rect2 localBounds = null;
+    private Rect2 cachedLocalBounds = null;
+    private boolean localBoundsKnown = false;
+    private Rect2 worldBounds = null;
+    private int boundsVersion = -1;
+    // Union of the world bounds of this node and its visible children, null if unknown.
+    // Dirty when a transform, a child, a visibility or the local bounds change below the node,
+    // the owners of a dirty node are dirty too.
+    private final Rect2 subtreeBounds = new Rect2();
+    private boolean subtreeBoundsKnown = false;
+    private boolean subtreeBoundsDirty = true;
+
+    // World transform cache. The setters mark the node and its children dirty,
+    // the children of a dirty node are always dirty.
+    private final Vector2 worldPosition = new Vector2();
+    private double worldOrient = 0.0;
+    private double worldCos = 1.0, worldSin = 0.0;
+    private boolean transformDirty = true;
+    private int transformVersion = 0;
+
     private boolean updatingChildNodes = false;
     private final ArrayList<Node> childrenToRemove = new ArrayList<>();
 
@@ -76,10 +109,27 @@ public class Node {
     }
 
     /**
-     * @return Relative position of the node
+     * @return Return true if the node is rendered. An invisible node and
+     *         its children are still updated but not rendered.
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * @return A copy of the relative position of the node.
+     *         The node is moved by {@link Node#setPosition(double, double)}.
      */
     public Vector2 position() {
-        return position;
+        return new Vector2(position);
+    }
+    /**
+     * Get the relative position of the node without allocating
+     * @param out The vector to set
+     * @return The out vector
+     */
+    public Vector2 position(Vector2 out) {
+        return out.set(position);
     }
     /**
      * @return Relative orientation of the node
@@ -92,37 +142,80 @@ public class Node {
      * @return Absolute position of the node
      */
     public Vector2 worldPosition() {
-        return owner != null ? position().clone().rotate(owner.worldOrient()).addi(owner.worldPosition()) : position();
+        return worldPosition(new Vector2());
+    }
+    /**
+     * Compute the absolute position of the node in the world without allocating
+     * @param out The vector to set
+     * @return The out vector
+     */
+    public Vector2 worldPosition(Vector2 out) {
+        updateWorldTransform();
+        return out.set(worldPosition);
     }
     /**
      * Compute the absolute orientation of the node in the world
      * @return Absolute orientation of the node
      */
     public double worldOrient() {
-        return owner != null ? owner.worldOrient() + orient() : orient();
+        updateWorldTransform();
+        return worldOrient;
     }
 
     /**
-     * Set the relative position of the node
+     * Set whether the node and its children are rendered or not.
+     * @param visible <code>false</code> to hide the node.
+     */
+    public void setVisible(boolean visible) {
+        if(visible != this.visible && owner != null) {
+            owner.invalidateSubtreeBounds();
+        }
+        this.visible = visible;
+    }
+
+    /**
+     * Set the relative position of the node.
+     * Wakes the sleeping bodies of the node and its children.
      * @param x The x coordinate
      * @param y The y coordinate
      */
     public void setPosition(double x, double y) {
         position.set(x, y);
+        invalidateTransform();
+        if(owner != null) {
+            owner.invalidateSubtreeBounds();
+        }
+        wakeMovedBodies();
     }
     /**
-     * Set the relative position of the node
+     * Set the relative position of the node.
+     * Wakes the sleeping bodies of the node and its children.
      * @param pos The coordinates
      */
     public void setPosition(Vector2 pos) {
-        position.set(pos);
+        setPosition(pos.x, pos.y);
     }
     /**
-     * Set the relative orientation of the node
+     * Move the node by an offset.
+     * Wakes the sleeping bodies of the node and its children.
+     * @param dx The x offset
+     * @param dy The y offset
+     */
+    public void translate(double dx, double dy) {
+        setPosition(position.x + dx, position.y + dy);
+    }
+    /**
+     * Set the relative orientation of the node.
+     * Wakes the sleeping bodies of the node and its children.
      * @param orient The orientation in radian
      */
     public void setOrient(double orient) {
         this.orient = orient;
+        invalidateTransform();
+        if(owner != null) {
+            owner.invalidateSubtreeBounds();
+        }
+        wakeMovedBodies();
     }
 
     /**
@@ -137,6 +230,8 @@ public class Node {
         }
         children.add(child);
         child.owner = this;
+        child.invalidateTransform();
+        invalidateSubtreeBounds();
         child.init();
         return childNode;
     }
@@ -158,6 +253,8 @@ public class Node {
             children.add(nodeIdx + 1, child);
         }
         child.owner = this;
+        child.invalidateTransform();
+        invalidateSubtreeBounds();
         child.init();
         return childNode;
     }
@@ -177,6 +274,7 @@ public class Node {
             } else {
                 children.remove(childNode);
             }
+            invalidateSubtreeBounds();
         }
     }
 
@@ -195,6 +293,7 @@ public class Node {
         } else {
             children.clear();
         }
+        invalidateSubtreeBounds();
     }
 
     /**
@@ -267,25 +366,363 @@ public class Node {
     }
 
     /**
-     * Render method called each render frame (See {@link gyromite.core.MainLoop})
+     * Render method called each render frame (See {@link gyromite.core.MainLoop}).
+     * Renders the children, then what the node draws (see {@link Node#snapshot()}).
+     * Not called when the rendering runs on its own thread
+     * (see {@link gyromite.core.MainLoop#setRenderThreaded(boolean)}).
+     * The nodes overriding this method must also override {@link Node#batchable()}.
      * @param g The graphics context
      */
     @MustBeInvokedByOverriders
     protected void render(Graphics2D g) {
         AffineTransform at = new AffineTransform(g.getTransform());
-
-        at.translate(position.x, position.y);
-        at.rotate(orient);
+        applyTransform(at, renderAlpha);
 
         g.setTransform(at);
 
         boolean lastUpdateFlag = updatingChildNodes;
         updatingChildNodes = true; // Prevent child removing during loop
         for(var child : children) {
+            if(!child.visible) {
+                continue;
+            }
+            child.renderAlpha = renderAlpha;
+            child.renderView = renderView;
+            if(renderView != null && child.isOutside(renderView)) {
+                continue;
+            }
             var gCopy = (Graphics2D) g.create();
             child.render(gCopy);
         }
         updatingChildNodes = lastUpdateFlag;
+
+        Drawable drawable = snapshot();
+        if(drawable != null) {
+            drawable.draw((Graphics2D) g.create());
+        }
+    }
+
+    /**
+     * Render the node and its children like {@link Node#render(Graphics2D)}, adding the
+     * {@link BatchDrawable}s to a batch instead of drawing each of them in a graphics copy.
+     * The nodes which are not {@link Node#batchable()} are rendered by {@link Node#render(Graphics2D)}.
+     * @param batch The batch, flushed before anything is drawn outside of it.
+     * @param g The graphics context.
+     * @param transform The transform of the owner to the device space.
+     */
+    void render(SpriteBatch batch, Graphics2D g, AffineTransform transform) {
+        if(!batchable()) {
+            batch.flush(g);
+            var gCopy = (Graphics2D) g.create();
+            gCopy.setTransform(transform);
+            render(gCopy);
+            gCopy.dispose();
+            return;
+        }
+        if(renderTransform == null) {
+            renderTransform = new AffineTransform();
+        }
+        AffineTransform at = renderTransform;
+        at.setTransform(transform);
+        applyTransform(at, renderAlpha);
+
+        boolean lastUpdateFlag = updatingChildNodes;
+        updatingChildNodes = true; // Prevent child removing during loop
+        for (int i = 0; i < children.size(); i++) {
+            Node child = children.get(i);
+            if(!child.visible) {
+                continue;
+            }
+            child.renderAlpha = renderAlpha;
+            child.renderView = renderView;
+            if(renderView != null && child.isOutside(renderView)) {
+                continue;
+            }
+            child.render(batch, g, at);
+        }
+        updatingChildNodes = lastUpdateFlag;
+
+        Drawable drawable = snapshot();
+        if(drawable instanceof BatchDrawable) {
+            ((BatchDrawable) drawable).submit(batch, at);
+        } else if(drawable != null) {
+            batch.flush(g);
+            var gCopy = (Graphics2D) g.create();
+            gCopy.setTransform(at);
+            drawable.draw(gCopy);
+            gCopy.dispose();
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the node and its children must be rendered by {@link Node#render(Graphics2D)}
+     *         with their own graphics context, instead of adding their drawables to the batch of the scene.
+     *         Must be overridden to return <code>false</code> by the nodes overriding {@link Node#render(Graphics2D)}.
+     */
+    protected boolean batchable() {
+        return true;
+    }
+
+    /**
+     * Capture what this node draws, without its children.
+     * Called each frame by {@link Node#render(Graphics2D)}, or after each update tick
+     * when the rendering runs on its own thread. The drawable must not read
+     * the node since it can be called while the node is updated.
+     * @return What the node draws, or null if the node draws nothing.
+     */
+    protected Drawable snapshot() {
+        return null;
+    }
+
+    /**
+     * Compute the bounds of what this node draws, without its children, in its local space.
+     * Used to skip the nodes outside of the camera view. The nodes drawing something must
+     * override this method, the default bounds are empty since the base node draws nothing.
+     * @param out The rectangle to set, left empty if the node draws nothing.
+     * @return <code>false</code> if the bounds are unknown, the node is then never skipped.
+     */
+    protected boolean localBounds(Rect2 out) {
+        out.set(0, 0, 0, 0);
+        return true;
+    }
+
+    /**
+     * Check whether this node and its children draw nothing inside the view.
+     * Tests the cached bounds of the subtree, only the local bounds of this node are read again.
+     * The local bounds of the children are read again after their update.
+     * @param view The visible rectangle of the world.
+     * @return <code>true</code> if the node can be skipped.
+     */
+    boolean isOutside(Rect2 view) {
+        pollLocalBounds();
+        Rect2 bounds = subtreeBounds();
+        return bounds != null && (bounds.isEmpty() || !bounds.intersects(view));
+    }
+
+    /**
+     * Compute the axis aligned bounds of what this node and its visible children draw in the world.
+     * The bounds are cached until a transform, a child, a visibility or the local bounds change below the node.
+     * @return The bounds, empty if nothing is drawn, or null if they are unknown.
+     */
+    private Rect2 subtreeBounds() {
+        if(!subtreeBoundsDirty) {
+            return subtreeBoundsKnown ? subtreeBounds : null;
+        }
+
+        Rect2 own = worldBounds();
+        boolean known = own != null;
+        if(known) {
+            subtreeBounds.set(own);
+        }
+        // All the children are computed to clear their dirty flag
+        for (int i = 0; i < children.size(); i++) {
+            Node child = children.get(i);
+            if(!child.visible) {
+                continue;
+            }
+            Rect2 rect = child.subtreeBounds();
+            if(rect == null) {
+                known = false;
+            } else if(known && !rect.isEmpty()) {
+                if(subtreeBounds.isEmpty()) {
+                    subtreeBounds.set(rect);
+                } else {
+                    subtreeBounds.set(Math.min(subtreeBounds.min.x, rect.min.x), Math.min(subtreeBounds.min.y, rect.min.y),
+                            Math.max(subtreeBounds.max.x, rect.max.x), Math.max(subtreeBounds.max.y, rect.max.y));
+                }
+            }
+        }
+        subtreeBoundsKnown = known;
+        subtreeBoundsDirty = false;
+        return known ? subtreeBounds : null;
+    }
+
+    /**
+     * Mark the subtree bounds of this node and its owners dirty.
+     * Stops at the nodes already dirty, whose owners are dirty too.
+     */
+    private void invalidateSubtreeBounds() {
+        for (Node node = this; node != null && !node.subtreeBoundsDirty; node = node.owner) {
+            node.subtreeBoundsDirty = true;
+        }
+    }
+
+    /**
+     * Read the local bounds again and invalidate the subtree bounds if they changed.
+     * @return <code>false</code> if the bounds are unknown.
+     */
+    private boolean pollLocalBounds() {
+        if(localBounds == null) {
+            localBounds = new Rect2();
+            cachedLocalBounds = new Rect2();
+            worldBounds = new Rect2();
+        }
+        Rect2 rect = localBounds;
+        boolean known = localBounds(rect);
+        if(known != localBoundsKnown || (known && (rect.min.x != cachedLocalBounds.min.x ||
+                rect.min.y != cachedLocalBounds.min.y || rect.max.x != cachedLocalBounds.max.x ||
+                rect.max.y != cachedLocalBounds.max.y))) {
+            localBoundsKnown = known;
+            cachedLocalBounds.set(rect);
+            boundsVersion = -1;
+            invalidateSubtreeBounds();
+        }
+        return known;
+    }
+
+    /**
+     * Compute the axis aligned bounds of what this node draws in the world, without its children.
+     * The bounds are cached until the world transform or the local bounds change.
+     * @return The bounds, empty if the node draws nothing, or null if they are unknown.
+     */
+    private Rect2 worldBounds() {
+        boolean known = pollLocalBounds();
+        updateWorldTransform();
+        if(!known) {
+            return null;
+        }
+        if(boundsVersion == transformVersion) {
+            return worldBounds;
+        }
+        Rect2 rect = cachedLocalBounds;
+
+        if(rect.isEmpty()) {
+            worldBounds.set(0, 0, 0, 0);
+        } else {
+            // The bounds of the rotated rectangle are given by the signs of the rotation terms
+            double c = worldCos, s = worldSin;
+            double minX = Math.min(c * rect.min.x, c * rect.max.x) + Math.min(-s * rect.min.y, -s * rect.max.y);
+            double maxX = Math.max(c * rect.min.x, c * rect.max.x) + Math.max(-s * rect.min.y, -s * rect.max.y);
+            double minY = Math.min(s * rect.min.x, s * rect.max.x) + Math.min(c * rect.min.y, c * rect.max.y);
+            double maxY = Math.max(s * rect.min.x, s * rect.max.x) + Math.max(c * rect.min.y, c * rect.max.y);
+            worldBounds.set(minX + worldPosition.x, minY + worldPosition.y,
+                    maxX + worldPosition.x, maxY + worldPosition.y);
+        }
+        boundsVersion = transformVersion;
+        return worldBounds;
+    }
+
+    /**
+     * Keep the transform of this node and its children before a tick,
+     * the render is interpolated between this transform and the current one.
+     */
+    void storePreviousTransform() {
+        previousPosition.set(position);
+        previousOrient = orient;
+        hasPreviousTransform = true;
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).storePreviousTransform();
+        }
+    }
+
+    /**
+     * Do not interpolate the render of this node and its children from their transform before the tick,
+     * when the node is teleported.
+     */
+    public void resetPreviousTransform() {
+        hasPreviousTransform = false;
+        teleported = true;
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).resetPreviousTransform();
+        }
+    }
+
+    /**
+     * Add this node and its children to a render snapshot, in render order.
+     * @param snapshot The snapshot.
+     * @param transform The world transform of the owner.
+     */
+    void snapshot(RenderSnapshot snapshot, AffineTransform transform) {
+        AffineTransform at = new AffineTransform(transform);
+        applyTransform(at, 1.0);
+        boolean interpolated = !teleported;
+        teleported = false;
+
+        boolean lastUpdateFlag = updatingChildNodes;
+        updatingChildNodes = true; // Prevent child removing during loop
+        for (int i = 0; i < children.size(); i++) {
+            Node child = children.get(i);
+            if(child.visible && (snapshot.view == null || !child.isOutside(snapshot.view))) {
+                child.snapshot(snapshot, at);
+            }
+        }
+        updatingChildNodes = lastUpdateFlag;
+
+        Drawable drawable = snapshot();
+        if(drawable != null) {
+            snapshot.add(this, at, drawable, interpolated);
+        }
+    }
+
+    /**
+     * Apply the transform of the node, interpolated between the last two ticks.
+     */
+    private void applyTransform(AffineTransform at, double alpha) {
+        if(alpha < 1.0 && hasPreviousTransform) {
+            at.translate(MathUtils.lerp(previousPosition.x, position.x, alpha),
+                    MathUtils.lerp(previousPosition.y, position.y, alpha));
+            at.rotate(MathUtils.lerpAngle(previousOrient, orient, alpha));
+        } else {
+            at.translate(position.x, position.y);
+            at.rotate(orient);
+        }
+    }
+
+    /**
+     * Mark the world transform of this node and its children dirty.
+     * Stops at the nodes already dirty, whose children are dirty too.
+     */
+    private void invalidateTransform() {
+        if (transformDirty) {
+            return;
+        }
+        transformDirty = true;
+        subtreeBoundsDirty = true; // The world bounds move with the node
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).invalidateTransform();
+        }
+    }
+
+    /**
+     * Recompute the cached world transform if the node or one of its owners moved.
+     */
+    private void updateWorldTransform() {
+        if (!transformDirty) {
+            return;
+        }
+
+        if (owner != null) {
+            owner.updateWorldTransform();
+            double x = position.x * owner.worldCos - position.y * owner.worldSin;
+            double y = position.x * owner.worldSin + position.y * owner.worldCos;
+            worldPosition.set(x + owner.worldPosition.x, y + owner.worldPosition.y);
+            worldOrient = owner.worldOrient + orient;
+        } else {
+            worldPosition.set(position);
+            worldOrient = orient;
+        }
+        if (worldOrient != 0.0) {
+            worldCos = StrictMath.cos(worldOrient);
+            worldSin = StrictMath.sin(worldOrient);
+        } else {
+            worldCos = 1.0;
+            worldSin = 0.0;
+        }
+
+        transformDirty = false;
+        transformVersion++;
+    }
+
+    /**
+     * Wake the sleeping bodies of this node and its children whose world transform changed.
+     */
+    private void wakeMovedBodies() {
+        if (body != null) {
+            body.wakeIfMoved();
+        }
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).wakeMovedBodies();
+        }
     }
 
     /**
@@ -297,12 +734,14 @@ public class Node {
         if(!childrenToRemove.isEmpty()) {
             children.removeAll(childrenToRemove);
             childrenToRemove.clear();
+            invalidateSubtreeBounds();
         }
 
         for (int childIdx = 0; childIdx < children.size(); childIdx++) {
             Node child = children.get(childIdx);
 
             child.update();
+            child.pollLocalBounds();
 
             if(!childrenToRemove.isEmpty()) {
                 for (int i = 0; i < children.size(); i++) {
@@ -315,6 +754,7 @@ public class Node {
                     }
                 }
                 childrenToRemove.clear();
+                invalidateSubtreeBounds();
             }
         }
         updatingChildNodes = false;
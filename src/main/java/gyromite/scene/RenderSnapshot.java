@@ -0,0 +1,147 @@
+package gyromite.scene;
+
+import gyromite.core.MathUtils;
+import gyromite.core.Rect2;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+
+/**
+ * What a {@link Scene} draws after an update tick.
+ * Captured by the update thread and drawn by the render thread, the positions
+ * of the nodes and the camera are interpolated with the previous snapshot.
+ */
+final class RenderSnapshot {
+    final long time;
+    final Rect2 view; // Visible rectangle of the world, with a margin for the interpolation
+    private final Camera camera;
+    private final ArrayList<AffineTransform> transforms = new ArrayList<>();
+    private final ArrayList<Drawable> drawables = new ArrayList<>();
+    private final ArrayList<Node> nodes = new ArrayList<>();
+    private final BitSet teleported = new BitSet(); // Drawables not interpolated from the previous snapshot
+    private final IdentityHashMap<Node, AffineTransform> nodeTransforms = new IdentityHashMap<>();
+    private final Drawable physics;
+
+    /**
+     * Capture the scene. Must be called from the update thread.
+     * @param scene The scene.
+     * @param time The time of the update tick in nanoseconds.
+     */
+    RenderSnapshot(Scene scene, long time) {
+        this.time = time;
+        this.camera = new Camera(scene.camera());
+        this.view = camera.getCullingRect();
+        scene.root().snapshot(this, new AffineTransform());
+        this.physics = scene.isRenderPhysics() ? scene.physics().snapshot() : null;
+    }
+
+    /**
+     * Add what a node draws. Called by {@link Node} in render order.
+     * @param node The node.
+     * @param transform The world transform of the node.
+     * @param drawable What the node draws.
+     * @param interpolated <code>false</code> if the node was teleported since the previous snapshot.
+     */
+    void add(Node node, AffineTransform transform, Drawable drawable, boolean interpolated) {
+        if(!interpolated) {
+            teleported.set(drawables.size());
+        }
+        transforms.add(transform);
+        drawables.add(drawable);
+        nodes.add(node);
+        nodeTransforms.put(node, transform);
+    }
+
+    /**
+     * @return The number of drawables.
+     */
+    int size() {
+        return drawables.size();
+    }
+
+    /**
+     * @return <code>true</code> if the drawable is interpolated from the previous snapshot.
+     */
+    private boolean interpolated(int index) {
+        return !teleported.get(index);
+    }
+
+    /**
+     * @return The orientation in radians of a rotation and translation transform.
+     */
+    private static double orient(AffineTransform transform) {
+        return Math.atan2(transform.getShearY(), transform.getScaleX());
+    }
+
+    /**
+     * Draw the snapshot.
+     * @param g The graphics context.
+     * @param previous The previous snapshot or null.
+     * @param alpha The interpolation factor between the previous snapshot (0) and this snapshot (1).
+     * @param batch The batch of the {@link BatchDrawable}s.
+     */
+    void draw(Graphics2D g, RenderSnapshot previous, double alpha, SpriteBatch batch) {
+        boolean interpolate = previous != null && alpha < 1.0;
+
+        Camera view = camera;
+        if(interpolate) {
+            view = new Camera(camera);
+            view.position().set(
+                    MathUtils.lerp(previous.camera.position().x, camera.position().x, alpha),
+                    MathUtils.lerp(previous.camera.position().y, camera.position().y, alpha));
+        }
+        AffineTransform cameraTransform = view.getTransform();
+
+        AffineTransform at = new AffineTransform();
+        AffineTransform interpolated = new AffineTransform();
+        for (int i = 0; i < drawables.size(); i++) {
+            AffineTransform transform = transforms.get(i);
+            at.setTransform(cameraTransform);
+
+            AffineTransform last = interpolate && interpolated(i) ? previous.nodeTransforms.get(nodes.get(i)) : null;
+            if(last != null) {
+                double x = MathUtils.lerp(last.getTranslateX(), transform.getTranslateX(), alpha);
+                double y = MathUtils.lerp(last.getTranslateY(), transform.getTranslateY(), alpha);
+                double lastOrient = orient(last);
+                double orient = orient(transform);
+                if(lastOrient == orient) {
+                    interpolated.setTransform(
+                            transform.getScaleX(), transform.getShearY(),
+                            transform.getShearX(), transform.getScaleY(), x, y);
+                } else {
+                    // The world transforms of the nodes are rotations and translations
+                    interpolated.setToTranslation(x, y);
+                    interpolated.rotate(MathUtils.lerpAngle(lastOrient, orient, alpha));
+                }
+                at.concatenate(interpolated);
+            } else {
+                at.concatenate(transform);
+            }
+
+            Drawable drawable = drawables.get(i);
+            if(drawable instanceof BatchDrawable) {
+                ((BatchDrawable) drawable).submit(batch, at);
+                continue;
+            }
+            batch.flush(g);
+            Graphics2D gCopy = (Graphics2D) g.create();
+            gCopy.setTransform(at);
+            drawable.draw(gCopy);
+            gCopy.dispose();
+        }
+        batch.flush(g);
+
+        if(physics != null) {
+            Graphics2D gCopy = (Graphics2D) g.create();
+            gCopy.setTransform(cameraTransform);
+            physics.draw(gCopy);
+            gCopy.dispose();
+        }
+
+        g.setTransform(new AffineTransform());
+        view.drawBlackBars((Graphics2D) g.create());
+    }
+}
@@ -3,13 +3,16 @@ package gyromite.scene;
 import gyromite.core.Audio;
 import gyromite.core.Input;
 import gyromite.core.MainLoop;
+import gyromite.core.MathUtils;
 import gyromite.core.resources.Resources;
 import org.jetbrains.annotations.NotNull;
 import gyromite.scene.physics.PhysicsProvider;
+import gyromite.util.Pair;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
 
 /**
  * Manage the game loop with a tree of nodes.
@@ -17,15 +20,42 @@ import java.awt.image.BufferStrategy;
  * Process the render with a {@link Camera}.
  */
 public class Scene extends MainLoop {
+    /**
+     * Where the scene is rendered.
+     */
+    public enum DisplayMode {
+        /**
+         * Render in the {@link Viewport}, which must be shown in a window.
+         */
+        WINDOW,
+        /**
+         * Render in an offscreen image of the size of the {@link Viewport}.
+         * See {@link Scene#offscreenImage()}.
+         */
+        OFFSCREEN,
+        /**
+         * Do not render. Only the update and physics ticks are run.
+         */
+        NONE
+    }
+
     private final Viewport viewport = new Viewport();
     private final Input input = new Input();
     private final Audio audio = new Audio(this);
     private final Resources resources = new Resources();
+    private final AnimationLibrary animations = new AnimationLibrary(this);
     private final PhysicsProvider physics = new PhysicsProvider(MainLoop.DT, 10);
     private SceneRoot root = new SceneRoot(this);
     private Camera camera = new Camera(this);
     private boolean antialiasing = true;
     private boolean renderPhysics = false;
+    private volatile boolean softwareRendering = false;
+    private volatile int renderBands = 1;
+    private DisplayMode displayMode = GraphicsEnvironment.isHeadless() ? DisplayMode.NONE : DisplayMode.WINDOW;
+    private volatile BufferedImage offscreenImage = null;
+    private volatile Pair<RenderSnapshot, RenderSnapshot> snapshots = null; // Previous and current snapshots
+    private final SpriteBatch batch = new SpriteBatch(); // Only used by the thread rendering the frames
+    private SoftwareRasterizer rasterizer = null; // Rasterizer of the last software rendered frame
 
     public Scene() {
         super();
@@ -57,6 +87,12 @@ public class Scene extends MainLoop {
     public Resources resources() {
         return resources;
     }
+    /**
+     * @return The animations shared by the sprites.
+     */
+    public AnimationLibrary animations() {
+        return animations;
+    }
     /**
      * @return The physics manager.
      */
@@ -83,6 +119,18 @@ public class Scene extends MainLoop {
     public boolean isAntialiasing() {
         return antialiasing;
     }
+    /**
+     * @return Return <code>true</code> if the sprites are drawn by the software renderer.
+     */
+    public boolean isSoftwareRendering() {
+        return softwareRendering;
+    }
+    /**
+     * @return The number of horizontal bands of the frame composed in parallel by the software renderer.
+     */
+    public int renderBands() {
+        return renderBands;
+    }
     /**
      * @return Return <code>true</code> if the physics rendering is enabled.
      *         The physics rendering must be used for debug purposes to show
@@ -92,6 +140,30 @@ public class Scene extends MainLoop {
         return renderPhysics;
     }
 
+    /**
+     * @return Where the scene is rendered. See {@link DisplayMode}.
+     *         {@link DisplayMode#WINDOW} by default, or {@link DisplayMode#NONE}
+     *         if there is no display (see {@link GraphicsEnvironment#isHeadless()}).
+     */
+    public DisplayMode displayMode() {
+        return displayMode;
+    }
+    /**
+     * @return Return <code>true</code> if the scene is not rendered in a window.
+     *         A headless scene must not create windows or play audio.
+     */
+    public boolean isHeadless() {
+        return displayMode != DisplayMode.WINDOW;
+    }
+    /**
+     * @return The last frame rendered in {@link DisplayMode#OFFSCREEN} mode,
+     *         or <code>null</code> if no frame was rendered offscreen.
+     *         The image is reused to render the next frames.
+     */
+    public BufferedImage offscreenImage() {
+        return offscreenImage;
+    }
+
     /**
      * Set the root of the scene nodes tree.
      * Will remove the existing node tree.
@@ -103,6 +175,7 @@ public class Scene extends MainLoop {
         }
         root = sceneRoot;
         root.init();
+        camera.storePreviousPosition(); // Do not interpolate from the previous scene
     }
     /**
      * @param camera Set the camera used to render the game in the {@link Viewport}
@@ -119,6 +192,44 @@ public class Scene extends MainLoop {
     public void setAntialiasing(boolean antialiasing) {
         this.antialiasing = antialiasing;
     }
+    /**
+     * Set whether the sprites are drawn by the software renderer or by Java2D.
+     * The software renderer draws the sprites directly in the pixels of an int RGB frame,
+     * which is then drawn in the window at once. Its frame time does not depend on the
+     * graphics drivers, but it does not use the graphics card.
+     * The other drawings are still done by Java2D in the same frame.
+     * @param softwareRendering <code>true</code> to enable the software renderer
+     */
+    public void setSoftwareRendering(boolean softwareRendering) {
+        this.softwareRendering = softwareRendering;
+    }
+    /**
+     * Set the number of horizontal bands of the frame composed in parallel by the software renderer.
+     * The draw commands of the nodes are collected first, then each band draws them in its own
+     * rows on the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     * Only used with the software renderer, see {@link #setSoftwareRendering(boolean)}.
+     * @param renderBands The number of bands, 1 to compose the frame on the render thread.
+     * @throws IllegalArgumentException If the number of bands is lower than 1.
+     */
+    public void setRenderBands(int renderBands) {
+        if(renderBands < 1) {
+            throw new IllegalArgumentException("The number of bands must be at least 1");
+        }
+        this.renderBands = renderBands;
+    }
+    /**
+     * Set where the scene is rendered. Must be called before the loop is started.
+     * In {@link DisplayMode#OFFSCREEN} mode, the viewport takes the size of the camera
+     * if it has no size.
+     * @param displayMode The display mode. See {@link DisplayMode}.
+     */
+    public void setDisplayMode(DisplayMode displayMode) {
+        this.displayMode = displayMode;
+        this.offscreenImage = null;
+        if(displayMode == DisplayMode.OFFSCREEN && (viewport.getWidth() == 0 || viewport.getHeight() == 0)) {
+            viewport.setSize((int)camera.size().width, (int)camera.size().height);
+        }
+    }
     /**
      * Set whether the physics rendering is enabled or not.
      * The physics rendering must be used for debug purposes to show
@@ -144,19 +255,89 @@ public class Scene extends MainLoop {
 
     @Override
     protected final void updatePhysics() {
+        if (!isRenderThreaded()) {
+            root.storePreviousTransform();
+            camera.storePreviousPosition();
+        }
         physics.step();
     }
 
+    /**
+     * Capture the visible nodes for the render thread.
+     * The last two snapshots are kept to interpolate the frames between ticks.
+     */
+    @Override
+    protected final void snapshot(long time) {
+        if (displayMode == DisplayMode.NONE) {
+            return;
+        }
+        var last = snapshots;
+        snapshots = new Pair<>(last == null ? null : last.second, new RenderSnapshot(this, time));
+    }
+
     @Override
     protected final void render() {
+        switch (displayMode) {
+            case WINDOW -> renderWindow();
+            case OFFSCREEN -> renderOffscreen();
+        }
+    }
+
+    private void renderWindow() {
         BufferStrategy bufferstrategy = viewport.getBufferStrategy();
 
         if (bufferstrategy == null) {
-            viewport.createBufferStrategy(3);
+            pacer().createBufferStrategy(viewport);
             return;
         }
 
         Graphics2D g = (Graphics2D)bufferstrategy.getDrawGraphics();
+        if (softwareRendering) {
+            // Render in the software frame, then present it with a single draw
+            int width = Math.max(1, viewport.getWidth());
+            int height = Math.max(1, viewport.getHeight());
+            BufferedImage frame = rasterizer != null ? rasterizer.frame : null;
+            if (frame == null || frame.getWidth() != width || frame.getHeight() != height) {
+                frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D frameGraphics = frame.createGraphics();
+            renderFrame(frameGraphics, frame);
+            frameGraphics.dispose();
+            g.drawImage(frame, 0, 0, null);
+        } else {
+            renderFrame(g, null);
+        }
+        g.dispose();
+        bufferstrategy.show();
+    }
+
+    private void renderOffscreen() {
+        int width = Math.max(1, viewport.getWidth());
+        int height = Math.max(1, viewport.getHeight());
+        BufferedImage image = offscreenImage;
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+
+        Graphics2D g = image.createGraphics();
+        renderFrame(g, softwareRendering ? image : null);
+        g.dispose();
+        offscreenImage = image;
+    }
+
+    /**
+     * Render a frame.
+     * @param g The graphics context.
+     * @param frame The int RGB image the graphics context draws in, to draw the sprites with
+     *              the software renderer, or null to draw them with the graphics context.
+     */
+    private void renderFrame(Graphics2D g, BufferedImage frame) {
+        if (frame != null && (rasterizer == null || rasterizer.frame != frame)) {
+            rasterizer = new SoftwareRasterizer(frame);
+        }
+        batch.setRasterizer(frame != null ? rasterizer : null);
+        batch.setBands(renderBands);
+        batch.setView(viewport.getWidth(), viewport.getHeight());
 
         if (antialiasing)
         {
@@ -166,28 +347,52 @@ public class Scene extends MainLoop {
         g.setTransform(new AffineTransform());
         preRender((Graphics2D) g.create());
 
-        camera.transform(g);
-        AffineTransform at = g.getTransform();
+        if (isRenderThreaded() && isStarted()) {
+            renderSnapshot(g);
+        } else {
+            double alpha = renderAlpha();
+            camera.transform(g, alpha);
 
-        root.render((Graphics2D) g.create());
+            root.renderAlpha = alpha;
+            root.renderView = camera.getCullingRect();
+            Graphics2D rootGraphics = (Graphics2D) g.create();
+            root.render(batch, rootGraphics, rootGraphics.getTransform());
+            batch.flush(rootGraphics);
+            rootGraphics.dispose();
 
-        if(renderPhysics)  {
-            physics.render((Graphics2D) g.create());
-        }
+            if(renderPhysics)  {
+                physics.render((Graphics2D) g.create());
+            }
 
-        g.setTransform(new AffineTransform());
-        camera.drawBlackBars((Graphics2D) g.create());
+            g.setTransform(new AffineTransform());
+            camera.drawBlackBars((Graphics2D) g.create());
+        }
 
         postRender((Graphics2D) g.create());
+    }
 
-        g.dispose();
-        bufferstrategy.show();
+    private void renderSnapshot(Graphics2D g) {
+        var snapshots = this.snapshots;
+        if (snapshots == null) {
+            return;
+        }
+        RenderSnapshot current = snapshots.second;
+        double alpha = 1.0 - (current.time - System.nanoTime()) / NANOS_PER_TICK;
+        current.draw((Graphics2D) g.create(), snapshots.first, MathUtils.clamp(alpha, 0.0, 1.0), batch);
     }
 
     protected void preUpdate() { }
     protected void postUpdate() { }
+    /**
+     * Draw before the nodes. Called from the render thread if the rendering runs on its own thread.
+     * @param g The graphics context.
+     */
     protected void preRender(Graphics2D g) {
         g.clearRect(0, 0, viewport().getWidth(), viewport.getHeight());
     }
+    /**
+     * Draw after the nodes. Called from the render thread if the rendering runs on its own thread.
+     * @param g The graphics context.
+     */
     protected void postRender(Graphics2D g) { }
 }
@@ -1,5 +1,7 @@
 package gyromite.scene;
 
+import gyromite.core.Rect2;
+
 /**
  * The root node of the {@link Scene}
  */
@@ -14,6 +16,11 @@ public class SceneRoot extends Node {
         return scene;
     }
 
+    @Override
+    protected boolean localBounds(Rect2 out) {
+        return false; // The scenes draw their background and overlays anywhere
+    }
+
     @Override
     public void remove() {
         scene.setRoot(new SceneRoot(scene));
@@ -0,0 +1,241 @@
+package gyromite.scene;
+
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Draws images directly in the pixels of an int RGB frame, without Java2D.
+ * The images are sampled with the nearest neighbour of each frame pixel center, for
+ * any affine transform so the flips and the anti diagonal rotation of the sprites are
+ * supported, and blended with the source over rule of Java2D.
+ * Only the int RGB and ARGB images are supported, see {@link #draw}.
+ */
+final class SoftwareRasterizer {
+    // MUL8[a << 8 | b] = round(a * b / 255), as the Java2D blending loops
+    private static final byte[] MUL8 = new byte[256 * 256];
+    static {
+        for (int a = 0; a < 256; a++) {
+            for (int b = 0; b < 256; b++) {
+                MUL8[a << 8 | b] = (byte) ((a * b + 127) / 255);
+            }
+        }
+    }
+
+    final BufferedImage frame;
+    private final int[] pixels;
+    private final int width, height, scan, offset;
+    private int[] columns = new int[0]; // Source column of each frame column, see drawAxisAligned
+
+    /**
+     * @param frame The frame, must be an int RGB image.
+     * @throws IllegalArgumentException If the frame is not an int RGB image.
+     */
+    SoftwareRasterizer(BufferedImage frame) {
+        if(frame.getType() != BufferedImage.TYPE_INT_RGB) {
+            throw new IllegalArgumentException("The frame must be an int RGB image");
+        }
+        this.frame = frame;
+        WritableRaster raster = frame.getRaster();
+        this.pixels = ((DataBufferInt) raster.getDataBuffer()).getData();
+        this.width = frame.getWidth();
+        this.height = frame.getHeight();
+        this.scan = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+        this.offset = pixelOffset(raster, scan);
+    }
+
+    /**
+     * @return <code>true</code> if the image can be drawn by the rasterizer.
+     */
+    static boolean supports(BufferedImage image) {
+        int type = image.getType();
+        return (type == BufferedImage.TYPE_INT_ARGB_PRE || type == BufferedImage.TYPE_INT_ARGB ||
+                type == BufferedImage.TYPE_INT_RGB) &&
+                image.getRaster().getSampleModel() instanceof SinglePixelPackedSampleModel;
+    }
+
+    /**
+     * Draw a region of an image, with its top left corner at the origin of the transform.
+     * @param image The image, see {@link #supports(BufferedImage)}.
+     * @param sx The left of the region in the image.
+     * @param sy The top of the region in the image.
+     * @param sw The width of the region.
+     * @param sh The height of the region.
+     * @param at The transform of the region to the frame.
+     * @param alpha The opacity of the image, from 0 to 255.
+     * @param clip The rectangle of the frame to draw in, or null to draw in the whole frame.
+     */
+    void draw(BufferedImage image, int sx, int sy, int sw, int sh, AffineTransform at, int alpha, Rectangle clip) {
+        double m00 = at.getScaleX(), m01 = at.getShearX(), m02 = at.getTranslateX();
+        double m10 = at.getShearY(), m11 = at.getScaleY(), m12 = at.getTranslateY();
+        double det = m00 * m11 - m01 * m10;
+        if(det == 0.0 || alpha <= 0) {
+            return;
+        }
+
+        // Pixels of the frame covered by the transformed region
+        double minX = Math.min(0, m00 * sw) + Math.min(0, m01 * sh) + m02;
+        double maxX = Math.max(0, m00 * sw) + Math.max(0, m01 * sh) + m02;
+        double minY = Math.min(0, m10 * sw) + Math.min(0, m11 * sh) + m12;
+        double maxY = Math.max(0, m10 * sw) + Math.max(0, m11 * sh) + m12;
+        int x0 = Math.max(0, (int) Math.ceil(minX - 0.5));
+        int y0 = Math.max(0, (int) Math.ceil(minY - 0.5));
+        int x1 = Math.min(width, (int) Math.ceil(maxX - 0.5));
+        int y1 = Math.min(height, (int) Math.ceil(maxY - 0.5));
+        if(clip != null) {
+            x0 = Math.max(x0, clip.x);
+            y0 = Math.max(y0, clip.y);
+            x1 = Math.min(x1, clip.x + clip.width);
+            y1 = Math.min(y1, clip.y + clip.height);
+        }
+        if(x0 >= x1 || y0 >= y1) {
+            return;
+        }
+
+        // Inverse transform, from the frame to the region
+        double i00 = m11 / det, i01 = -m01 / det;
+        double i10 = -m10 / det, i11 = m00 / det;
+        double i02 = -(i00 * m02 + i01 * m12);
+        double i12 = -(i10 * m02 + i11 * m12);
+
+        WritableRaster raster = image.getRaster();
+        int[] src = ((DataBufferInt) raster.getDataBuffer()).getData();
+        int srcScan = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+        int srcOffset = pixelOffset(raster, srcScan) + sy * srcScan + sx;
+        int type = image.getType();
+
+        if(m01 == 0.0 && m10 == 0.0) {
+            drawAxisAligned(src, srcOffset, srcScan, sw, sh, i00, i02, i11, i12, x0, y0, x1, y1, alpha, type);
+            return;
+        }
+
+        for (int y = y0; y < y1; y++) {
+            double py = y + 0.5;
+            double u = i00 * (x0 + 0.5) + i01 * py + i02;
+            double v = i10 * (x0 + 0.5) + i11 * py + i12;
+            int row = offset + y * scan;
+            for (int x = x0; x < x1; x++, u += i00, v += i10) {
+                if(u < 0.0 || v < 0.0 || u >= sw || v >= sh) {
+                    continue;
+                }
+                blend(row + x, src[srcOffset + (int) v * srcScan + (int) u], alpha, type);
+            }
+        }
+    }
+
+    /**
+     * Draw an image with a transform without rotation, the translations, scales and flips.
+     * The source column of each frame column is computed once for all the rows.
+     */
+    private void drawAxisAligned(int[] src, int srcOffset, int srcScan, int sw, int sh,
+                                 double i00, double i02, double i11, double i12,
+                                 int x0, int y0, int x1, int y1, int alpha, int type) {
+        if(columns.length < x1 - x0) {
+            columns = new int[width];
+        }
+        int first = -1, last = -1; // Range of the frame columns inside the image
+        for (int x = x0; x < x1; x++) {
+            double u = i00 * (x + 0.5) + i02;
+            if(u >= 0.0 && u < sw) {
+                columns[x - x0] = (int) u;
+                if(first < 0) {
+                    first = x;
+                }
+                last = x;
+            }
+        }
+        if(first < 0) {
+            return;
+        }
+        for (int y = y0; y < y1; y++) {
+            double v = i11 * (y + 0.5) + i12;
+            if(v < 0.0 || v >= sh) {
+                continue;
+            }
+            int srcRow = srcOffset + (int) v * srcScan;
+            int row = offset + y * scan;
+            if(type == BufferedImage.TYPE_INT_RGB && alpha == 255) {
+                for (int x = first; x <= last; x++) {
+                    pixels[row + x] = src[srcRow + columns[x - x0]] & 0xffffff;
+                }
+                continue;
+            }
+            if(i00 == 1.0) {
+                // Unscaled, the source pixels of the row are contiguous
+                int srcIdx = srcRow + columns[first - x0] - first;
+                for (int x = first; x <= last; x++) {
+                    int s = src[srcIdx + x];
+                    int a = s >>> 24;
+                    if(a == 255 && alpha == 255) {
+                        pixels[row + x] = s & 0xffffff;
+                    } else if(a != 0) {
+                        blend(row + x, s, alpha, type);
+                    }
+                }
+                continue;
+            }
+            for (int x = first; x <= last; x++) {
+                int s = src[srcRow + columns[x - x0]];
+                int a = s >>> 24;
+                if(a == 0) {
+                    continue;
+                }
+                if(a == 255 && alpha == 255) {
+                    pixels[row + x] = s & 0xffffff;
+                } else {
+                    blend(row + x, s, alpha, type);
+                }
+            }
+        }
+    }
+
+    /**
+     * Blend a source pixel over a frame pixel.
+     * @param idx The index of the frame pixel.
+     * @param s The source pixel.
+     * @param alpha The opacity of the source, from 0 to 255.
+     * @param type The type of the source image.
+     */
+    private void blend(int idx, int s, int alpha, int type) {
+        if(type == BufferedImage.TYPE_INT_RGB) {
+            s |= 0xff000000;
+        }
+        int a = s >>> 24;
+        if(a == 0) {
+            return;
+        }
+        if(a == 255 && alpha == 255) {
+            pixels[idx] = s & 0xffffff;
+            return;
+        }
+        int r = (s >> 16) & 0xff, g = (s >> 8) & 0xff, b = s & 0xff;
+        int srcA = mul8(alpha, a);
+        if(type == BufferedImage.TYPE_INT_ARGB_PRE) {
+            r = mul8(alpha, r);
+            g = mul8(alpha, g);
+            b = mul8(alpha, b);
+        } else {
+            r = mul8(srcA, r);
+            g = mul8(srcA, g);
+            b = mul8(srcA, b);
+        }
+        int dstF = 255 - srcA;
+        int d = pixels[idx];
+        r += mul8(dstF, (d >> 16) & 0xff);
+        g += mul8(dstF, (d >> 8) & 0xff);
+        b += mul8(dstF, d & 0xff);
+        pixels[idx] = r << 16 | g << 8 | b;
+    }
+
+    private static int mul8(int a, int b) {
+        return MUL8[a << 8 | b] & 0xff;
+    }
+
+    private static int pixelOffset(WritableRaster raster, int scan) {
+        return raster.getDataBuffer().getOffset()
+                - raster.getSampleModelTranslateY() * scan - raster.getSampleModelTranslateX();
+    }
+}
@@ -1,9 +1,8 @@
 package gyromite.scene;
 
 import gyromite.core.Rect2;
-import gyromite.core.Size2;
+import gyromite.core.resources.ResourceHandle;
 
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 
 /**
@@ -14,12 +13,18 @@ import java.awt.image.BufferedImage;
 public class Sprite extends SpriteBase {
     private BufferedImage image;
     private String imageId = null;
+    private ResourceHandle<BufferedImage> imageHandle = null; // Keeps the image of the resources in the cache
 
     private Rect2 region = new Rect2();
     private int hframes = 1;
     private int vframes = 1;
     private int frame = 0;
 
+    // The frame of the image displayed by the last snapshot, and what it was resolved from
+    private AtlasFrame atlasFrame = null;
+    private final Rect2 frameRegion = new Rect2();
+    private int frameHframes, frameVframes, frameIndex;
+
     public Sprite() {
         super();
         image = null;
@@ -65,14 +70,19 @@ public class Sprite extends SpriteBase {
      * @param image The image to display
      */
     public void setImage(BufferedImage image) {
+        releaseImage();
         this.image = image;
     }
     /**
-     * Set the image to display from a resource
+     * Set the image to display from a resource.
+     * The image is kept in the resources cache until the sprite is destroyed or displays another image.
      * @param id The id of the image in the resources
      */
     public void setImage(String id) {
-        setImage(scene().resources().getImage(id));
+        var handle = scene().resources().acquireImage(id);
+        releaseImage();
+        imageHandle = handle;
+        image = handle != null ? handle.get() : null;
     }
     /**
      * Set the region of the atlas image to display.
@@ -106,42 +116,53 @@ public class Sprite extends SpriteBase {
     @Override
     protected void init() {
         if(imageId != null) {
-            this.image = scene().resources().getImage(imageId);
+            setImage(imageId);
         }
     }
 
     @Override
-    protected void render(Graphics2D g) {
-        super.render(g);
+    protected void destroy() {
+        super.destroy();
+        releaseImage();
+    }
 
+    @Override
+    protected Drawable snapshot() {
         if(image == null) {
-            return;
+            return null;
         }
+        return snapshot(atlasFrame());
+    }
 
-        BufferedImage subImage;
+    /**
+     * @return The frame of the image to display, resolved again only when the image, the region or the frame change.
+     */
+    private AtlasFrame atlasFrame() {
+        if(atlasFrame != null && atlasFrame.image == image && frameHframes == hframes && frameVframes == vframes &&
+                frameIndex == frame && frameRegion.min.x == region.min.x && frameRegion.min.y == region.min.y &&
+                frameRegion.max.x == region.max.x && frameRegion.max.y == region.max.y) {
+            return atlasFrame;
+        }
         if(region.isEmpty()) {
             if(vframes > 1 || hframes > 1 && frame < vframes * hframes) {
-                int frameX = frame % hframes;
-                int frameY = frame / hframes;
-                int x = frameX * image.getWidth() / hframes;
-                int y = frameY * image.getHeight() / vframes;
-                int w = image.getWidth() / hframes;
-                int h = image.getHeight() / vframes;
-                subImage = image.getSubimage(x, y, w, h);
+                atlasFrame = AtlasFrame.of(image, hframes, vframes, frame);
             } else {
-                subImage = image;
+                atlasFrame = AtlasFrame.of(image);
             }
         } else {
-            Size2 regionSize = region.size();
-            subImage = image.getSubimage(
-                    (int)region.min.x, (int)region.min.y,
-                    (int)regionSize.width, (int)regionSize.height);
+            atlasFrame = AtlasFrame.of(image, region);
         }
+        frameHframes = hframes;
+        frameVframes = vframes;
+        frameIndex = frame;
+        frameRegion.set(region);
+        return atlasFrame;
+    }
 
-        // Smooth render of the image
-        g.translate(-size().width / 2.0, -size().height / 2.0);
-        g.scale(size().width / (double)subImage.getWidth(), size().height / (double)subImage.getHeight());
-
-        g.drawImage(subImage, 0, 0, null);
+    private void releaseImage() {
+        if(imageHandle != null) {
+            imageHandle.release();
+            imageHandle = null;
+        }
     }
 }
@@ -0,0 +1,93 @@
+package gyromite.scene;
+
+import gyromite.core.resources.Resources;
+
+import java.util.HashMap;
+
+/**
+ * The animations of an {@link AnimatedSprite}, by id.
+ * The animations defined in the {@link AnimationLibrary} are immutable and shared
+ * by all the sprites using them, the sprites only keep their playback state.
+ */
+public class SpriteAnimations {
+    private final AnimatedSprite sprite;
+    private final Resources resources;
+    private final HashMap<String, SpriteFrames> animations = new HashMap<>();
+    private boolean frozen = false;
+    private int users = 0; // The sprites and the library using the animations
+
+    SpriteAnimations(AnimatedSprite sprite) {
+        this.sprite = sprite;
+        this.resources = null;
+    }
+
+    SpriteAnimations(Resources resources) {
+        this.sprite = null;
+        this.resources = resources;
+    }
+
+    /**
+     * @param id The id of the animation.
+     * @return <code>true</code> If the animation with the given id exists.
+     */
+    public boolean has(String id) {
+        return animations.containsKey(id);
+    }
+    /**
+     * @param id The id of the animation.
+     * @return The animation with the given id or null if the animation does not exist.
+     */
+    public SpriteFrames get(String id) {
+        return animations.get(id);
+    }
+    /**
+     * @return Return <code>true</code> if the animations can't be modified anymore.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Add an animation with the given id.
+     * @param id The id of the animation.
+     * @return The animation frames resources. See {@link SpriteFrames}.
+     * @throws IllegalStateException If the animations are frozen.
+     */
+    public SpriteFrames addAnimation(String id) {
+        if(frozen) {
+            throw new IllegalStateException("The animations are frozen");
+        }
+        SpriteFrames a = sprite != null ? new SpriteFrames(id, sprite) : new SpriteFrames(id, resources);
+        animations.put(id, a);
+        return a;
+    }
+
+    /**
+     * Add a user of the animations, a sprite or the library.
+     */
+    void retain() {
+        users++;
+    }
+
+    /**
+     * Remove a user of the animations. The images of the frames are released
+     * from the resources cache when the last user is removed.
+     */
+    void release() {
+        if(--users == 0) {
+            for(var animation : animations.values()) {
+                animation.release();
+            }
+        }
+    }
+
+    /**
+     * Prevent the animations and their frames from being modified, so that they can be shared.
+     */
+    void freeze() {
+        frozen = true;
+        for(var animation : animations.values()) {
+            animation.freeze();
+        }
+    }
+}
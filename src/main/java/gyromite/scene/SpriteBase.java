@@ -1,10 +1,13 @@
 package gyromite.scene;
 
 import gyromite.core.MathUtils;
+import gyromite.core.Rect2;
 import gyromite.core.Size2;
 import gyromite.core.Vector2;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 
 /**
  * Base class of sprite nodes
@@ -16,6 +19,7 @@ public class SpriteBase extends Node {
     private boolean flipV = false;
     private boolean flipD = false; // Anti diagonally flipping (for tile rotation)
     private double opacity = 1.0;
+    private FrameDrawable lastDrawable = null; // Drawable of the last snapshot, reused while nothing changes
 
     public SpriteBase() {
         super();
@@ -98,21 +102,132 @@ public class SpriteBase extends Node {
     }
 
     @Override
-    protected void render(Graphics2D g) {
-        super.render(g);
-
+    protected boolean localBounds(Rect2 out) {
         if(size.width == 0 || size.height == 0 || opacity <= 0.0) {
-            return;
+            out.set(0, 0, 0, 0);
+            return true;
         }
+        // The anti diagonal flip swaps the width and the height
+        double hw = (flipD ? Math.max(size.width, size.height) : size.width) / 2.0;
+        double hh = (flipD ? Math.max(size.width, size.height) : size.height) / 2.0;
+        out.set(offset.x - hw, offset.y - hh, offset.x + hw, offset.y + hh);
+        return true;
+    }
 
-        if(opacity < 1.0) {
-            AlphaComposite ac = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float)opacity);
-            g.setComposite(ac);
+    /**
+     * Draw the sprite without its children, in the local space of the sprite.
+     * Used to pre-render sprites into cached images.
+     * @param g The graphics context.
+     */
+    public void draw(Graphics2D g) {
+        Drawable drawable = snapshot();
+        if(drawable != null) {
+            drawable.draw(g);
         }
+    }
+
+    /**
+     * Capture the drawing of an image with the size, offset, flips and opacity of the sprite.
+     * The image is centered on the sprite position and stretched to the sprite size.
+     * @param image The image to draw.
+     * @return What the sprite draws, or null if nothing is visible.
+     */
+    protected Drawable snapshot(BufferedImage image) {
+        return image != null ? snapshot(AtlasFrame.of(image)) : null;
+    }
+
+    /**
+     * Capture the drawing of a frame of an atlas image with the size, offset, flips and opacity of the sprite.
+     * The frame is centered on the sprite position and stretched to the sprite size.
+     * The drawable of the last snapshot is returned again when nothing changed.
+     * @param frame The frame to draw.
+     * @return What the sprite draws, or null if nothing is visible.
+     */
+    protected Drawable snapshot(AtlasFrame frame) {
+        if(frame == null || size.width == 0 || size.height == 0 || opacity <= 0.0) {
+            return null;
+        }
+        FrameDrawable last = lastDrawable;
+        if(last != null && last.frame == frame && last.width == size.width && last.height == size.height &&
+                last.offsetX == offset.x && last.offsetY == offset.y && last.flipH == flipH &&
+                last.flipV == flipV && last.flipD == flipD && last.opacity == opacity) {
+            return last;
+        }
+        lastDrawable = new FrameDrawable(frame, size.width, size.height, offset.x, offset.y,
+                flipH, flipV, flipD, opacity);
+        return lastDrawable;
+    }
 
-        g.translate(offset.x, offset.y);
-        g.scale(flipH ? -1 : 1, flipV ? -1 : 1);
-        g.rotate(flipD ? -MathUtils.PI / 2.0 : 0.0);
-        g.scale(flipD ? -1 : 1, 1);
+    /**
+     * Set the transform drawing a frame, with its top left corner at the origin, centered on the sprite position
+     * and stretched to the sprite size, with an offset and flips.
+     * @param out The transform to set.
+     * @param frameWidth The width of the frame in the image.
+     * @param frameHeight The height of the frame in the image.
+     * @param width The width of the sprite.
+     * @param height The height of the sprite.
+     * @param offsetX The x offset of the frame.
+     * @param offsetY The y offset of the frame.
+     * @param flipH Whether the frame is flipped horizontally.
+     * @param flipV Whether the frame is flipped vertically.
+     * @param flipD Whether the frame is flipped anti diagonally.
+     * @return The transform.
+     */
+    public static AffineTransform frameTransform(AffineTransform out, int frameWidth, int frameHeight,
+                                                 double width, double height, double offsetX, double offsetY,
+                                                 boolean flipH, boolean flipV, boolean flipD) {
+        out.setToTranslation(offsetX, offsetY);
+        out.scale(flipH ? -1 : 1, flipV ? -1 : 1);
+        out.rotate(flipD ? -MathUtils.PI / 2.0 : 0.0);
+        out.scale(flipD ? -1 : 1, 1);
+
+        // Smooth render of the image
+        out.translate(-width / 2.0, -height / 2.0);
+        out.scale(width / (double)frameWidth, height / (double)frameHeight);
+        return out;
+    }
+
+    /**
+     * The drawing of a frame captured by {@link #snapshot(AtlasFrame)}. Immutable, so it can be
+     * drawn again by the render thread while the sprite is updated.
+     */
+    private static final class FrameDrawable implements BatchDrawable {
+        final AtlasFrame frame;
+        final double width, height, offsetX, offsetY;
+        final boolean flipH, flipV, flipD;
+        final double opacity;
+        private final AlphaComposite composite;
+        private final AffineTransform transform = new AffineTransform();
+
+        FrameDrawable(AtlasFrame frame, double width, double height, double offsetX, double offsetY,
+                      boolean flipH, boolean flipV, boolean flipD, double opacity) {
+            this.frame = frame;
+            this.width = width;
+            this.height = height;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.flipH = flipH;
+            this.flipV = flipV;
+            this.flipD = flipD;
+            this.opacity = opacity;
+            this.composite = opacity < 1.0 ?
+                    AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float)opacity) : null;
+
+            frameTransform(transform, frame.width, frame.height, width, height, offsetX, offsetY, flipH, flipV, flipD);
+        }
+
+        @Override
+        public void draw(Graphics2D g) {
+            if(composite != null) {
+                g.setComposite(composite);
+            }
+            g.transform(transform);
+            frame.draw(g);
+        }
+
+        @Override
+        public void submit(SpriteBatch batch, AffineTransform transform) {
+            batch.add(frame.image, frame.x, frame.y, frame.width, frame.height, transform, this.transform, composite);
+        }
     }
 }
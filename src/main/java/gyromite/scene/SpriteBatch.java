@@ -0,0 +1,242 @@
+package gyromite.scene;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A buffer of image draw commands, drawn together in a single graphics context.
+ * The {@link BatchDrawable}s add their images instead of drawing them, so that the
+ * scene does not create a graphics context for each of them. The commands are drawn
+ * in the order they were added, the composite is only changed between commands using
+ * different opacities. The buffers are reused from one frame to the next.
+ * With a {@link SoftwareRasterizer}, the commands are drawn in the pixels of the frame
+ * when possible instead of through the graphics context, in several horizontal bands
+ * composed in parallel if the batch has more than one band.
+ */
+public final class SpriteBatch {
+    private int count = 0;
+    private BufferedImage[] images = new BufferedImage[64];
+    private int[] regions = new int[64 * 4]; // x, y, width and height of each image region
+    private AffineTransform[] transforms = new AffineTransform[64];
+    private AlphaComposite[] composites = new AlphaComposite[64];
+    private int[] alphas = new int[64]; // Opacity of each rasterized command, -1 if drawn with the graphics context
+    private SoftwareRasterizer rasterizer = null;
+    private Band[] bands = new Band[1];
+    private int viewWidth = Integer.MAX_VALUE, viewHeight = Integer.MAX_VALUE; // Size of the device space drawn
+
+    /**
+     * @return The number of commands waiting to be drawn.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Set the rasterizer drawing the commands, null to draw them with the graphics context.
+     * The graphics context given to {@link #flush(Graphics2D)} must draw in the frame of the rasterizer.
+     */
+    void setRasterizer(SoftwareRasterizer rasterizer) {
+        this.rasterizer = rasterizer;
+    }
+
+    /**
+     * Set the number of horizontal bands of the frame composed in parallel by the rasterizer.
+     * @param count The number of bands, 1 to compose the frame on the calling thread.
+     * @throws IllegalArgumentException If the number of bands is lower than 1.
+     */
+    void setBands(int count) {
+        if(count < 1) {
+            throw new IllegalArgumentException("The number of bands must be at least 1");
+        }
+        if(count != bands.length) {
+            bands = new Band[count];
+        }
+    }
+
+    /**
+     * Set the size of the device space where the commands are visible.
+     * @param width The width in pixels.
+     * @param height The height in pixels.
+     */
+    void setView(int width, int height) {
+        this.viewWidth = width;
+        this.viewHeight = height;
+    }
+
+    /**
+     * Check whether a rectangle is visible in the device space, to skip adding draws outside of the frame.
+     * @param transform The transform of the rectangle to the device space.
+     * @param x The left of the rectangle.
+     * @param y The top of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @return <code>false</code> if the transformed rectangle is outside of the device space.
+     */
+    public boolean isVisible(AffineTransform transform, double x, double y, double width, double height) {
+        double m00 = transform.getScaleX(), m01 = transform.getShearX(), m02 = transform.getTranslateX();
+        double m10 = transform.getShearY(), m11 = transform.getScaleY(), m12 = transform.getTranslateY();
+        double x1 = x + width, y1 = y + height;
+        // The bounds of the transformed rectangle are given by the signs of the matrix terms
+        double minX = Math.min(m00 * x, m00 * x1) + Math.min(m01 * y, m01 * y1) + m02;
+        double maxX = Math.max(m00 * x, m00 * x1) + Math.max(m01 * y, m01 * y1) + m02;
+        double minY = Math.min(m10 * x, m10 * x1) + Math.min(m11 * y, m11 * y1) + m12;
+        double maxY = Math.max(m10 * x, m10 * x1) + Math.max(m11 * y, m11 * y1) + m12;
+        return minX < viewWidth && maxX > 0 && minY < viewHeight && maxY > 0;
+    }
+
+    /**
+     * Add the draw of a region of an image, with its top left corner at the origin.
+     * @param image The image.
+     * @param x The left of the region in the image.
+     * @param y The top of the region in the image.
+     * @param width The width of the region.
+     * @param height The height of the region.
+     * @param transform The transform of the owner to the device space.
+     * @param local The transform of the image in the space of the owner, or null.
+     * @param composite The composite of the draw, or null for the composite of the graphics context.
+     */
+    public void add(BufferedImage image, int x, int y, int width, int height,
+                    AffineTransform transform, AffineTransform local, AlphaComposite composite) {
+        if(count == images.length) {
+            int capacity = count * 2;
+            images = Arrays.copyOf(images, capacity);
+            regions = Arrays.copyOf(regions, capacity * 4);
+            transforms = Arrays.copyOf(transforms, capacity);
+            composites = Arrays.copyOf(composites, capacity);
+            alphas = Arrays.copyOf(alphas, capacity);
+        }
+        AffineTransform at = transforms[count];
+        if(at == null) {
+            at = transforms[count] = new AffineTransform();
+        }
+        at.setTransform(transform);
+        if(local != null) {
+            at.concatenate(local);
+        }
+        images[count] = image;
+        regions[count * 4] = x;
+        regions[count * 4 + 1] = y;
+        regions[count * 4 + 2] = width;
+        regions[count * 4 + 3] = height;
+        composites[count] = composite;
+        count++;
+    }
+
+    /**
+     * Draw the commands and clear the batch.
+     * The transform and the composite of the graphics context are restored after the draw.
+     * @param g The graphics context.
+     */
+    public void flush(Graphics2D g) {
+        if(count == 0) {
+            return;
+        }
+        AffineTransform baseTransform = g.getTransform();
+        Composite baseComposite = g.getComposite();
+        Composite current = baseComposite;
+        Rectangle clip = rasterizer != null ? g.getClipBounds() : null;
+        for (int i = 0; i < count; i++) {
+            Composite composite = composites[i] != null ? composites[i] : baseComposite;
+            alphas[i] = -1;
+            if(rasterizer != null && isSourceOver(composite) && SoftwareRasterizer.supports(images[i])) {
+                alphas[i] = (int) (((AlphaComposite) composite).getAlpha() * 255 + 0.5);
+            }
+        }
+        int i = 0;
+        while (i < count) {
+            if(alphas[i] >= 0) {
+                // Rasterize the following commands together, they are independent of the graphics context
+                int end = i + 1;
+                while (end < count && alphas[end] >= 0) {
+                    end++;
+                }
+                rasterize(i, end, clip);
+                i = end;
+                continue;
+            }
+            Composite composite = composites[i] != null ? composites[i] : baseComposite;
+            if(composite != current) {
+                g.setComposite(composite);
+                current = composite;
+            }
+            int x = regions[i * 4], y = regions[i * 4 + 1];
+            int width = regions[i * 4 + 2], height = regions[i * 4 + 3];
+            g.setTransform(transforms[i]);
+            g.drawImage(images[i], 0, 0, width, height, x, y, x + width, y + height, null);
+            i++;
+        }
+        Arrays.fill(images, 0, count, null);
+        Arrays.fill(composites, 0, count, null);
+        if(current != baseComposite) {
+            g.setComposite(baseComposite);
+        }
+        g.setTransform(baseTransform);
+        count = 0;
+    }
+
+    /**
+     * Rasterize the commands from start to end, in the bands of the clip.
+     * Each band draws all the commands in its rows, so the bands are independent.
+     */
+    private void rasterize(int start, int end, Rectangle clip) {
+        if(clip == null) {
+            clip = new Rectangle(0, 0, rasterizer.frame.getWidth(), rasterizer.frame.getHeight());
+        }
+        int count = Math.min(bands.length, Math.max(1, clip.height));
+        if(count == 1) {
+            draw(rasterizer, start, end, clip);
+            return;
+        }
+        for (int b = 0; b < count; b++) {
+            Band band = bands[b];
+            if(band == null || band.rasterizer.frame != rasterizer.frame) {
+                band = bands[b] = new Band(new SoftwareRasterizer(rasterizer.frame));
+            }
+            int y0 = clip.y + clip.height * b / count;
+            int y1 = clip.y + clip.height * (b + 1) / count;
+            band.clip.setBounds(clip.x, y0, clip.width, y1 - y0);
+            band.start = start;
+            band.end = end;
+            band.reinitialize();
+        }
+        ForkJoinTask.invokeAll(count == bands.length ? bands : Arrays.copyOf(bands, count));
+    }
+
+    private void draw(SoftwareRasterizer rasterizer, int start, int end, Rectangle clip) {
+        for (int i = start; i < end; i++) {
+            rasterizer.draw(images[i], regions[i * 4], regions[i * 4 + 1], regions[i * 4 + 2], regions[i * 4 + 3],
+                    transforms[i], alphas[i], clip);
+        }
+    }
+
+    /**
+     * A horizontal band of the frame, with its own rasterizer for its scratch buffers.
+     */
+    private final class Band extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final SoftwareRasterizer rasterizer;
+        final Rectangle clip = new Rectangle();
+        int start, end;
+
+        Band(SoftwareRasterizer rasterizer) {
+            this.rasterizer = rasterizer;
+        }
+
+        @Override
+        protected void compute() {
+            draw(rasterizer, start, end, clip);
+        }
+    }
+
+    private static boolean isSourceOver(Composite composite) {
+        return composite instanceof AlphaComposite && ((AlphaComposite) composite).getRule() == AlphaComposite.SRC_OVER;
+    }
+}
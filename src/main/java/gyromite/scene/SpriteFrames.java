@@ -1,24 +1,40 @@
 package gyromite.scene;
 
 import gyromite.core.Rect2;
-import gyromite.core.Size2;
+import gyromite.core.resources.ResourceHandle;
+import gyromite.core.resources.Resources;
 
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
 /**
  * The frames of an animation of an {@link AnimatedSprite}
+ * The frames are regions of atlas images, see {@link AtlasFrame}.
  */
 public class SpriteFrames {
     private final String id;
     private final AnimatedSprite sprite;
-    private final ArrayList<BufferedImage> frames = new ArrayList<>();
+    private final Resources resources;
+    private final ArrayList<AtlasFrame> frames = new ArrayList<>();
+    private final ArrayList<ResourceHandle<BufferedImage>> images = new ArrayList<>(); // Keep the images in the cache
     private boolean loop = false;
     private double speed = 1.0;
+    private boolean frozen = false;
 
     public SpriteFrames(String id, AnimatedSprite sprite) {
         this.id = id;
         this.sprite = sprite;
+        this.resources = null;
+    }
+
+    /**
+     * Frames of an animation shared in the {@link AnimationLibrary}.
+     * @param resources The resources of the images.
+     */
+    SpriteFrames(String id, Resources resources) {
+        this.id = id;
+        this.sprite = null;
+        this.resources = resources;
     }
 
     /**
@@ -37,7 +53,7 @@ public class SpriteFrames {
      * @param idx The position of the frame in the animation
      * @return The frame at the position <code>idx</code>
      */
-    public BufferedImage getFrame(int idx) {
+    public AtlasFrame getFrame(int idx) {
         return frames.get(idx);
     }
     /**
@@ -56,32 +72,35 @@ public class SpriteFrames {
     /**
      * Add a frame to the animation
      */
-    public SpriteFrames addFrame(BufferedImage image) {
-        frames.add(image);
+    public SpriteFrames addFrame(AtlasFrame frame) {
+        checkNotFrozen();
+        frames.add(frame);
         return this;
     }
-    public SpriteFrames addFrame(BufferedImage image, int pos) {
-        frames.add(pos, image);
+    public SpriteFrames addFrame(AtlasFrame frame, int pos) {
+        checkNotFrozen();
+        frames.add(pos, frame);
         return this;
     }
+    public SpriteFrames addFrame(BufferedImage image) {
+        return addFrame(AtlasFrame.of(image));
+    }
+    public SpriteFrames addFrame(BufferedImage image, int pos) {
+        return addFrame(AtlasFrame.of(image), pos);
+    }
     public SpriteFrames addFrame(BufferedImage image, Rect2 region) {
         return addFrame(image, region, frames.size());
     }
     public SpriteFrames addFrame(BufferedImage image, Rect2 region, int pos) {
-        Size2 s = region.size();
-        return addFrame(image.getSubimage((int)region.min.x, (int)region.min.y, (int)s.width, (int)s.height), pos);
+        return addFrame(AtlasFrame.of(image, region), pos);
     }
     public SpriteFrames addFrames(BufferedImage image, int hframes, int vframes, int frameBegin, int frameEnd) {
         return addFrames(image, hframes, vframes, frameBegin, frameEnd, frames.size());
     }
     public SpriteFrames addFrames(BufferedImage image, int hframes, int vframes, int frameBegin, int frameEnd, int pos) {
+        checkNotFrozen();
         for(int frame = frameBegin; frame <= frameEnd; frame++) {
-            int frameX = frame % hframes;
-            int frameY = frame / hframes;
-            int x1 = frameX * image.getWidth() / hframes;
-            int y1 = frameY * image.getHeight() / vframes;
-            var subImg = image.getSubimage(x1, y1, image.getWidth() / hframes, image.getHeight() / vframes);
-            frames.add(pos++, subImg);
+            frames.add(pos++, AtlasFrame.of(image, hframes, vframes, frame));
         }
         return this;
     }
@@ -108,6 +127,7 @@ public class SpriteFrames {
      * Remove a frame from the animation
      */
     public SpriteFrames removeFrame(int idx) {
+        checkNotFrozen();
         frames.remove(idx);
         return this;
     }
@@ -119,6 +139,7 @@ public class SpriteFrames {
      * @param loop <code>true</code> if the animation loop
      */
     public SpriteFrames loop(boolean loop) {
+        checkNotFrozen();
         this.loop = loop;
         return this;
     }
@@ -127,15 +148,40 @@ public class SpriteFrames {
      * @param speed The speed of the animation
      */
     public SpriteFrames setSpeed(double speed) {
+        checkNotFrozen();
         this.speed = speed;
         return this;
     }
 
+    /**
+     * Prevent the animation from being modified, see {@link SpriteAnimations}.
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+    private void checkNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException(String.format("The animation '%s' is frozen", id));
+        }
+    }
+
+    /**
+     * Release the images of the resources used by the frames, see {@link SpriteAnimations#release()}.
+     */
+    void release() {
+        for(var image : images) {
+            image.release();
+        }
+        images.clear();
+    }
+
     private BufferedImage getImage(String id) {
-        BufferedImage image = sprite.scene().resources().getImage(id);
-        if(image == null) {
+        var handle = (resources != null ? resources : sprite.scene().resources()).acquireImage(id);
+        if(handle == null) {
             throw new RuntimeException(String.format("Resource image '%s' does not exists", id));
         }
-        return image;
+        images.add(handle);
+        return handle.get();
     }
 }
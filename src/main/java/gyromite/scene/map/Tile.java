@@ -13,6 +13,8 @@ public class Tile extends Node {
     public final SpriteBase sprite;
     public final int layerId, id, gid, mapIndex;
     public final String type;
+    TileLayer layer = null; // The layer drawing the tile if static
+    TileGrid grid = null; // The cells of the tile layer
 
     public Tile(SpriteBase sprite, int layerId, int id, int gid, int mapIndex, String type) {
         super();
@@ -25,18 +27,26 @@ public class Tile extends Node {
     }
 
     public int getX() {
-        if(!(owner() instanceof TiledMap)) {
-            return 0;
-        }
-        return mapIndex % ((TiledMap)owner()).tilemap().layers.get(layerId).width;
+        return grid != null ? mapIndex % grid.width : 0;
     }
     public int getY() {
-        if(!(owner() instanceof TiledMap)) {
-            return 0;
-        }
-        return mapIndex / ((TiledMap)owner()).tilemap().layers.get(layerId).width;
+        return grid != null ? mapIndex / grid.width : 0;
     }
 
+    @Override
+    protected void destroy() {
+        super.destroy();
+        if(grid != null && grid.tiles[mapIndex] == this) {
+            grid.tiles[mapIndex] = null;
+            grid.gids[mapIndex] = 0;
+            if(owner() instanceof TiledMap) {
+                ((TiledMap) owner()).removeCollisionBox(grid, mapIndex);
+            }
+        }
+        if(layer != null) {
+            layer.remove(this);
+        }
+    }
 
     public void addCollisionShape(Shape shape, Vector2 pos, boolean transparent) {
         var collision = addChild(new Node());
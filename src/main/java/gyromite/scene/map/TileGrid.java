@@ -0,0 +1,38 @@
+package gyromite.scene.map;
+
+import gyromite.core.Rect2;
+import gyromite.core.resources.tilemap.Layer;
+
+import java.util.Arrays;
+
+/**
+ * The cells of a tile layer.
+ * The global tile ids are stored in a dense array indexed by the cell.
+ * The {@link Tile} nodes are only created for the tiles with a body or an
+ * animation, the other tiles are created when requested.
+ */
+class TileGrid {
+    final Layer layer;
+    final int width, height;
+    final int[] gids; // Global tile ids with the flip flags, 0 if the cell is empty
+    final Tile[] tiles; // The created tiles, null if not created yet
+    TileLayer tileLayer = null;
+    Rect2[] boxes = null; // The solid boxes merged in runs, in the coordinates of their cell, null if not merged
+    Tile[] runs = null; // The node owning the body of the run of each merged box
+
+    TileGrid(Layer layer) {
+        this.layer = layer;
+        this.width = layer.width;
+        this.height = layer.height;
+        this.gids = Arrays.copyOf(layer.data, width * height);
+        this.tiles = new Tile[width * height];
+    }
+
+    boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    int index(int x, int y) {
+        return y * width + x;
+    }
+}
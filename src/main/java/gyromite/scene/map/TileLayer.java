@@ -0,0 +1,222 @@
+package gyromite.scene.map;
+
+import gyromite.core.Rect2;
+import gyromite.core.Vector2;
+import gyromite.core.resources.ImageUtils;
+import gyromite.scene.BatchDrawable;
+import gyromite.scene.Drawable;
+import gyromite.scene.Node;
+import gyromite.scene.Sprite;
+import gyromite.scene.SpriteBatch;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * The static tiles of a tile layer, pre-rendered into chunk images.
+ * The tiles are drawn from the ids of the {@link TileGrid}, or from their
+ * hidden {@link Tile} node when it exists. The layer draws one image per chunk,
+ * a chunk is rendered again only when one of its tiles changes.
+ */
+class TileLayer extends Node {
+    static final int CHUNK_SIZE = 16; // Chunk width and height in tiles
+    private static final AffineTransform IDENTITY = new AffineTransform();
+
+    private final TiledMap map;
+    private final TileGrid grid;
+    private final int tileWidth, tileHeight;
+    private final Vector2 origin; // Position of the top left corner of the layer in the map
+    private final int chunksX, chunksY;
+    private final BufferedImage[] chunks;
+    private final AffineTransform[] chunkTransforms; // Position of each chunk in the layer
+    private final boolean[] dirty;
+    private ChunksDrawable drawable = null; // The snapshot of the current chunks, null when a chunk changed
+
+    /**
+     * @param map The map of the layer.
+     * @param grid The cells of the layer.
+     * @param origin The position of the top left corner of the layer in the map.
+     */
+    TileLayer(TiledMap map, TileGrid grid, Vector2 origin) {
+        this.map = map;
+        this.grid = grid;
+        this.tileWidth = map.tilemap().tilewidth;
+        this.tileHeight = map.tilemap().tileheight;
+        this.origin = origin;
+        this.chunksX = (grid.width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (grid.height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunks = new BufferedImage[chunksX * chunksY];
+        this.dirty = new boolean[chunksX * chunksY];
+        this.chunkTransforms = new AffineTransform[chunksX * chunksY];
+        for (int i = 0; i < chunkTransforms.length; i++) {
+            chunkTransforms[i] = AffineTransform.getTranslateInstance(
+                    origin.x + (i % chunksX) * CHUNK_SIZE * tileWidth,
+                    origin.y + (i / chunksX) * CHUNK_SIZE * tileHeight);
+        }
+        Arrays.fill(dirty, true);
+        grid.tileLayer = this;
+    }
+
+    /**
+     * @return The position of the top left corner of the layer in the map.
+     */
+    Vector2 origin() {
+        return origin;
+    }
+
+    /**
+     * Add a static tile to the layer. The tile is hidden and drawn in its chunk.
+     * @param tile The tile.
+     */
+    void add(Tile tile) {
+        tile.layer = this;
+        tile.setVisible(false);
+    }
+
+    /**
+     * Remove a tile from the layer.
+     * @param tile The tile.
+     */
+    void remove(Tile tile) {
+        dirty[chunkIndex(tile.mapIndex)] = true;
+        tile.layer = null;
+    }
+
+    /**
+     * Render again the chunk of the tile.
+     * @param tile The tile.
+     */
+    void invalidate(Tile tile) {
+        dirty[chunkIndex(tile.mapIndex)] = true;
+    }
+
+    @Override
+    protected boolean localBounds(Rect2 out) {
+        out.set(origin.x, origin.y, origin.x + grid.width * tileWidth, origin.y + grid.height * tileHeight);
+        return true;
+    }
+
+    @Override
+    protected Drawable snapshot() {
+        for (int i = 0; i < chunks.length; i++) {
+            if(dirty[i]) {
+                chunks[i] = renderChunk(i);
+                dirty[i] = false;
+                drawable = null;
+            }
+        }
+
+        // The snapshot is shared by the frames until a chunk changes.
+        // The chunks are replaced by new images when rebuilt, so the array copy is enough
+        if(drawable == null) {
+            drawable = new ChunksDrawable(chunks.clone(), chunkTransforms);
+        }
+        return drawable;
+    }
+
+    /**
+     * The chunk images of the layer, drawn at their position in the layer.
+     * The chunks outside of the visible area are skipped.
+     */
+    private static final class ChunksDrawable implements BatchDrawable {
+        private final BufferedImage[] images;
+        private final AffineTransform[] transforms;
+
+        ChunksDrawable(BufferedImage[] images, AffineTransform[] transforms) {
+            this.images = images;
+            this.transforms = transforms;
+        }
+
+        @Override
+        public void draw(Graphics2D g) {
+            for (int i = 0; i < images.length; i++) {
+                if(images[i] == null) {
+                    continue;
+                }
+                double x = transforms[i].getTranslateX();
+                double y = transforms[i].getTranslateY();
+                if(!g.hitClip((int)Math.floor(x), (int)Math.floor(y),
+                        images[i].getWidth() + 1, images[i].getHeight() + 1)) {
+                    continue;
+                }
+                g.translate(x, y);
+                g.drawImage(images[i], 0, 0, null);
+                g.translate(-x, -y);
+            }
+        }
+
+        @Override
+        public void submit(SpriteBatch batch, AffineTransform transform) {
+            for (int i = 0; i < images.length; i++) {
+                if(images[i] == null) {
+                    continue;
+                }
+                AffineTransform local = transforms[i];
+                if(batch.isVisible(transform, local.getTranslateX(), local.getTranslateY(),
+                        images[i].getWidth(), images[i].getHeight())) {
+                    batch.add(images[i], 0, 0, images[i].getWidth(), images[i].getHeight(),
+                            transform, transforms[i], null);
+                }
+            }
+        }
+    }
+
+    private BufferedImage renderChunk(int chunk) {
+        int cx = (chunk % chunksX) * CHUNK_SIZE;
+        int cy = (chunk / chunksX) * CHUNK_SIZE;
+        int ex = Math.min(cx + CHUNK_SIZE, grid.width);
+        int ey = Math.min(cy + CHUNK_SIZE, grid.height);
+
+        BufferedImage image = null;
+        Graphics2D g = null;
+        double opacity = grid.layer.opacity;
+        for (int y = cy; y < ey; y++) {
+            for (int x = cx; x < ex; x++) {
+                int idx = grid.index(x, y);
+                if(grid.gids[idx] == 0) {
+                    continue;
+                }
+                Tile tile = grid.tiles[idx];
+                if(tile != null ? !(tile.sprite instanceof Sprite) : opacity <= 0.0) {
+                    continue; // Animated or invisible tile
+                }
+                if(image == null) {
+                    image = ImageUtils.createCompatibleImage(CHUNK_SIZE * tileWidth, CHUNK_SIZE * tileHeight,
+                            Transparency.TRANSLUCENT);
+                    g = image.createGraphics();
+                    if(opacity < 1.0) {
+                        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float)opacity));
+                    }
+                }
+                double tx = (x - cx + 0.5) * tileWidth;
+                double ty = (y - cy + 0.5) * tileHeight;
+                if(tile != null) {
+                    Graphics2D tileGraphics = (Graphics2D) g.create();
+                    tileGraphics.setComposite(AlphaComposite.SrcOver); // The sprite has its own opacity
+                    tileGraphics.translate(tx + tile.sprite.position().x, ty + tile.sprite.position().y);
+                    tile.sprite.draw(tileGraphics);
+                    tileGraphics.dispose();
+                } else {
+                    // Drawn from the tileset image, without creating the tile sprite
+                    g.translate(tx, ty);
+                    map.drawTile(g, grid, idx);
+                    g.setTransform(IDENTITY);
+                }
+            }
+        }
+        if(g != null) {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private int chunkIndex(int mapIndex) {
+        int x = mapIndex % grid.width;
+        int y = mapIndex / grid.width;
+        return (y / CHUNK_SIZE) * chunksX + x / CHUNK_SIZE;
+    }
+}
@@ -3,14 +3,19 @@ package gyromite.scene.map;
 import gyromite.core.Rect2;
 import gyromite.core.Size2;
 import gyromite.core.Vector2;
+import gyromite.core.resources.ResourceHandle;
 import gyromite.core.resources.tilemap.*;
 import gyromite.scene.*;
 import gyromite.scene.physics.Body;
 import gyromite.scene.physics.CircleShape;
 import gyromite.scene.physics.PolygonShape;
 import gyromite.scene.physics.Shape;
+import gyromite.scene.physics.SpatialHashBroadPhase;
 import gyromite.util.Pair;
 
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.lang.reflect.Field;
 import java.util.*;
 
@@ -23,8 +28,12 @@ public class TiledMap extends Node {
     private static final int FLIPPED_DIAGONALLY_FLAG   = 0x20000000;
 
     private final String tilemapResourceId;
+    private ResourceHandle<TileMapData> tilemapHandle = null; // Keeps the tilemap in the resources cache
+    private final ArrayList<ResourceHandle<BufferedImage>> imageHandles = new ArrayList<>(); // And its tileset images
     private TileMapData tilemap = null;
-    private final ArrayList<ArrayList<Tile>> tiles = new ArrayList<>();
+    private final HashMap<Integer, TileGrid> grids = new HashMap<>(); // The tile layers cells by layer id
+    private boolean mergeCollisions = true;
+    private final AffineTransform tileTransform = new AffineTransform(); // Reused by drawTile
 
     private final HashMap<Integer, Boolean> collidingTilesIds = new HashMap<>();
     private final HashMap<String, Boolean> collidingTilesTypes = new HashMap<>();
@@ -38,7 +47,33 @@ public class TiledMap extends Node {
 
     @Override
     public void init() {
-        this.tilemap = scene().resources().getTilemap(tilemapResourceId);
+        tilemapHandle = scene().resources().acquireTilemap(tilemapResourceId);
+        this.tilemap = tilemapHandle != null ? tilemapHandle.get() : null;
+        if(tilemap != null) {
+            for(var tileset : tilemap.tilesets) {
+                var handle = tileset.loadedImageId != null ? scene().resources().acquireImage(tileset.loadedImageId) : null;
+                if(handle != null) {
+                    tileset.loadedImage = handle.get(); // The image read again if it was evicted
+                    imageHandles.add(handle);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void destroy() {
+        for(var grid : grids.values()) {
+            grid.boxes = null; // The runs are not rebuilt while the tiles are destroyed
+        }
+        super.destroy();
+        if(tilemapHandle != null) {
+            tilemapHandle.release();
+            tilemapHandle = null;
+        }
+        for(var handle : imageHandles) {
+            handle.release();
+        }
+        imageHandles.clear();
     }
 
     public TileMapData tilemap() {
@@ -73,6 +108,17 @@ public class TiledMap extends Node {
         return this;
     }
 
+    /**
+     * Merge the adjacent solid tiles of a row into a single body.
+     * Enabled by default, must be set before the build.
+     * @param merge True to merge the solid tiles.
+     * @return This tiled map.
+     */
+    public TiledMap mergeCollisions(boolean merge) {
+        this.mergeCollisions = merge;
+        return this;
+    }
+
     public TiledMap setObjectFactory(String layer, int id, TileObjectFactory factory) {
         return setObjectFactory(getLayerId(layer), id, factory);
     }
@@ -97,15 +143,90 @@ public class TiledMap extends Node {
         throw new IllegalArgumentException(String.format("Layer '%s' does not exists in tilemap", layerName));
     }
 
+    /**
+     * Get the tile of a cell, the tile node is created if needed.
+     * @param layerId The id of the tile layer.
+     * @param x The column of the cell.
+     * @param y The row of the cell.
+     * @return The tile, null if the cell is empty or outside the layer.
+     */
     public Tile getTile(int layerId, int x, int y) {
-        if(x < 0 || y < 0 || x >= tilemap.layers.get(layerId).width || y >= tilemap.layers.get(layerId).height) {
+        var grid = grids.get(layerId);
+        if(grid == null || !grid.contains(x, y)) {
+            return null;
+        }
+        return materializeTile(grid, grid.index(x, y));
+    }
+    /**
+     * Get the global id of the tile of a cell, without creating the tile node.
+     * @param layerId The id of the tile layer.
+     * @param x The column of the cell.
+     * @param y The row of the cell.
+     * @return The global tile id without the flip flags, 0 if the cell is empty or outside the layer.
+     */
+    public int getTileGid(int layerId, int x, int y) {
+        var grid = grids.get(layerId);
+        if(grid == null || !grid.contains(x, y)) {
+            return 0;
+        }
+        return clearFlags(grid.gids[grid.index(x, y)]);
+    }
+    /**
+     * Get the type of the tile of a cell, without creating the tile node.
+     * @param layerId The id of the tile layer.
+     * @param x The column of the cell.
+     * @param y The row of the cell.
+     * @return The tile type, null if the cell is empty or outside the layer.
+     */
+    public String getTileType(int layerId, int x, int y) {
+        var grid = grids.get(layerId);
+        if(grid == null || !grid.contains(x, y)) {
+            return null;
+        }
+        int idx = grid.index(x, y);
+        if(grid.tiles[idx] != null) {
+            return grid.tiles[idx].type;
+        }
+        int tileGid = clearFlags(grid.gids[idx]);
+        var tileset = getTileSet(tileGid);
+        if(tileset == null) {
             return null;
         }
-        return tiles.get(layerId - 1).get(y * tilemap.width + x);
+        var tileData = getTile(tileset, tileGid - tileset.firstgid);
+        return tileData != null ? tileData.type : "";
+    }
+    /**
+     * Get the tiles of the cells overlapping an area, the tile nodes are created if needed.
+     * @param layerId The id of the tile layer.
+     * @param area The area in the map coordinates.
+     * @return The tiles of the non empty cells, row by row.
+     */
+    public List<Tile> tilesIn(int layerId, Rect2 area) {
+        var result = new ArrayList<Tile>();
+        var grid = grids.get(layerId);
+        if(grid == null || area.isEmpty()) {
+            return result;
+        }
+        Vector2 origin = grid.tileLayer.origin();
+        int x1 = Math.max(0, (int)Math.floor((area.min.x - origin.x) / tilemap.tilewidth));
+        int y1 = Math.max(0, (int)Math.floor((area.min.y - origin.y) / tilemap.tileheight));
+        int x2 = Math.min(grid.width - 1, (int)Math.ceil((area.max.x - origin.x) / tilemap.tilewidth) - 1);
+        int y2 = Math.min(grid.height - 1, (int)Math.ceil((area.max.y - origin.y) / tilemap.tileheight) - 1);
+        for(int y = y1; y <= y2; y++) {
+            for(int x = x1; x <= x2; x++) {
+                var tile = materializeTile(grid, grid.index(x, y));
+                if(tile != null) {
+                    result.add(tile);
+                }
+            }
+        }
+        return result;
     }
     public int[] getTileCoordFromPosition(int layerId, Vector2 position) {
-        int x = (int)((position.x + size().width / 2.0) / tilemap.tilewidth);
-        int y = (int)((position.y + size().height / 2.0) / tilemap.tileheight);
+        var grid = grids.get(layerId);
+        Vector2 origin = grid != null ? grid.tileLayer.origin() : getMapPosition(new Vector2());
+        int x = (int)Math.floor((position.x - origin.x) / tilemap.tilewidth);
+        int y = (int)Math.floor((position.y - origin.y) / tilemap.tileheight);
         return new int[] { x, y };
     }
     public Tile getTileFromPosition(int layerId, Vector2 position) {
@@ -113,12 +234,29 @@ public class TiledMap extends Node {
         return getTile(layerId, coord[0], coord[1]);
     }
 
+    /**
+     * Render again the chunk of a static tile.
+     * Must be called after changing the sprite of a static tile.
+     * @param tile The tile.
+     */
+    public void invalidateTile(Tile tile) {
+        if(tile.layer != null) {
+            tile.layer.invalidate(tile);
+        }
+    }
+
     public void build() {
         if(tilemap.infinite || !tilemap.orientation.equals(TileMapData.ORTHOGONAL)) {
             System.err.println("Unsupported tilemap format");
             return;
         }
 
+        // Match the collision grid with the tiles
+        if(scene().physics().broadPhase() instanceof SpatialHashBroadPhase) {
+            ((SpatialHashBroadPhase)scene().physics().broadPhase())
+                    .setCellSize(Math.max(tilemap.tilewidth, tilemap.tileheight));
+        }
+
         for(var layer : tilemap.layers) {
             if (layer.visible) {
                 switch (layer.type) {
@@ -143,24 +281,153 @@ public class TiledMap extends Node {
         if(layer.data == null) {
             return;
         }
-        var layerTiles = new ArrayList<Tile>(layer.data.size());
-        tiles.clear();
-        for(int i = 0; i < layer.data.size(); i++) {
-            var tile = buildTile(layer, i, layer.data.get(i));
-            layerTiles.add(tile);
+        var grid = new TileGrid(layer);
+        grids.put(layer.id, grid);
+        addChild(new TileLayer(this, grid, getMapPosition(new Vector2(layer.offsetx, layer.offsety))));
+        // The solid boxes are merged when the whole layer is built
+        if(mergeCollisions) {
+            grid.boxes = new Rect2[grid.gids.length];
+            grid.runs = new Tile[grid.gids.length];
+        }
+        for(int i = 0; i < grid.gids.length; i++) {
+            if(grid.gids[i] != 0) {
+                grid.tiles[i] = buildTile(grid, i, false, grid.boxes);
+            }
+        }
+        if(grid.boxes != null) {
+            for(int y = 0; y < grid.height; y++) {
+                mergeBoxes(grid, y, 0, grid.width);
+            }
+        }
+    }
+
+    /**
+     * Give one body to each horizontal run of solid boxes of the same type touching each other.
+     * The body is owned by a tile node of the layer without sprite, placed on the first tile
+     * of the run, so the contacts still report a tile with the type and the row of the run.
+     * @param grid The cells of the layer, with the boxes waiting for a body.
+     * @param y The row.
+     * @param from The first column.
+     * @param to The column after the last one.
+     */
+    private void mergeBoxes(TileGrid grid, int y, int from, int to) {
+        int tw = tilemap.tilewidth;
+        int th = tilemap.tileheight;
+        int x = from;
+        while(x < to) {
+            Rect2 box = grid.boxes[grid.index(x, y)];
+            if(box == null) {
+                x++;
+                continue;
+            }
+            Tile first = grid.tiles[grid.index(x, y)];
+            Rect2 last = box;
+            int end = x + 1;
+            while(end < to) {
+                Rect2 next = grid.boxes[grid.index(end, y)];
+                if(next == null || last.max.x != tw || next.min.x != 0 ||
+                        next.min.y != box.min.y || next.max.y != box.max.y ||
+                        !grid.tiles[grid.index(end, y)].type.equals(first.type)) {
+                    break;
+                }
+                last = next;
+                end++;
+            }
+            double x1 = box.min.x;
+            double x2 = (end - x - 1) * tw + last.max.x;
+            Tile run = addChild(new Tile(new SpriteBase(), first.layerId, first.id, first.gid, first.mapIndex, first.type));
+            run.grid = grid;
+            run.setPosition(first.position());
+            run.addCollisionShape(new PolygonShape((x2 - x1) / 2.0, (box.max.y - box.min.y) / 2.0),
+                    new Vector2((x1 + x2 - tw) / 2.0, (box.min.y + box.max.y - th) / 2.0), false);
+            for(int i = x; i < end; i++) {
+                grid.runs[grid.index(i, y)] = run;
+            }
+            x = end;
+        }
+    }
+
+    /**
+     * Remove the solid box of a removed tile, the run of the box is merged again without it.
+     * @param grid The cells of the layer.
+     * @param tileMapIdx The index of the cell.
+     */
+    void removeCollisionBox(TileGrid grid, int tileMapIdx) {
+        if(grid.boxes == null || grid.boxes[tileMapIdx] == null) {
+            return;
+        }
+        grid.boxes[tileMapIdx] = null;
+        Tile run = grid.runs[tileMapIdx];
+        int y = tileMapIdx / grid.width;
+        int from = tileMapIdx % grid.width;
+        int to = from + 1;
+        while(from > 0 && grid.runs[grid.index(from - 1, y)] == run) {
+            from--;
         }
-        tiles.add(layerTiles);
+        while(to < grid.width && grid.runs[grid.index(to, y)] == run) {
+            to++;
+        }
+        for(int x = from; x < to; x++) {
+            grid.runs[grid.index(x, y)] = null;
+        }
+        run.remove();
+        mergeBoxes(grid, y, from, to);
     }
 
-    private Tile buildTile(Layer layer, int tileMapIdx, long tileGidRaw) {
-        // Read out the flags
-        boolean hflip = (tileGidRaw & FLIPPED_HORIZONTALLY_FLAG) != 0;
-        boolean vflip = (tileGidRaw & FLIPPED_VERTICALLY_FLAG) != 0;
-        boolean dflip = (tileGidRaw & FLIPPED_DIAGONALLY_FLAG) != 0;
+    /**
+     * Create the tile node of a cell if not created yet.
+     */
+    private Tile materializeTile(TileGrid grid, int tileMapIdx) {
+        if(grid.tiles[tileMapIdx] == null && grid.gids[tileMapIdx] != 0) {
+            grid.tiles[tileMapIdx] = buildTile(grid, tileMapIdx, true, null);
+        }
+        return grid.tiles[tileMapIdx];
+    }
+
+    /**
+     * Draw the tile of a cell from the region of its tileset image, centered on the origin.
+     * Used to render the static tiles without node.
+     * @param g The graphics context, its transform is changed.
+     * @param grid The cells of the layer.
+     * @param tileMapIdx The index of the cell.
+     * @return <code>false</code> if the tile can't be resolved.
+     */
+    boolean drawTile(Graphics2D g, TileGrid grid, int tileMapIdx) {
+        int tileGidRaw = grid.gids[tileMapIdx];
+        int tileGid = clearFlags(tileGidRaw);
+        var tileset = getTileSet(tileGid);
+        if (tileset == null) {
+            return false;
+        }
+        Rect2 tileRect = getTileRect(tileset, tileGid - tileset.firstgid);
+        if(tileRect == null) {
+            return false;
+        }
+        int x = (int)tileRect.min.x;
+        int y = (int)tileRect.min.y;
+        int width = tileset.tilewidth;
+        int height = tileset.tileheight;
+        g.transform(SpriteBase.frameTransform(tileTransform, width, height, tilemap.tilewidth, tilemap.tileheight,
+                0, 0, (tileGidRaw & FLIPPED_HORIZONTALLY_FLAG) != 0, (tileGidRaw & FLIPPED_VERTICALLY_FLAG) != 0,
+                (tileGidRaw & FLIPPED_DIAGONALLY_FLAG) != 0));
+        g.drawImage(tileset.loadedImage, 0, 0, width, height, x, y, x + width, y + height, null);
+        return true;
+    }
+
+    /**
+     * Create the tile node of a cell.
+     * @param grid The cells of the layer.
+     * @param tileMapIdx The index of the cell.
+     * @param always If false, the node is only created for the tiles with a body or an animation.
+     * @param boxes If not null, the solid boxes are stored here instead of receiving their body.
+     * @return The tile, or null if not created.
+     */
+    private Tile buildTile(TileGrid grid, int tileMapIdx, boolean always, Rect2[] boxes) {
+        Layer layer = grid.layer;
+        int tileGidRaw = grid.gids[tileMapIdx];
 
         // Clear the flags
-        int tileGid = (int) (
-                tileGidRaw & ~(FLIPPED_HORIZONTALLY_FLAG | FLIPPED_VERTICALLY_FLAG | FLIPPED_DIAGONALLY_FLAG));
+        int tileGid = clearFlags(tileGidRaw);
 
         // Resolve the tile
         var tileset = getTileSet(tileGid);
@@ -175,10 +442,17 @@ public class TiledMap extends Node {
             return null;
         }
 
+        TileData tileData = getTile(tileset, tileId);
+        boolean animated = tileData != null && tileData.animation != null && !tileData.animation.isEmpty();
+        Boolean collidingById = collidingTilesIds.get(tileGid);
+        Boolean collidingByType = tileData == null ? null : collidingTilesTypes.get(tileData.type);
+        if(!always && !animated && collidingById == null && collidingByType == null) {
+            return null; // Drawn by the tile layer from its id
+        }
+
         Tile tile;
 
-        TileData tileData = getTile(tileset, tileId);
-        if(tileData != null && tileData.animation != null && !tileData.animation.isEmpty()) {
+        if(animated) {
             AnimatedSprite animatedSprite = new AnimatedSprite();
             tile = addChild(new Tile(animatedSprite, layer.id, tileId, tileGid, tileMapIdx, tileData.type));
             var anim = animatedSprite.addAnimation("tile");
@@ -205,22 +479,23 @@ public class TiledMap extends Node {
                     tileData != null ? tileData.type : ""));
             staticSprite.setRegion(tileRect);
         }
+        tile.grid = grid;
 
         Vector2 localPos = mapRect.center();
-        tile.position().set(getMapPosition(localPos));
+        tile.setPosition(getMapPosition(localPos));
 
         SpriteBase sprite = tile.sprite;
-        sprite.size().set(mapRect.size());
-        sprite.setOpacity(layer.opacity);
-        sprite.flipH(hflip);
-        sprite.flipV(vflip);
-        sprite.flipD(dflip);
+        setupTileSprite(sprite, layer, mapRect, tileGidRaw);
+        if(sprite instanceof Sprite) {
+            grid.tileLayer.add(tile); // Static tiles are drawn in chunks
+        }
 
-        Boolean collidingById = collidingTilesIds.get(tileGid);
-        Boolean collidingByType = tileData == null ? null : collidingTilesTypes.get(tileData.type);
         if(collidingById != null || collidingByType != null) {
             boolean transparentArea = (collidingById != null && collidingById) || collidingByType != null;
-            if(tileData != null && tileData.objectgroup != null && !tileData.objectgroup.objects.isEmpty()) {
+            Rect2 box = boxes != null && !transparentArea ? getBox(tileData, sprite.size()) : null;
+            if(box != null) {
+                boxes[tileMapIdx] = box; // The body is created once the whole layer is built
+            } else if(tileData != null && tileData.objectgroup != null && !tileData.objectgroup.objects.isEmpty()) {
                 for(var shapeObject : tileData.objectgroup.objects) {
                     Shape shape;
                     if (shapeObject.ellipse) {
@@ -244,6 +519,39 @@ public class TiledMap extends Node {
         return tile;
     }
 
+    /**
+     * Get the collision box of a tile made of a single rectangle.
+     * @param tileData The tile data, null if none.
+     * @param size The size of the tile.
+     * @return The box in the coordinates of the tile, null if the tile has another shape.
+     */
+    private Rect2 getBox(TileData tileData, Size2 size) {
+        if(tileData == null || tileData.objectgroup == null || tileData.objectgroup.objects.isEmpty()) {
+            return new Rect2(0, 0, size.width, size.height);
+        }
+        if(tileData.objectgroup.objects.size() != 1) {
+            return null;
+        }
+        var shapeObject = tileData.objectgroup.objects.get(0);
+        if(shapeObject.ellipse || shapeObject.polygon != null) {
+            return null;
+        }
+        return new Rect2(shapeObject.x, shapeObject.y,
+                shapeObject.x + shapeObject.width, shapeObject.y + shapeObject.height);
+    }
+
+    private void setupTileSprite(SpriteBase sprite, Layer layer, Rect2 mapRect, int tileGidRaw) {
+        sprite.size().set(mapRect.size());
+        sprite.setOpacity(layer.opacity);
+        sprite.flipH((tileGidRaw & FLIPPED_HORIZONTALLY_FLAG) != 0);
+        sprite.flipV((tileGidRaw & FLIPPED_VERTICALLY_FLAG) != 0);
+        sprite.flipD((tileGidRaw & FLIPPED_DIAGONALLY_FLAG) != 0);
+    }
+
+    private static int clearFlags(int tileGidRaw) {
+        return tileGidRaw & ~(FLIPPED_HORIZONTALLY_FLAG | FLIPPED_VERTICALLY_FLAG | FLIPPED_DIAGONALLY_FLAG);
+    }
+
     private TileSet getTileSet(int tileGid) {
         for(var tileset : tilemap.tilesets) {
             if (tileset.loadedImage != null &&
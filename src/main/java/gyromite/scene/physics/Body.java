@@ -1,13 +1,16 @@
 package gyromite.scene.physics;
 
 import gyromite.core.Mat2;
+import gyromite.core.Rect2;
 import gyromite.core.Vector2;
 import gyromite.scene.Node;
 
 import java.util.*;
 
 /**
- * A physics body
+ * A physics body.
+ * The velocity, forces, mass and material of the body are stored in the arrays
+ * of its physics at the slot of the body, the body is a handle on them.
  */
 public class Body {
     /**
@@ -21,12 +24,13 @@ public class Body {
         RIGID,
         /**
          * Character body mode.
-         * This behaves like a rigid body, but can not rotate.
+         * This behaves like a rigid body, but can not rotate and never sleeps.
          */
         CHARACTER,
         /**
          * Static mode.
          * The body can only move by user code.
+         * Static bodies do not collide with each other.
          */
         STATIC,
         /**
@@ -40,67 +44,46 @@ public class Body {
     private final Node node;
     private Mode mode;
 
-    private HashMap<Body, Manifold> contacts = new HashMap();
-    private HashMap<Body, Manifold> lastContacts = new HashMap<>();
+    // Identity maps do not allocate entries, the lists keep the contacts order
+    private IdentityHashMap<Body, Manifold> contacts = new IdentityHashMap<>();
+    private IdentityHashMap<Body, Manifold> lastContacts = new IdentityHashMap<>();
+    private ArrayList<Body> contactBodies = new ArrayList<>();
+    private ArrayList<Body> lastContactBodies = new ArrayList<>();
 
     private final ArrayList<BodyListener> bodyListeners = new ArrayList<>();
 
+    final int id;
+    final int slot; // Index of the body state in the arrays of the physics
     boolean pendingRemove = false;
 
-    Vector2 position = new Vector2();
-    double orient = 0.0;
-    Mat2 orientMat = new Mat2(0.0);
+    private boolean sleeping = false;
+    private int restTicks = 0;
+    private boolean contactsStashed = false; // The contacts were moved to the last contacts when falling asleep
+    private final Vector2 sleepPosition = new Vector2(); // World transform when the body fell asleep
+    private double sleepOrient = 0.0;
+    private final Vector2 movedPosition = new Vector2(); // Scratch world position of wakeIfMoved
 
-    double mass, invMass, inertia, invInertia;
+    final Vector2 position = new Vector2();
+    double orient = 0.0;
+    final Mat2 orientMat = new Mat2(0.0);
+    final Rect2 aabb = new Rect2();
+    private final Vector2 ownerGravity = new Vector2();
 
     /**
      * The shape of the body.
      */
     public final Shape shape;
 
-    /**
-     * The linear velocity.
-     */
-    public final Vector2 velocity = new Vector2(0.0, 0.0);
-    /**
-     * The linear force. Will be integrated to the body velocity.
-     */
-    public final Vector2 force = new Vector2(0.0, 0.0);
-    /**
-     * The angular velocity.
-     */
-    public double angularVelocity = 0.0;
-    /**
-     * The torque force. Will be integrated to the body angular velocity.
-     */
-    public double torque = 0.0;
-
-    /**
-     * The static friction constant.
-     */
-    public double staticFriction = 0.5;
-    /**
-     * The dynamic friction constant.
-     */
-    public double dynamicFriction = 0.3;
-    /**
-     * The coefficient of restitution.
-     */
-    public double restitution = 0.2;
-
-    /**
-     * The gravity force applied to the body.
-     * By default the same as {@link PhysicsProvider#gravity}.
-     */
-    public Vector2 gravity = new Vector2();
-
     public Body(PhysicsProvider physics, Node node, Shape shape, Mode mode) {
         this.physics = physics;
+        this.id = physics.nextBodyId++;
         this.node = node;
         this.mode = mode;
         this.shape = shape;
+        this.slot = physics.arrays.allocate();
 
-        gravity.set(physics.gravity);
+        physics.arrays.gx[slot] = physics.gravity.x;
+        physics.arrays.gy[slot] = physics.gravity.y;
 
         shape.body = this;
         shape.initialize();
@@ -127,12 +110,87 @@ public class Body {
     }
 
     /**
-     * @return The bodies currently in contact with this body.
+     * @return The bodies currently in contact with this body, empty while the body is sleeping.
+     *         The manifolds are reused by the physics and are only valid until the next step.
      */
     public Map<Body, Manifold> contacts() {
         return Collections.unmodifiableMap(contacts);
     }
 
+    /**
+     * @return The world bounding box of the body shape, computed at each physics step.
+     */
+    public Rect2 aabb() {
+        return aabb;
+    }
+
+    /**
+     * @return The linear velocity.
+     */
+    public Vector2 velocity() {
+        return velocity(new Vector2());
+    }
+
+    /**
+     * Get the linear velocity without allocating.
+     * @param out The vector to set.
+     * @return The out vector.
+     */
+    public Vector2 velocity(Vector2 out) {
+        out.set(physics.arrays.vx[slot], physics.arrays.vy[slot]);
+        return out;
+    }
+
+    /**
+     * @return The angular velocity.
+     */
+    public double angularVelocity() {
+        return physics.arrays.w[slot];
+    }
+
+    /**
+     * @return The linear force. Will be integrated to the body velocity.
+     */
+    public Vector2 force() {
+        return new Vector2(physics.arrays.fx[slot], physics.arrays.fy[slot]);
+    }
+
+    /**
+     * @return The torque force. Will be integrated to the body angular velocity.
+     */
+    public double torque() {
+        return physics.arrays.torque[slot];
+    }
+
+    /**
+     * @return The gravity force applied to the body.
+     *         By default the same as {@link PhysicsProvider#gravity}.
+     */
+    public Vector2 gravity() {
+        return new Vector2(physics.arrays.gx[slot], physics.arrays.gy[slot]);
+    }
+
+    /**
+     * @return The static friction constant.
+     */
+    public double staticFriction() {
+        return physics.arrays.staticFriction[slot];
+    }
+
+    /**
+     * @return The dynamic friction constant.
+     */
+    public double dynamicFriction() {
+        return physics.arrays.dynamicFriction[slot];
+    }
+
+    /**
+     * @return The coefficient of restitution.
+     */
+    public double restitution() {
+        return physics.arrays.restitution[slot];
+    }
+
     /**
      * @return The physics manager.
      */
@@ -154,44 +212,266 @@ public class Body {
         return mode;
     }
 
+    /**
+     * @return <code>true</code> if the body is sleeping.
+     *         A sleeping body is not simulated until it is woken by a contact,
+     *         a velocity or a force change, or a move of its node.
+     *         The contacts of a sleeping body are not updated.
+     */
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
     /**
      * Set the body mode.
      */
     public void setMode(Mode mode) {
         this.mode = mode;
+        wake();
 
         shape.computeMass();
 
         if (mode == Mode.STATIC || mode == Mode.TRANSPARENT) {
-            inertia = 0.0;
-            invInertia = 0.0;
-            mass = 0.0;
-            invMass = 0.0;
+            setMass(0.0, 0.0);
+        }
+        physics.arrays.rotates[slot] = mode != Mode.CHARACTER;
+    }
+
+    /**
+     * Set the linear velocity. Wakes the body if the velocity changes.
+     * @param x The x velocity.
+     * @param y The y velocity.
+     */
+    public void setVelocity(double x, double y) {
+        BodyArrays arrays = physics.arrays;
+        if (x != arrays.vx[slot] || y != arrays.vy[slot]) {
+            arrays.vx[slot] = x;
+            arrays.vy[slot] = y;
+            wake();
+        }
+    }
+
+    /**
+     * Set the linear velocity. Wakes the body if the velocity changes.
+     * @param velocity The velocity.
+     */
+    public void setVelocity(Vector2 velocity) {
+        setVelocity(velocity.x, velocity.y);
+    }
+
+    /**
+     * Set the x linear velocity. Wakes the body if the velocity changes.
+     * @param x The x velocity.
+     */
+    public void setVelocityX(double x) {
+        setVelocity(x, physics.arrays.vy[slot]);
+    }
+
+    /**
+     * Set the y linear velocity. Wakes the body if the velocity changes.
+     * @param y The y velocity.
+     */
+    public void setVelocityY(double y) {
+        setVelocity(physics.arrays.vx[slot], y);
+    }
+
+    /**
+     * Set the angular velocity. Wakes the body if the velocity changes.
+     * @param angularVelocity The angular velocity.
+     */
+    public void setAngularVelocity(double angularVelocity) {
+        if (angularVelocity != physics.arrays.w[slot]) {
+            physics.arrays.w[slot] = angularVelocity;
+            wake();
+        }
+    }
+
+    /**
+     * Set the linear force. Wakes the body if the force changes.
+     * @param x The x force.
+     * @param y The y force.
+     */
+    public void setForce(double x, double y) {
+        BodyArrays arrays = physics.arrays;
+        if (x != arrays.fx[slot] || y != arrays.fy[slot]) {
+            arrays.fx[slot] = x;
+            arrays.fy[slot] = y;
+            wake();
+        }
+    }
+
+    /**
+     * Add a force to the linear force. Wakes the body if the force is not zero.
+     * @param f The force.
+     */
+    public void applyForce(Vector2 f) {
+        setForce(physics.arrays.fx[slot] + f.x, physics.arrays.fy[slot] + f.y);
+    }
+
+    /**
+     * Set the torque force. Wakes the body if the torque changes.
+     * @param torque The torque.
+     */
+    public void setTorque(double torque) {
+        if (torque != physics.arrays.torque[slot]) {
+            physics.arrays.torque[slot] = torque;
+            wake();
         }
     }
 
+    /**
+     * Set the gravity force applied to the body. Wakes the body if the gravity changes.
+     * @param x The x gravity.
+     * @param y The y gravity.
+     */
+    public void setGravity(double x, double y) {
+        BodyArrays arrays = physics.arrays;
+        if (x != arrays.gx[slot] || y != arrays.gy[slot]) {
+            arrays.gx[slot] = x;
+            arrays.gy[slot] = y;
+            wake();
+        }
+    }
+
+    /**
+     * Set the static friction constant.
+     * @param staticFriction The constant.
+     */
+    public void setStaticFriction(double staticFriction) {
+        physics.arrays.staticFriction[slot] = staticFriction;
+    }
+
+    /**
+     * Set the dynamic friction constant.
+     * @param dynamicFriction The constant.
+     */
+    public void setDynamicFriction(double dynamicFriction) {
+        physics.arrays.dynamicFriction[slot] = dynamicFriction;
+    }
+
+    /**
+     * Set the coefficient of restitution.
+     * @param restitution The coefficient.
+     */
+    public void setRestitution(double restitution) {
+        physics.arrays.restitution[slot] = restitution;
+    }
+
     /**
      * Set the body gravity to {@link PhysicsProvider#gravity}
      */
     public void resetGravity() {
-        gravity.set(physics.gravity);
+        setGravity(physics.gravity.x, physics.gravity.y);
     }
 
+    /**
+     * Wake the body if it is sleeping.
+     */
+    public void wake() {
+        restTicks = 0;
+        if (sleeping && !pendingRemove) {
+            sleeping = false;
+            physics.bodyWoken(this);
+        }
+    }
+
+    /**
+     * Wake the body if its node moved in the world since the body fell asleep.
+     * Called by the node when it or one of its owners moves.
+     */
+    public void wakeIfMoved() {
+        if (sleeping && (node.worldOrient() != sleepOrient ||
+                node.worldPosition(movedPosition).x != sleepPosition.x || movedPosition.y != sleepPosition.y)) {
+            wake();
+        }
+    }
 
-    void applyForce(Vector2 f) {
-        force.addi(f);
+    void sleep() {
+        sleeping = true;
+        node.worldPosition(sleepPosition);
+        sleepOrient = node.worldOrient();
+        physics.arrays.vx[slot] = 0.0;
+        physics.arrays.vy[slot] = 0.0;
+        physics.arrays.w[slot] = 0.0;
+        stashContacts();
     }
 
-    void applyImpulse(Vector2 impulse, Vector2 contactVector) {
-        velocity.addsi(impulse, invMass);
-        if(mode != Mode.CHARACTER) {
-            angularVelocity += invInertia * Vector2.cross(contactVector, impulse);
+    /**
+     * Count the ticks the body stays at rest.
+     * @return The number of ticks at rest.
+     */
+    int updateRest() {
+        BodyArrays arrays = physics.arrays;
+        double vx = arrays.vx[slot], vy = arrays.vy[slot], w = arrays.w[slot];
+        boolean atRest;
+        if (mode == Mode.CHARACTER) {
+            atRest = false;
+        } else if (arrays.invMass[slot] == 0) {
+            atRest = vx == 0 && vy == 0 && w == 0;
+        } else {
+            atRest = vx * vx + vy * vy < PhysicsProvider.SLEEP_VELOCITY * PhysicsProvider.SLEEP_VELOCITY &&
+                    StrictMath.abs(w) < PhysicsProvider.SLEEP_ANGULAR_VELOCITY;
+        }
+        restTicks = atRest ? restTicks + 1 : 0;
+        return restTicks;
+    }
+
+    /**
+     * @return <code>true</code> if the body can fall asleep with the bodies it touches.
+     */
+    boolean canSleep() {
+        if (!isResting()) {
+            return false;
+        }
+        for (int i = 0; i < contactBodies.size(); ++i) {
+            Body other = contactBodies.get(i);
+            if (other.invMass() != 0 && !other.sleeping && !other.isResting()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isResting() {
+        return invMass() == 0 ? restTicks > 0 : restTicks >= PhysicsProvider.SLEEP_TICKS;
+    }
+
+    /**
+     * Set the mass and the inertia, computed by the shape.
+     */
+    void setMass(double mass, double inertia) {
+        BodyArrays arrays = physics.arrays;
+        arrays.mass[slot] = mass;
+        arrays.invMass[slot] = (mass != 0.0) ? 1.0 / mass : 0.0;
+        arrays.inertia[slot] = inertia;
+        arrays.invInertia[slot] = (inertia != 0.0) ? 1.0 / inertia : 0.0;
+    }
+
+    double mass() {
+        return physics.arrays.mass[slot];
+    }
+
+    double invMass() {
+        return physics.arrays.invMass[slot];
+    }
+
+    double invInertia() {
+        return physics.arrays.invInertia[slot];
+    }
+
+    void applyImpulse(double x, double y, Vector2 contactVector) {
+        BodyArrays arrays = physics.arrays;
+        arrays.vx[slot] += x * arrays.invMass[slot];
+        arrays.vy[slot] += y * arrays.invMass[slot];
+        if(arrays.rotates[slot]) {
+            arrays.w[slot] += arrays.invInertia[slot] * (contactVector.x * y - contactVector.y * x);
         }
     }
 
     void clearForces() {
-        force.set(0, 0);
-        torque = 0;
+        physics.arrays.fx[slot] = 0.0;
+        physics.arrays.fy[slot] = 0.0;
+        physics.arrays.torque[slot] = 0.0;
     }
 
     Vector2 position() {
@@ -219,70 +499,129 @@ public class Body {
     // x += v * dt
 
     void integrateForces(double dt) {
+        BodyArrays arrays = physics.arrays;
+        double invMass = arrays.invMass[slot];
         if (invMass == 0) {
             return;
         }
 
         double dts = dt * 0.5;
 
-        Vector2 worldGravity = node.owner() != null
-                ? gravity.clone().rotate(-node.owner().worldOrient())
-                : gravity;
+        ownerGravity(ownerGravity);
+        arrays.vx[slot] = arrays.vx[slot] + arrays.fx[slot] * (invMass * dts) + ownerGravity.x * dts;
+        arrays.vy[slot] = arrays.vy[slot] + arrays.fy[slot] * (invMass * dts) + ownerGravity.y * dts;
+        arrays.w[slot] += arrays.torque[slot] * arrays.invInertia[slot] * dts;
+    }
 
-        velocity.addsi(force, invMass * dts);
-        velocity.addsi(worldGravity, dts);
-        angularVelocity += torque * invInertia * dts;
+    /**
+     * Rotate the gravity into the space of the node owner, where the body moves.
+     * @param out The vector to set.
+     * @return The out vector.
+     */
+    Vector2 ownerGravity(Vector2 out) {
+        double gx = physics.arrays.gx[slot], gy = physics.arrays.gy[slot];
+        if (node.owner() == null) {
+            out.set(gx, gy);
+            return out;
+        }
+        double o = -node.owner().worldOrient();
+        double c = StrictMath.cos(o);
+        double s = StrictMath.sin(o);
+        out.x = gx * c - gy * s;
+        out.y = gx * s + gy * c;
+        return out;
     }
 
     void integrateVelocity(double dt) {
-        node.position().addsi(velocity, dt);
-        node.setOrient(node.orient() + angularVelocity * dt);
+        BodyArrays arrays = physics.arrays;
+        node.translate(arrays.vx[slot] * dt, arrays.vy[slot] * dt);
+        node.setOrient(node.orient() + arrays.w[slot] * dt);
         computePosition();
 
         integrateForces(dt);
     }
 
     void applyCorrection(Vector2 normal, double correction) {
-        node.position().addsi(normal, correction);
+        node.translate(normal.x * correction, normal.y * correction);
         computePosition();
     }
 
     void clearContacts() {
+        if (contactsStashed) {
+            // The last contacts are the ones kept when falling asleep
+            contactsStashed = false;
+            contacts.clear();
+            contactBodies.clear();
+            return;
+        }
+
+        // Swap with the last contacts, which are cleared by updateContacts()
+        var map = lastContacts;
         lastContacts = contacts;
-        contacts = new HashMap<>();
+        contacts = map;
+        contacts.clear();
+
+        var list = lastContactBodies;
+        lastContactBodies = contactBodies;
+        contactBodies = list;
+        contactBodies.clear();
+    }
+
+    /**
+     * Move the contacts to the last contacts when falling asleep. The pooled manifolds
+     * are reused by the next steps, so they are dropped, but the touched bodies are kept
+     * to report the right enter and exit events once the body is woken.
+     */
+    private void stashContacts() {
+        clearContacts();
+        for (int i = 0; i < lastContactBodies.size(); ++i) {
+            lastContacts.put(lastContactBodies.get(i), null);
+        }
+        contactsStashed = true;
     }
 
     void computePosition() {
-        position = node.worldPosition();
+        node.worldPosition(position);
         orient = node.worldOrient();
-        orientMat = new Mat2(orient);
+        orientMat.set(orient);
+    }
+
+    void computeAABB() {
+        shape.computeAABB(aabb);
     }
 
     void addContact(Body other, Manifold m) {
-        contacts.put(other, m);
+        if (contacts.put(other, m) == null) {
+            contactBodies.add(other);
+        }
     }
 
     void updateContacts() {
-        contacts.forEach((body, m) -> {
-            if (lastContacts.remove(body) == null) {
+        for (int i = 0; i < contactBodies.size(); ++i) {
+            Body body = contactBodies.get(i);
+            if (!lastContacts.containsKey(body)) {
                 handleBodyEntered(body);
             }
-        });
-        lastContacts.forEach((body, m) -> {
-            handleBodyExited(body);
-        });
+        }
+        for (int i = 0; i < lastContactBodies.size(); ++i) {
+            Body body = lastContactBodies.get(i);
+            if (!contacts.containsKey(body)) {
+                handleBodyExited(body);
+            }
+        }
         lastContacts.clear();
+        lastContactBodies.clear();
     }
 
     private void handleBodyEntered(Body body) {
-        for (BodyListener listener : bodyListeners) {
-            listener.bodyEntered(body);
+        for (int i = 0; i < bodyListeners.size(); ++i) {
+            bodyListeners.get(i).bodyEntered(body);
         }
     }
 
     private void handleBodyExited(Body body) {
-        for (BodyListener listener : bodyListeners) {
-            listener.bodyExited(body);
+        for (int i = 0; i < bodyListeners.size(); ++i) {
+            bodyListeners.get(i).bodyExited(body);
         }
     }
 }
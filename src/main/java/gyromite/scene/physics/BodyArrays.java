@@ -0,0 +1,98 @@
+package gyromite.scene.physics;
+
+import java.util.Arrays;
+
+/**
+ * The state of the bodies of a {@link PhysicsProvider} in primitive arrays (structure of arrays),
+ * indexed by the slot of each body. {@link Body} is a handle on its slot.
+ * The arrays are replaced when they grow, they must not be kept across body additions.
+ * The slots of the removed bodies are reused.
+ */
+final class BodyArrays {
+    // Velocity and forces
+    double[] vx, vy, w;
+    double[] fx, fy, torque;
+    double[] gx, gy;
+    // Mass
+    double[] mass, invMass, inertia, invInertia;
+    boolean[] rotates;
+    // Material
+    double[] staticFriction, dynamicFriction, restitution;
+
+    private int capacity = 0;
+    private int size = 0; // Slots used at least once
+    private int[] freeSlots = new int[16];
+    private int freeCount = 0;
+
+    BodyArrays() {
+        grow(64);
+    }
+
+    /**
+     * Allocate a slot, with zero velocity, forces and mass, and the default material.
+     * @return The slot.
+     */
+    int allocate() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (size == capacity) {
+                grow(capacity * 2);
+            }
+            slot = size++;
+        }
+        vx[slot] = vy[slot] = w[slot] = 0.0;
+        fx[slot] = fy[slot] = torque[slot] = 0.0;
+        gx[slot] = gy[slot] = 0.0;
+        mass[slot] = invMass[slot] = inertia[slot] = invInertia[slot] = 0.0;
+        rotates[slot] = true;
+        staticFriction[slot] = 0.5;
+        dynamicFriction[slot] = 0.3;
+        restitution[slot] = 0.2;
+        return slot;
+    }
+
+    /**
+     * Release the slot of a removed body.
+     * @param slot The slot.
+     */
+    void free(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Release all the slots.
+     */
+    void clear() {
+        size = 0;
+        freeCount = 0;
+    }
+
+    private void grow(int capacity) {
+        this.capacity = capacity;
+        vx = grow(vx, capacity);
+        vy = grow(vy, capacity);
+        w = grow(w, capacity);
+        fx = grow(fx, capacity);
+        fy = grow(fy, capacity);
+        torque = grow(torque, capacity);
+        gx = grow(gx, capacity);
+        gy = grow(gy, capacity);
+        mass = grow(mass, capacity);
+        invMass = grow(invMass, capacity);
+        inertia = grow(inertia, capacity);
+        invInertia = grow(invInertia, capacity);
+        rotates = rotates == null ? new boolean[capacity] : Arrays.copyOf(rotates, capacity);
+        staticFriction = grow(staticFriction, capacity);
+        dynamicFriction = grow(dynamicFriction, capacity);
+        restitution = grow(restitution, capacity);
+    }
+
+    private static double[] grow(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+}
@@ -0,0 +1,41 @@
+package gyromite.scene.physics;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Collision broad phase of the {@link PhysicsProvider}.
+ * Find the pairs of bodies that may collide before the narrow phase
+ * computes the exact contacts. See {@link SpatialHashBroadPhase}.
+ */
+public interface BroadPhase {
+    /**
+     * Find the pairs of bodies whose bounding boxes overlap: the pairs of two given
+     * active bodies and the pairs of a given active body and a sleeping body.
+     * Each pair must be reported once, the first body of the pair
+     * being the one added first to the physics.
+     * @param bodies All the bodies, sorted by the order they were added.
+     * @param activeBodies The bodies to test, which are not sleeping, with up to date
+     *                     bounding boxes (see {@link Body#aabb()}). Either all the active
+     *                     bodies or the bodies just woken by the contacts of the others.
+     * @param callback Called with each pair of bodies.
+     */
+    void findPairs(List<Body> bodies, List<Body> activeBodies, BiConsumer<Body, Body> callback);
+
+    /**
+     * Called when a body falls asleep. Its bounding box will not change until it is woken.
+     * @param body The body.
+     */
+    default void bodySlept(Body body) { }
+
+    /**
+     * Called when a sleeping body is woken or removed.
+     * @param body The body.
+     */
+    default void bodyWoken(Body body) { }
+
+    /**
+     * Called when all bodies are removed.
+     */
+    default void clear() { }
+}
@@ -0,0 +1,38 @@
+package gyromite.scene.physics;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase testing the bounding boxes of all pairs of bodies.
+ * Only suited to a few bodies, prefer {@link SpatialHashBroadPhase}.
+ */
+public class BruteForceBroadPhase implements BroadPhase {
+    @Override
+    public void findPairs(List<Body> bodies, List<Body> activeBodies, BiConsumer<Body, Body> callback) {
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            Body A = activeBodies.get(i);
+
+            for (int j = i + 1; j < activeBodies.size(); ++j) {
+                test(A, activeBodies.get(j), callback);
+            }
+            for (int j = 0; j < bodies.size(); ++j) {
+                Body B = bodies.get(j);
+                if (B.isSleeping()) {
+                    test(A, B, callback);
+                }
+            }
+        }
+    }
+
+    private static void test(Body A, Body B, BiConsumer<Body, Body> callback) {
+        if (!A.aabb.intersects(B.aabb)) {
+            return;
+        }
+        if (A.id < B.id) {
+            callback.accept(A, B);
+        } else {
+            callback.accept(B, A);
+        }
+    }
+}
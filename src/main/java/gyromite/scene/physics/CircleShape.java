@@ -1,6 +1,8 @@
 package gyromite.scene.physics;
 
 import gyromite.core.MathUtils;
+import gyromite.core.Rect2;
+import gyromite.core.Vector2;
 
 /**
  * Physics body circle shape
@@ -19,6 +21,11 @@ public class CircleShape extends Shape {
         return radius;
     }
 
+    @Override
+    int type() {
+        return CIRCLE;
+    }
+
     @Override
     public Shape clone() {
         return new CircleShape(radius);
@@ -31,9 +38,13 @@ public class CircleShape extends Shape {
 
     @Override
     protected void computeMass() {
-        body.mass = MathUtils.PI * radius * radius * density();
-        body.invMass = (body.mass != 0.0) ? 1.0 / body.mass : 0.0;
-        body.inertia = body.mass * radius * radius;
-        body.invInertia = (body.inertia != 0.0) ? 1.0 / body.inertia : 0.0;
+        double mass = MathUtils.PI * radius * radius * density();
+        body.setMass(mass, mass * radius * radius);
+    }
+
+    @Override
+    protected void computeAABB(Rect2 aabb) {
+        Vector2 p = body.position;
+        aabb.set(p.x - radius, p.y - radius, p.x + radius, p.y + radius);
     }
 }
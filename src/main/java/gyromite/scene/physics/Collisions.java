@@ -3,34 +3,24 @@ package gyromite.scene.physics;
 import gyromite.core.Mat2;
 import gyromite.core.MathUtils;
 import gyromite.core.Vector2;
-import gyromite.util.Pair;
-
-import java.util.HashMap;
 
+/**
+ * Narrow phase collision solvers.
+ * The solvers do not allocate, they use the scratch values of the {@link Manifold}.
+ */
 abstract class Collisions {
     private interface Solver {
         void solve(Manifold m, Body a, Body b);
     }
 
-    private static class CollisionPair extends Pair<Class<? extends Shape>, Class<? extends Shape>> {
-        public CollisionPair(Class<? extends Shape> first, Class<? extends Shape> second) {
-            super(first, second);
-        }
-    }
-
-    private static final HashMap<CollisionPair, Solver> solvers = InitSolvers();
+    // Indexed by the shape types (see Shape#type())
+    private static final Solver[][] solvers = {
+            { Collisions::CircleToCircle, Collisions::CircleToPolygon },
+            { Collisions::PolygonToCircle, Collisions::PolygonToPolygon }
+    };
 
     public static void Solve(Manifold m, Body a, Body b) {
-        solvers.get(new CollisionPair(a.shape.getClass(), b.shape.getClass())).solve(m, a, b);
-    }
-
-    private static HashMap<CollisionPair, Solver> InitSolvers() {
-        var solvers = new HashMap<CollisionPair, Solver>();
-        solvers.put(new CollisionPair(CircleShape.class, CircleShape.class), Collisions::CircleToCircle);
-        solvers.put(new CollisionPair(CircleShape.class, PolygonShape.class), Collisions::CircleToPolygon);
-        solvers.put(new CollisionPair(PolygonShape.class, CircleShape.class), Collisions::PolygonToCircle);
-        solvers.put(new CollisionPair(PolygonShape.class, PolygonShape.class), Collisions::PolygonToPolygon);
-        return solvers;
+        solvers[a.shape.type()][b.shape.type()].solve(m, a, b);
     }
 
     private static void CircleToCircle(Manifold m, Body a, Body b) {
@@ -38,7 +28,7 @@ abstract class Collisions {
         CircleShape B = (CircleShape) b.shape;
 
         // Calculate translational vector, which is normal
-        Vector2 normal = b.position().sub(a.position());
+        Vector2 normal = b.position().sub(a.position(), m.tmp0);
 
         double dist_sqr = normal.len2();
         double radius = A.radius + B.radius;
@@ -73,14 +63,14 @@ abstract class Collisions {
         m.contactCount = 0;
 
         // Transform circle center to Polygon model space
-        Vector2 center = B_u.transpose().muli(a.position().sub(b.position()));
+        Vector2 center = B_u.transpose(m.mat0).muli(a.position().sub(b.position(), m.tmp0));
 
         // Find edge with minimum penetration
         // Exact concept as using support points in Polygon vs Polygon
         double separation = -Float.MAX_VALUE;
         int faceNormal = 0;
         for (int i = 0; i < B.vertexCount; ++i) {
-            double s = Vector2.dot(B.normals[i], center.sub(B.vertices[i]));
+            double s = Vector2.dot(B.normals[i], center.sub(B.vertices[i], m.tmp1));
 
             if (s > A.radius) {
                 return;
@@ -107,8 +97,8 @@ abstract class Collisions {
         }
 
         // Determine which voronoi region of the edge center of circle lies within
-        double dot1 = Vector2.dot(center.sub(v1), v2.sub(v1));
-        double dot2 = Vector2.dot(center.sub(v2), v1.sub(v2));
+        double dot1 = Vector2.dot(center.sub(v1, m.tmp1), v2.sub(v1, m.tmp2));
+        double dot2 = Vector2.dot(center.sub(v2, m.tmp1), v1.sub(v2, m.tmp2));
         m.penetration = A.radius - separation;
 
         // Closest to v1
@@ -137,7 +127,7 @@ abstract class Collisions {
         else {
             Vector2 n = B.normals[faceNormal];
 
-            if (Vector2.dot(center.sub(v1), n) > A.radius) {
+            if (Vector2.dot(center.sub(v1, m.tmp1), n) > A.radius) {
                 return;
             }
 
@@ -161,15 +151,15 @@ abstract class Collisions {
         m.contactCount = 0;
 
         // Check for a separating axis with A's face planes
-        int[] faceA = {0};
-        double penetrationA = findAxisLeastPenetration(faceA, A, B);
+        double penetrationA = findAxisLeastPenetration(m, A, B);
+        int faceA = m.faceIndex;
         if (penetrationA >= 0.0) {
             return;
         }
 
         // Check for a separating axis with B's face planes
-        int[] faceB = {0};
-        double penetrationB = findAxisLeastPenetration(faceB, B, A);
+        double penetrationB = findAxisLeastPenetration(m, B, A);
+        int faceB = m.faceIndex;
         if (penetrationB >= 0.0) {
             return;
         }
@@ -184,19 +174,19 @@ abstract class Collisions {
         if (MathUtils.biasGreaterThan(penetrationA, penetrationB)) {
             RefPoly = A;
             IncPoly = B;
-            referenceIndex = faceA[0];
+            referenceIndex = faceA;
             flip = false;
         } else {
             RefPoly = B;
             IncPoly = A;
-            referenceIndex = faceB[0];
+            referenceIndex = faceB;
             flip = true;
         }
 
         // World space incident face
-        Vector2[] incidentFace = Vector2.arrayOf(2);
+        Vector2[] incidentFace = m.incidentFace;
 
-        findIncidentFace(incidentFace, RefPoly, IncPoly, referenceIndex);
+        findIncidentFace(m, incidentFace, RefPoly, IncPoly, referenceIndex);
 
         // y
         // ^ .n ^
@@ -218,15 +208,15 @@ abstract class Collisions {
 
         // Transform vertices to world space
         Mat2 u = RefPoly.body.orientMat();
-        v1 = u.mul(v1).addi(RefPoly.body.position());
-        v2 = u.mul(v2).addi(RefPoly.body.position());
+        v1 = u.mul(v1, m.tmp0).addi(RefPoly.body.position());
+        v2 = u.mul(v2, m.tmp1).addi(RefPoly.body.position());
 
         // Calculate reference face side normal in world space
-        Vector2 sidePlaneNormal = v2.sub(v1);
+        Vector2 sidePlaneNormal = v2.sub(v1, m.tmp2);
         sidePlaneNormal.normalize();
 
         // Orthogonalize
-        Vector2 refFaceNormal = Vector2.cross(sidePlaneNormal, 1.0, new Vector2());
+        Vector2 refFaceNormal = Vector2.cross(sidePlaneNormal, 1.0, m.tmp3);
 
         // ax + by = c
         // c is distance from origin
@@ -235,11 +225,11 @@ abstract class Collisions {
         double posSide = Vector2.dot(sidePlaneNormal, v2);
 
         // Clip incident face to reference face side planes
-        if (clip(sidePlaneNormal.neg(), negSide, incidentFace) < 2) {
+        if (clip(m, sidePlaneNormal.neg(m.tmp4), negSide, incidentFace) < 2) {
             return; // Due to floating point error, possible to not have required points
         }
 
-        if (clip(sidePlaneNormal, posSide, incidentFace) < 2) {
+        if (clip(m, sidePlaneNormal, posSide, incidentFace) < 2) {
             return; // Due to floating point error, possible to not have required points
         }
 
@@ -275,30 +265,34 @@ abstract class Collisions {
         m.contactCount = cp;
     }
 
-    private static double findAxisLeastPenetration(int[] faceIndex, PolygonShape A, PolygonShape B) {
+    /**
+     * Find the face of A with the least penetration in B.
+     * The index of the face is stored in {@link Manifold#faceIndex}.
+     * @return The penetration distance.
+     */
+    private static double findAxisLeastPenetration(Manifold m, PolygonShape A, PolygonShape B) {
         double bestDistance = -Float.MAX_VALUE;
         int bestIndex = 0;
 
         Mat2 Au = A.body.orientMat();
-        Mat2 Bu = B.body.orientMat();
+        Mat2 buT = B.body.orientMat().transpose(m.mat0);
 
         for (int i = 0; i < A.vertexCount; ++i) {
             // Retrieve a face normal from A
-            Vector2 nw = Au.mul(A.normals[i]);
+            Vector2 nw = Au.mul(A.normals[i], m.tmp0);
 
             // Transform face normal into B's model space
-            Mat2 buT = Bu.transpose();
-            Vector2 n = buT.mul(nw);
+            Vector2 n = buT.mul(nw, m.tmp1);
 
             // Retrieve support point from B along -n
-            Vector2 s = B.getSupport(n.neg());
+            Vector2 s = B.getSupport(n.neg(m.tmp2));
 
             // Retrieve vertex on face from A, transform into
             // B's model space
-            Vector2 v = buT.muli(Au.mul(A.vertices[i]).addi(A.body.position()).subi(B.body.position()));
+            Vector2 v = buT.muli(Au.mul(A.vertices[i], m.tmp3).addi(A.body.position()).subi(B.body.position()));
 
             // Compute penetration distance (in B's model space)
-            double d = Vector2.dot(n, s.sub(v));
+            double d = Vector2.dot(n, s.sub(v, m.tmp2));
 
             // Store greatest distance
             if (d > bestDistance) {
@@ -307,19 +301,19 @@ abstract class Collisions {
             }
         }
 
-        faceIndex[0] = bestIndex;
+        m.faceIndex = bestIndex;
         return bestDistance;
     }
 
-    private static void findIncidentFace(Vector2[] v, PolygonShape RefPoly, PolygonShape IncPoly, int referenceIndex) {
+    private static void findIncidentFace(Manifold m, Vector2[] v, PolygonShape RefPoly, PolygonShape IncPoly, int referenceIndex) {
         Vector2 referenceNormal = RefPoly.normals[referenceIndex];
 
         Mat2 RefPoly_u = RefPoly.body.orientMat();
         Mat2 IncPoly_u = IncPoly.body.orientMat();
 
         // Calculate normal in incident's frame of reference
-        referenceNormal = RefPoly_u.mul(referenceNormal); // To world space
-        referenceNormal = IncPoly_u.transpose().mul(referenceNormal); // To incident's model space
+        referenceNormal = RefPoly_u.mul(referenceNormal, m.tmp0); // To world space
+        referenceNormal = IncPoly_u.transpose(m.mat0).muli(referenceNormal); // To incident's model space
 
         // Find most anti-normal face on incident polygon
         int incidentFace = 0;
@@ -334,17 +328,16 @@ abstract class Collisions {
         }
 
         // Assign face vertices for incidentFace
-        v[0] = IncPoly_u.mul(IncPoly.vertices[incidentFace]).addi(IncPoly.body.position());
+        IncPoly_u.mul(IncPoly.vertices[incidentFace], v[0]).addi(IncPoly.body.position());
         incidentFace = incidentFace + 1 >= IncPoly.vertexCount ? 0 : incidentFace + 1;
-        v[1] = IncPoly_u.mul(IncPoly.vertices[incidentFace]).addi(IncPoly.body.position());
+        IncPoly_u.mul(IncPoly.vertices[incidentFace], v[1]).addi(IncPoly.body.position());
     }
 
-    private static int clip(Vector2 n, double c, Vector2[] face) {
+    private static int clip(Manifold m, Vector2 n, double c, Vector2[] face) {
         int sp = 0;
-        Vector2[] out = {
-                new Vector2(face[0]),
-                new Vector2(face[1])
-        };
+        Vector2[] out = m.clippedFace;
+        out[0].set(face[0]);
+        out[1].set(face[1]);
 
         // Retrieve distances from each endpoint to the line
         // d = ax + by - c
@@ -364,8 +357,8 @@ abstract class Collisions {
         }
 
         // Assign our new converted values
-        face[0] = out[0];
-        face[1] = out[1];
+        face[0].set(out[0]);
+        face[1].set(out[1]);
 
         return sp;
     }
@@ -0,0 +1,20 @@
+package gyromite.scene.physics;
+
+import java.util.List;
+
+/**
+ * Contact solver of the {@link PhysicsProvider}.
+ * Integrate the bodies and resolve the contacts found by the narrow phase.
+ * See {@link ObjectContactSolver}.
+ */
+public interface ContactSolver {
+    /**
+     * Integrate the forces, apply the contact impulses, integrate the velocities
+     * and correct the positions of the bodies.
+     * @param bodies The active bodies, including all the bodies of the contacts.
+     * @param contacts The contacts with at least one contact point.
+     * @param dt The time step.
+     * @param iterations The number of impulse iterations.
+     */
+    void solve(List<Body> bodies, List<Manifold> contacts, double dt, int iterations);
+}
@@ -1,8 +1,14 @@
 package gyromite.scene.physics;
 
+import gyromite.core.Mat2;
 import gyromite.core.MathUtils;
 import gyromite.core.Vector2;
 
+/**
+ * Collision info of a pair of bodies.
+ * Manifolds are pooled by the {@link PhysicsProvider} and reused at each step,
+ * they are only valid until the next step.
+ */
 public class Manifold {
     public Body A;
     public Body B;
@@ -15,7 +21,18 @@ public class Manifold {
     public double df;
     public double sf;
 
-    Manifold(Body a, Body b) {
+    // Scratch values of the narrow phase and the solver, to avoid allocations
+    final Vector2 tmp0 = new Vector2(), tmp1 = new Vector2(), tmp2 = new Vector2();
+    final Vector2 tmp3 = new Vector2(), tmp4 = new Vector2();
+    final Mat2 mat0 = new Mat2();
+    final Vector2[] incidentFace = Vector2.arrayOf(2);
+    final Vector2[] clippedFace = Vector2.arrayOf(2);
+    int faceIndex;
+
+    Manifold() {
+    }
+
+    void set(Body a, Body b) {
         A = a;
         B = b;
     }
@@ -26,25 +43,33 @@ public class Manifold {
     }
 
     void initialize() {
+        BodyArrays arrays = A.physics().arrays;
+        int a = A.slot, b = B.slot;
+
         // Calculate average restitution
-        e = StrictMath.min(A.restitution, B.restitution);
+        e = StrictMath.min(arrays.restitution[a], arrays.restitution[b]);
 
         // Calculate static and dynamic friction
-        sf = StrictMath.sqrt(A.staticFriction * A.staticFriction + B.staticFriction * B.staticFriction);
-        df = StrictMath.sqrt(A.dynamicFriction * A.dynamicFriction + B.dynamicFriction * B.dynamicFriction);
+        sf = StrictMath.sqrt(arrays.staticFriction[a] * arrays.staticFriction[a] + arrays.staticFriction[b] * arrays.staticFriction[b]);
+        df = StrictMath.sqrt(arrays.dynamicFriction[a] * arrays.dynamicFriction[a] + arrays.dynamicFriction[b] * arrays.dynamicFriction[b]);
+
+        int g = A.mode() == Body.Mode.STATIC ? b : a;
+        double gx = arrays.gx[g] * A.physics().dt;
+        double gy = arrays.gy[g] * A.physics().dt;
+        double gravityVel2 = gx * gx + gy * gy;
 
         for (int i = 0; i < contactCount; ++i)
         {
             // Calculate radii from COM to contact
-            Vector2 ra = contacts[i].sub( A.position );
-            Vector2 rb = contacts[i].sub( B.position );
+            Vector2 ra = contacts[i].sub( A.position, tmp0 );
+            Vector2 rb = contacts[i].sub( B.position, tmp1 );
 
-            Vector2 rv = B.velocity.add( Vector2.cross( B.angularVelocity, rb, new Vector2() ) ).subi( A.velocity ).subi( Vector2.cross( A.angularVelocity, ra, new Vector2() ) );
+            Vector2 rv = relativeVelocity( ra, rb, tmp2 );
 
             // Determine if we should perform a resting collision or not
             // The idea is if the only thing moving this object is gravity,
             // then the collision should be performed without any restitution
-            if (rv.len2() < (A.mode() == Body.Mode.STATIC ? B : A).gravity.mul(A.physics().dt).len2() + MathUtils.EPSILON)
+            if (rv.len2() < gravityVel2 + MathUtils.EPSILON)
             {
                 e = 0.0;
             }
@@ -57,17 +82,19 @@ public class Manifold {
         }
 
         // Return if both objects have infinite mass
-        if (MathUtils.equal(A.invMass + B.invMass, 0)) {
+        BodyArrays arrays = A.physics().arrays;
+        double invMassA = arrays.invMass[A.slot], invMassB = arrays.invMass[B.slot];
+        if (MathUtils.equal(invMassA + invMassB, 0)) {
             return;
         }
 
         for (int i = 0; i < contactCount; ++i) {
             // Calculate radii from COM to contact
-            Vector2 ra = contacts[i].sub(A.position());
-            Vector2 rb = contacts[i].sub(B.position());
+            Vector2 ra = contacts[i].sub(A.position(), tmp0);
+            Vector2 rb = contacts[i].sub(B.position(), tmp1);
 
             // Relative velocity
-            Vector2 rv = B.velocity.add(Vector2.cross(B.angularVelocity, rb, new Vector2())).subi(A.velocity).subi(Vector2.cross(A.angularVelocity, ra, new Vector2()));
+            Vector2 rv = relativeVelocity(ra, rb, tmp2);
 
             // Relative velocity along the normal
             double contactVel = Vector2.dot(rv, normal);
@@ -79,7 +106,7 @@ public class Manifold {
 
             double raCrossN = Vector2.cross(ra, normal);
             double rbCrossN = Vector2.cross(rb, normal);
-            double invMassSum = A.invMass + B.invMass + (raCrossN * raCrossN) * A.invInertia + (rbCrossN * rbCrossN) * B.invInertia;
+            double invMassSum = invMassA + invMassB + (raCrossN * raCrossN) * arrays.invInertia[A.slot] + (rbCrossN * rbCrossN) * arrays.invInertia[B.slot];
 
             // Calculate impulse scalar
             double j = -(1.0 + e) * contactVel;
@@ -87,14 +114,13 @@ public class Manifold {
             j /= contactCount;
 
             // Apply impulse
-            Vector2 impulse = normal.mul(j);
-            A.applyImpulse(impulse.neg(), ra);
-            B.applyImpulse(impulse, rb);
+            A.applyImpulse(-normal.x * j, -normal.y * j, ra);
+            B.applyImpulse(normal.x * j, normal.y * j, rb);
 
             // Friction impulse
-            rv = B.velocity.add(Vector2.cross(B.angularVelocity, rb, new Vector2())).subi(A.velocity).subi(Vector2.cross(A.angularVelocity, ra, new Vector2()));
+            rv = relativeVelocity(ra, rb, tmp2);
 
-            Vector2 t = new Vector2(rv);
+            Vector2 t = tmp3.set(rv);
             t.addsi(normal, -Vector2.dot(rv, normal));
             t.normalize();
 
@@ -111,24 +137,40 @@ public class Manifold {
             // Coulumb's law
             Vector2 tangentImpulse;
             if (StrictMath.abs(jt) < j * sf) {
-                tangentImpulse = t.mul(jt);
+                tangentImpulse = t.muli(jt);
             } else {
-                tangentImpulse = t.mul(j).muli(-df);
+                tangentImpulse = t.muli(j).muli(-df);
             }
 
             // Apply friction impulse
-            A.applyImpulse(tangentImpulse.neg(), ra);
-            B.applyImpulse(tangentImpulse, rb);
+            A.applyImpulse(-tangentImpulse.x, -tangentImpulse.y, ra);
+            B.applyImpulse(tangentImpulse.x, tangentImpulse.y, rb);
         }
     }
 
+    /**
+     * Compute the relative velocity of B from A at a contact point.
+     * @param ra The contact point relative to A.
+     * @param rb The contact point relative to B.
+     * @param out The vector to set.
+     * @return The out vector.
+     */
+    private Vector2 relativeVelocity(Vector2 ra, Vector2 rb, Vector2 out) {
+        BodyArrays arrays = A.physics().arrays;
+        int a = A.slot, b = B.slot;
+        out.x = arrays.vx[b] - arrays.w[b] * rb.y - arrays.vx[a] + arrays.w[a] * ra.y;
+        out.y = arrays.vy[b] + arrays.w[b] * rb.x - arrays.vy[a] - arrays.w[a] * ra.x;
+        return out;
+    }
+
     void positionalCorrection() {
-        if(transparent || MathUtils.equal(A.invMass + B.invMass, 0)) {
+        double invMassA = A.invMass(), invMassB = B.invMass();
+        if(transparent || MathUtils.equal(invMassA + invMassB, 0)) {
             return;
         }
-        double correction = StrictMath.max(penetration - PhysicsProvider.PENETRATION_ALLOWANCE, 0.0) / (A.invMass + B.invMass) * PhysicsProvider.PENETRATION_CORRECTION;
+        double correction = StrictMath.max(penetration - PhysicsProvider.PENETRATION_ALLOWANCE, 0.0) / (invMassA + invMassB) * PhysicsProvider.PENETRATION_CORRECTION;
 
-        A.applyCorrection(normal, -A.invMass * correction);
-        B.applyCorrection(normal, B.invMass * correction);
+        A.applyCorrection(normal, -invMassA * correction);
+        B.applyCorrection(normal, invMassB * correction);
     }
 }
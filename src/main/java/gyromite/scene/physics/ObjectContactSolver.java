@@ -0,0 +1,38 @@
+package gyromite.scene.physics;
+
+import java.util.List;
+
+/**
+ * Contact solver going through the {@link Body} and {@link Manifold} objects, one body at a time.
+ */
+public class ObjectContactSolver implements ContactSolver {
+    @Override
+    public void solve(List<Body> bodies, List<Manifold> contacts, double dt, int iterations) {
+        // Integrate forces
+        for (int i = 0; i < bodies.size(); ++i) {
+            bodies.get(i).integrateForces(dt);
+        }
+
+        // Initialize collision
+        for (int i = 0; i < contacts.size(); ++i) {
+            contacts.get(i).initialize();
+        }
+
+        // Solve collisions
+        for (int j = 0; j < iterations; ++j) {
+            for (int i = 0; i < contacts.size(); ++i) {
+                contacts.get(i).applyImpulse();
+            }
+        }
+
+        // Integrate velocities
+        for (int i = 0; i < bodies.size(); ++i) {
+            bodies.get(i).integrateVelocity(dt);
+        }
+
+        // Correct positions
+        for (int i = 0; i < contacts.size(); ++i) {
+            contacts.get(i).positionalCorrection();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package gyromite.scene.physics;
 
 import gyromite.core.Mat2;
 import gyromite.core.Vector2;
+import gyromite.scene.Drawable;
 import gyromite.scene.Node;
 
 import java.awt.*;
@@ -9,6 +10,9 @@ import java.awt.geom.Ellipse2D;
 import java.awt.geom.Line2D;
 import java.awt.geom.Path2D;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.function.BiConsumer;
 
 /**
  * The physics manager.
@@ -17,6 +21,11 @@ import java.util.ArrayList;
 public class PhysicsProvider {
     public static final double PENETRATION_ALLOWANCE = 0.05;
     public static final double PENETRATION_CORRECTION = 0.4;
+    public static final double BROAD_PHASE_CELL_SIZE = 32.0;
+    public static final int SLEEP_TICKS = 25;
+    public static final double SLEEP_VELOCITY = 2.0;
+    public static final double SLEEP_ANGULAR_VELOCITY = 0.05;
+    private static final Comparator<Body> BODY_ORDER = Comparator.comparingInt(body -> body.id);
 
     /**
      * The gravity force applied to all bodies
@@ -25,87 +34,221 @@ public class PhysicsProvider {
 
     final double dt;
     final int iterations;
+    final BodyArrays arrays = new BodyArrays();
     private final ArrayList<Body> bodies = new ArrayList<>();
+    private final ArrayList<Body> activeBodies = new ArrayList<>();
+    private final ArrayList<Body> wokenBodies = new ArrayList<>(); // Woken during the step, activated at safe points
+    private final ArrayList<Body> touchedBodies = new ArrayList<>(); // Sleeping bodies touched by the active bodies
+    private final ArrayList<Body> wokenBatch = new ArrayList<>();
+    private final ArrayList<Body> removedBodies = new ArrayList<>();
     private final ArrayList<Manifold> contacts = new ArrayList<>();
+    private final ArrayList<Manifold> manifoldPool = new ArrayList<>();
+    private int usedManifolds = 0;
+    int nextBodyId = 0;
+    private boolean stepping = false;
+    private BroadPhase broadPhase = new SpatialHashBroadPhase(BROAD_PHASE_CELL_SIZE);
+    private final BiConsumer<Body, Body> narrowPhase = this::collide;
+    private ContactSolver contactSolver = new ObjectContactSolver();
 
     public PhysicsProvider(double dt, int iterations) {
         this.dt = dt;
         this.iterations = iterations;
     }
 
+    /**
+     * @return The collision broad phase. {@link SpatialHashBroadPhase} by default.
+     */
+    public BroadPhase broadPhase() {
+        return broadPhase;
+    }
+
+    /**
+     * Set the collision broad phase.
+     * @param broadPhase The broad phase finding the pairs of bodies which may collide.
+     */
+    public void setBroadPhase(BroadPhase broadPhase) {
+        this.broadPhase.clear();
+        this.broadPhase = broadPhase;
+        for (Body body : bodies) {
+            if (body.isSleeping()) {
+                broadPhase.bodySlept(body);
+            }
+        }
+    }
+
+    /**
+     * @return The contact solver. {@link ObjectContactSolver} by default.
+     */
+    public ContactSolver contactSolver() {
+        return contactSolver;
+    }
+
+    /**
+     * Set the contact solver.
+     * @param contactSolver The solver integrating the bodies and resolving the contacts.
+     */
+    public void setContactSolver(ContactSolver contactSolver) {
+        this.contactSolver = contactSolver;
+    }
+
+    /**
+     * @return The number of bodies which are not sleeping.
+     */
+    public int activeBodyCount() {
+        return activeBodies.size();
+    }
+
     /**
      * Step physics. Called in game loop.
+     * Only the active bodies are walked, the sleeping bodies are woken by the setters
+     * of their velocity and forces, the moves of their node and the contacts.
+     * The bodies woken during the step are activated after the broad phase, or at the end of the step.
+     * The step does not allocate once the pools and lists have grown.
      */
     public void step() {
+        stepping = true;
+
         // Remove pending
-        bodies.removeIf(body -> body.pendingRemove);
+        if (!removedBodies.isEmpty()) {
+            for (int i = 0; i < removedBodies.size(); ++i) {
+                Body body = removedBodies.get(i);
+                if (body.isSleeping()) {
+                    broadPhase.bodyWoken(body);
+                }
+                // The bodies are sorted by id
+                int index = Collections.binarySearch(bodies, body, BODY_ORDER);
+                if (index >= 0) {
+                    bodies.remove(index);
+                    arrays.free(body.slot);
+                }
+            }
+            removedBodies.clear();
+            activeBodies.removeIf(body -> body.pendingRemove);
+        }
 
         // Clear contacts
         contacts.clear();
-        for(Body body : bodies) {
-            body.clearContacts();
+        usedManifolds = 0;
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            activeBodies.get(i).clearContacts();
         }
 
         // Compute bodies position from node world position
-        for(Body body : bodies) {
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            Body body = activeBodies.get(i);
             body.computePosition();
+            body.computeAABB();
         }
 
         // Generate new collision info
-        for (int i = 0; i < bodies.size(); ++i) {
-            Body A = bodies.get(i);
+        broadPhase.findPairs(bodies, activeBodies, narrowPhase);
 
-            for (int j = i + 1; j < bodies.size(); ++j) {
-                Body B = bodies.get(j);
-
-                Manifold m = new Manifold(A, B);
-                m.solve();
+        // Wake sleeping bodies touched by active bodies and find the pairs
+        // of the woken bodies, until no more sleeping body is touched
+        while (!touchedBodies.isEmpty()) {
+            for (int i = 0; i < touchedBodies.size(); ++i) {
+                touchedBodies.get(i).wake();
+            }
+            touchedBodies.clear();
 
-                if (m.contactCount > 0) {
-                    contacts.add(m);
-                }
+            wokenBatch.clear();
+            for (int i = 0; i < wokenBodies.size(); ++i) {
+                wokenBatch.add(wokenBodies.get(i));
+            }
+            activateWokenBodies();
+            for (int i = 0; i < wokenBatch.size(); ++i) {
+                Body body = wokenBatch.get(i);
+                body.clearContacts();
+                body.computePosition();
+                body.computeAABB();
             }
+            broadPhase.findPairs(bodies, wokenBatch, narrowPhase);
         }
+        wokenBatch.clear();
 
-        // Integrate forces
-        for (Body value : bodies) {
-            value.integrateForces(dt);
+        // Integrate and solve collisions
+        contactSolver.solve(activeBodies, contacts, dt, iterations);
+
+        // Clear all forces
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            activeBodies.get(i).clearForces();
         }
 
-        // Initialize collision
-        for (Manifold manifold : contacts) {
-            manifold.initialize();
+        // Update bodies contacts
+        for (int i = 0; i < contacts.size(); ++i) {
+            Manifold contact = contacts.get(i);
+            contact.A.addContact(contact.B, contact);
+            contact.B.addContact(contact.A, contact);
+        }
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            activeBodies.get(i).updateContacts();
         }
 
-        // Solve collisions
-        for (int j = 0; j < iterations; ++j) {
-            for (Manifold contact : contacts) {
-                contact.applyImpulse();
+        // Put bodies at rest to sleep
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            activeBodies.get(i).updateRest();
+        }
+        int active = 0;
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            Body body = activeBodies.get(i);
+            if (body.canSleep()) {
+                body.sleep();
+                broadPhase.bodySlept(body);
+            } else {
+                activeBodies.set(active++, body);
             }
         }
+        while (activeBodies.size() > active) {
+            activeBodies.remove(activeBodies.size() - 1);
+        }
 
-        // Integrate velocities
-        for (Body body : bodies) {
-            body.integrateVelocity(dt);
+        // Bodies woken by the solver or the contact listeners
+        activateWokenBodies();
+        stepping = false;
+    }
+
+    void bodyWoken(Body body) {
+        if (stepping) {
+            // The active bodies are being walked
+            wokenBodies.add(body);
+        } else {
+            broadPhase.bodyWoken(body);
+            activeBodies.add(body);
         }
+    }
 
-        // Correct positions
-        for (Manifold contact : contacts) {
-            contact.positionalCorrection();
+    private void activateWokenBodies() {
+        for (int i = 0; i < wokenBodies.size(); ++i) {
+            Body body = wokenBodies.get(i);
+            broadPhase.bodyWoken(body);
+            activeBodies.add(body);
         }
+        wokenBodies.clear();
+    }
 
-        // Clear all forces
-        for (Body body : bodies) {
-            body.clearForces();
+    private void collide(Body A, Body B) {
+        if (A.mode() == Body.Mode.STATIC && B.mode() == Body.Mode.STATIC) {
+            return;
         }
 
-        // Update bodies contacts
-        for (Manifold contact : contacts) {
-            contact.A.addContact(contact.B, contact);
-            contact.B.addContact(contact.A, contact);
+        // Reuse the pooled manifolds, a manifold without contact is reused by the next pair
+        if (usedManifolds == manifoldPool.size()) {
+            manifoldPool.add(new Manifold());
         }
-        for(Body b : bodies) {
-            b.updateContacts();
+        Manifold m = manifoldPool.get(usedManifolds);
+        m.set(A, B);
+        m.solve();
+
+        if (m.contactCount > 0) {
+            usedManifolds++;
+            contacts.add(m);
+
+            // Woken after the broad phase, which still sees them sleeping
+            if (A.isSleeping()) {
+                touchedBodies.add(A);
+            } else if (B.isSleeping()) {
+                touchedBodies.add(B);
+            }
         }
     }
 
@@ -119,16 +262,21 @@ public class PhysicsProvider {
     public Body add(Node node, Shape shape, Body.Mode mode) {
         Body b = new Body(this, node, shape, mode);
         bodies.add(b);
+        activeBodies.add(b);
         return b;
     }
 
     /**
      * Remove a body from physics.
-     * The body will be removed from the list in the next step.
+     * The body will be removed from the list in the next step,
+     * then its state is reused by the next bodies and it must not be used anymore.
      * @param body The body
      */
     public void remove(Body body) {
-        body.pendingRemove = true;
+        if (!body.pendingRemove) {
+            body.pendingRemove = true;
+            removedBodies.add(body);
+        }
     }
 
     /**
@@ -137,27 +285,42 @@ public class PhysicsProvider {
     public void clear() {
         contacts.clear();
         bodies.clear();
+        activeBodies.clear();
+        wokenBodies.clear();
+        touchedBodies.clear();
+        removedBodies.clear();
+        arrays.clear();
+        broadPhase.clear();
     }
 
     /**
      * Render physics bodies shapes and collision points for debugging
      */
     public void render(Graphics2D g) {
+        snapshot().draw(g);
+    }
+
+    /**
+     * Capture the physics bodies shapes and collision points for debugging
+     * @return The shapes to draw
+     */
+    public Drawable snapshot() {
+        var shapes = new ArrayList<java.awt.Shape>();
+        var colors = new ArrayList<Color>();
+
         for (Body b : bodies) {
             b.computePosition(); // Compute position for render
-            if(b.mode() == Body.Mode.TRANSPARENT) {
-                g.setColor(Color.GRAY);
-            } else {
-                g.setColor(Color.BLUE);
-            }
+            Color color = b.mode() == Body.Mode.TRANSPARENT ? Color.GRAY : Color.BLUE;
             if (b.shape instanceof CircleShape) {
                 CircleShape c = (CircleShape) b.shape;
 
                 double rx = StrictMath.cos(b.orient()) * c.radius;
                 double ry = StrictMath.sin(b.orient()) * c.radius;
 
-                g.draw(new Ellipse2D.Double(b.position().x - c.radius, b.position().y - c.radius, c.radius * 2, c.radius * 2));
-                g.draw(new Line2D.Double(b.position().x, b.position().y, b.position().x + rx, b.position().y + ry));
+                shapes.add(new Ellipse2D.Double(b.position().x - c.radius, b.position().y - c.radius, c.radius * 2, c.radius * 2));
+                colors.add(color);
+                shapes.add(new Line2D.Double(b.position().x, b.position().y, b.position().x + rx, b.position().y + ry));
+                colors.add(color);
             } else if (b.shape instanceof PolygonShape) {
                 PolygonShape p = (PolygonShape) b.shape;
                 Mat2 u = b.orientMat();
@@ -176,18 +339,26 @@ public class PhysicsProvider {
                 }
                 path.closePath();
 
-                g.draw(path);
+                shapes.add(path);
+                colors.add(color);
             }
         }
 
-        g.setColor(Color.RED);
         for (Manifold m : contacts) {
             for (int i = 0; i < m.contactCount; i++) {
                 Vector2 v = m.contacts[i];
                 Vector2 n = m.normal;
 
-                g.draw(new Line2D.Double(v.x, v.y, v.x + n.x * 4.0, v.y + n.y * 4.0));
+                shapes.add(new Line2D.Double(v.x, v.y, v.x + n.x * 4.0, v.y + n.y * 4.0));
+                colors.add(Color.RED);
             }
         }
+
+        return g -> {
+            for (int i = 0; i < shapes.size(); i++) {
+                g.setColor(colors.get(i));
+                g.draw(shapes.get(i));
+            }
+        };
     }
 }
@@ -1,5 +1,7 @@
 package gyromite.scene.physics;
 
+import gyromite.core.Mat2;
+import gyromite.core.Rect2;
 import gyromite.core.Vector2;
 
 /**
@@ -30,6 +32,11 @@ public class PolygonShape extends Shape {
         setBox(hw, hh);
     }
 
+    @Override
+    int type() {
+        return POLYGON;
+    }
+
     @Override
     public Shape clone() {
         PolygonShape p = new PolygonShape();
@@ -67,10 +74,25 @@ public class PolygonShape extends Shape {
 
     @Override
     protected void computeMass() {
-        body.mass = density() * area;
-        body.invMass = (body.mass != 0.0) ? 1.0 / body.mass : 0.0;
-        body.inertia = I * density();
-        body.invInertia = (body.inertia != 0.0) ? 1.0 / body.inertia : 0.0;
+        body.setMass(density() * area, I * density());
+    }
+
+    @Override
+    protected void computeAABB(Rect2 aabb) {
+        Mat2 u = body.orientMat;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < vertexCount; ++i) {
+            Vector2 v = vertices[i];
+            double x = u.m00 * v.x + u.m01 * v.y;
+            double y = u.m10 * v.x + u.m11 * v.y;
+            minX = StrictMath.min(minX, x);
+            minY = StrictMath.min(minY, y);
+            maxX = StrictMath.max(maxX, x);
+            maxY = StrictMath.max(maxY, y);
+        }
+        Vector2 p = body.position;
+        aabb.set(p.x + minX, p.y + minY, p.x + maxX, p.y + maxY);
     }
 
     private void computeCentroid() {
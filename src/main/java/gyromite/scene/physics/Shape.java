@@ -1,9 +1,15 @@
 package gyromite.scene.physics;
 
+import gyromite.core.Rect2;
+
 /**
  * Physics Shape
  */
 public abstract class Shape {
+    // Shape types, index of the collision solvers
+    static final int CIRCLE = 0;
+    static final int POLYGON = 1;
+
     private double density = 1.0;
 
     Body body;
@@ -27,4 +33,15 @@ public abstract class Shape {
     protected abstract void initialize();
 
     protected abstract void computeMass();
+
+    /**
+     * @return The shape type, {@link #CIRCLE} or {@link #POLYGON}.
+     */
+    abstract int type();
+
+    /**
+     * Compute the world bounding box of the shape from the body position.
+     * @param aabb The bounding box to set.
+     */
+    protected abstract void computeAABB(Rect2 aabb);
 }
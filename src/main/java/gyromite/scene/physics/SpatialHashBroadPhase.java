@@ -0,0 +1,326 @@
+package gyromite.scene.physics;
+
+import gyromite.core.Rect2;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase using a uniform grid stored in a spatial hash.
+ * Each body is inserted in the cells covered by its bounding box,
+ * only the bodies sharing a cell are tested against each other.
+ * The cell size should be close to the size of the map tiles.
+ * Sleeping bodies are kept in their own grid, so only the active
+ * bodies are inserted at each step.
+ */
+public class SpatialHashBroadPhase implements BroadPhase {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static class Cell {
+        final long key;
+        final int x, y;
+        int count = 0;
+        Body[] bodies = new Body[4];
+
+        Cell(long key, int x, int y) {
+            this.key = key;
+            this.x = x;
+            this.y = y;
+        }
+
+        void add(Body body) {
+            if (count == bodies.length) {
+                Body[] grown = new Body[count * 2];
+                System.arraycopy(bodies, 0, grown, 0, count);
+                bodies = grown;
+            }
+            bodies[count++] = body;
+        }
+
+        void remove(Body body) {
+            for (int i = 0; i < count; ++i) {
+                if (bodies[i] == body) {
+                    bodies[i] = bodies[--count];
+                    bodies[count] = null;
+                    return;
+                }
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < count; ++i) {
+                bodies[i] = null;
+            }
+            count = 0;
+        }
+    }
+
+    /**
+     * Open addressing hash table of cells.
+     * Cells are kept while they are not empty to avoid allocations.
+     */
+    private static class Grid {
+        private Cell[] table = new Cell[INITIAL_CAPACITY];
+        private int size = 0;
+
+        Cell get(int x, int y) {
+            long key = key(x, y);
+            int mask = table.length - 1;
+            int idx = hash(key) & mask;
+
+            Cell cell;
+            while ((cell = table[idx]) != null) {
+                if (cell.key == key) {
+                    return cell;
+                }
+                idx = (idx + 1) & mask;
+            }
+            return null;
+        }
+
+        Cell getOrCreate(int x, int y) {
+            Cell cell = get(x, y);
+            if (cell != null) {
+                return cell;
+            }
+            if ((size + 1) * 2 > table.length) {
+                rehash();
+            }
+            cell = new Cell(key(x, y), x, y);
+            insert(cell);
+            return cell;
+        }
+
+        void clear() {
+            table = new Cell[INITIAL_CAPACITY];
+            size = 0;
+        }
+
+        private void insert(Cell cell) {
+            int mask = table.length - 1;
+            int idx = hash(cell.key) & mask;
+            while (table[idx] != null) {
+                idx = (idx + 1) & mask;
+            }
+            table[idx] = cell;
+            size++;
+        }
+
+        private void rehash() {
+            // Drop the empty cells
+            Cell[] old = table;
+            int live = 0;
+            for (Cell cell : old) {
+                if (cell != null && cell.count > 0) {
+                    live++;
+                }
+            }
+            int capacity = INITIAL_CAPACITY;
+            while (capacity < (live + 1) * 4) {
+                capacity *= 2;
+            }
+
+            table = new Cell[capacity];
+            size = 0;
+            for (Cell cell : old) {
+                if (cell != null && cell.count > 0) {
+                    insert(cell);
+                }
+            }
+        }
+
+        private static long key(int x, int y) {
+            return ((long) x << 32) | (y & 0xffffffffL);
+        }
+
+        private static int hash(long key) {
+            key *= 0x9E3779B97F4A7C15L;
+            return (int) (key ^ (key >>> 32));
+        }
+    }
+
+    private double cellSize;
+    private double invCellSize;
+
+    private final Grid activeGrid = new Grid();
+    private final Grid sleepingGrid = new Grid();
+    private boolean rebuildSleepingGrid = false;
+
+    private Cell[] usedCells = new Cell[INITIAL_CAPACITY];
+    private int usedCount = 0;
+
+    public SpatialHashBroadPhase(double cellSize) {
+        setCellSize(cellSize);
+    }
+
+    /**
+     * @return The size of the grid cells.
+     */
+    public double cellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Set the size of the grid cells.
+     * @param cellSize The size of the cells, should be close to the tile size.
+     * @throws IllegalArgumentException If the cell size is not positive.
+     */
+    public void setCellSize(double cellSize) {
+        if (cellSize <= 0.0) {
+            throw new IllegalArgumentException("The cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.invCellSize = 1.0 / cellSize;
+        activeGrid.clear();
+        sleepingGrid.clear();
+        rebuildSleepingGrid = true;
+    }
+
+    @Override
+    public void findPairs(List<Body> bodies, List<Body> activeBodies, BiConsumer<Body, Body> callback) {
+        usedCount = 0;
+
+        if (rebuildSleepingGrid) {
+            rebuildSleepingGrid = false;
+            for (int i = 0; i < bodies.size(); ++i) {
+                if (bodies.get(i).isSleeping()) {
+                    bodySlept(bodies.get(i));
+                }
+            }
+        }
+
+        // Insert active bodies in the cells covered by their bounding box
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            Body body = activeBodies.get(i);
+            Rect2 box = body.aabb;
+            int x1 = cellCoord(box.min.x);
+            int y1 = cellCoord(box.min.y);
+            int x2 = cellCoord(box.max.x);
+            int y2 = cellCoord(box.max.y);
+
+            for (int y = y1; y <= y2; ++y) {
+                for (int x = x1; x <= x2; ++x) {
+                    Cell cell = activeGrid.getOrCreate(x, y);
+                    if (cell.count == 0) {
+                        addUsedCell(cell);
+                    }
+                    cell.add(body);
+                }
+            }
+        }
+
+        // Test active bodies sharing a cell
+        for (int c = 0; c < usedCount; ++c) {
+            Cell cell = usedCells[c];
+
+            for (int i = 0; i < cell.count; ++i) {
+                Body A = cell.bodies[i];
+
+                for (int j = i + 1; j < cell.count; ++j) {
+                    test(A, cell.bodies[j], cell.x, cell.y, callback);
+                }
+            }
+        }
+
+        // Test active bodies against the sleeping bodies
+        for (int i = 0; i < activeBodies.size(); ++i) {
+            Body A = activeBodies.get(i);
+            Rect2 box = A.aabb;
+            int x1 = cellCoord(box.min.x);
+            int y1 = cellCoord(box.min.y);
+            int x2 = cellCoord(box.max.x);
+            int y2 = cellCoord(box.max.y);
+
+            for (int y = y1; y <= y2; ++y) {
+                for (int x = x1; x <= x2; ++x) {
+                    Cell cell = sleepingGrid.get(x, y);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int j = 0; j < cell.count; ++j) {
+                        test(A, cell.bodies[j], x, y, callback);
+                    }
+                }
+            }
+        }
+
+        for (int c = 0; c < usedCount; ++c) {
+            usedCells[c].clear();
+            usedCells[c] = null;
+        }
+        usedCount = 0;
+    }
+
+    @Override
+    public void bodySlept(Body body) {
+        Rect2 box = body.aabb;
+        int x1 = cellCoord(box.min.x);
+        int y1 = cellCoord(box.min.y);
+        int x2 = cellCoord(box.max.x);
+        int y2 = cellCoord(box.max.y);
+
+        for (int y = y1; y <= y2; ++y) {
+            for (int x = x1; x <= x2; ++x) {
+                sleepingGrid.getOrCreate(x, y).add(body);
+            }
+        }
+    }
+
+    @Override
+    public void bodyWoken(Body body) {
+        Rect2 box = body.aabb;
+        int x1 = cellCoord(box.min.x);
+        int y1 = cellCoord(box.min.y);
+        int x2 = cellCoord(box.max.x);
+        int y2 = cellCoord(box.max.y);
+
+        for (int y = y1; y <= y2; ++y) {
+            for (int x = x1; x <= x2; ++x) {
+                Cell cell = sleepingGrid.get(x, y);
+                if (cell != null) {
+                    cell.remove(body);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        activeGrid.clear();
+        sleepingGrid.clear();
+        rebuildSleepingGrid = false;
+    }
+
+    private void test(Body A, Body B, int x, int y, BiConsumer<Body, Body> callback) {
+        if (!A.aabb.intersects(B.aabb)) {
+            return;
+        }
+
+        // Report the pair only in the cell containing the
+        // min corner of the intersection of the bounding boxes
+        double minX = StrictMath.max(A.aabb.min.x, B.aabb.min.x);
+        double minY = StrictMath.max(A.aabb.min.y, B.aabb.min.y);
+        if (cellCoord(minX) != x || cellCoord(minY) != y) {
+            return;
+        }
+
+        if (A.id < B.id) {
+            callback.accept(A, B);
+        } else {
+            callback.accept(B, A);
+        }
+    }
+
+    private int cellCoord(double v) {
+        return (int) StrictMath.floor(v * invCellSize);
+    }
+
+    private void addUsedCell(Cell cell) {
+        if (usedCount == usedCells.length) {
+            Cell[] grown = new Cell[usedCount * 2];
+            System.arraycopy(usedCells, 0, grown, 0, usedCount);
+            usedCells = grown;
+        }
+        usedCells[usedCount++] = cell;
+    }
+}
@@ -0,0 +1,105 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.scene.AnimatedSprite;
+import gyromite.scene.Scene;
+import gyromite.scene.Sprite;
+import gyromite.scene.SpriteAnimations;
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+
+public class TestAnimationLibrary {
+
+    @Test
+    public void sharesAnimations() {
+        var scene = new Scene();
+        assertTrue(scene.resources().loadImage("/img/bomb.png", "bomb"));
+        int[] definitions = { 0 };
+        SpriteAnimations bomb = null;
+        for (int i = 0; i < 3; i++) {
+            bomb = scene.animations().define("bomb", animations -> {
+                definitions[0]++;
+                animations.addAnimation("idle")
+                        .addFrames("bomb", 4, 2, 0, 3)
+                        .setSpeed(5)
+                        .loop(true);
+            });
+        }
+        assertEquals(1, definitions[0]);
+        assertSame(bomb, scene.animations().get("bomb"));
+        assertTrue(bomb.isFrozen());
+        assertEquals(4, bomb.get("idle").frameCount());
+
+        var first = new AnimatedSprite();
+        var second = new AnimatedSprite();
+        first.setAnimations(bomb);
+        second.setAnimations(bomb);
+        first.play("idle");
+        assertTrue(first.isPlaying());
+        assertFalse(second.isPlaying());
+        assertSame(first.animation("idle"), second.animation("idle"));
+
+        assertTrue(scene.animations().remove("bomb"));
+        assertNull(scene.animations().get("bomb"));
+        assertSame(bomb, first.animations());
+    }
+
+    @Test
+    public void freezesSharedAnimations() {
+        var scene = new Scene();
+        assertTrue(scene.resources().loadImage("/img/bomb.png", "bomb"));
+        var bomb = scene.animations().define("bomb", animations ->
+                animations.addAnimation("idle").addFrames("bomb", 4, 2, 0, 3));
+        var sprite = new AnimatedSprite();
+        sprite.setAnimations(bomb);
+
+        try {
+            sprite.addAnimation("explode");
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        try {
+            bomb.get("idle").setSpeed(10);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        assertFalse(bomb.has("explode"));
+    }
+
+    @Test
+    public void keepsImagesUntilLastSpriteDestroyed() {
+        var scene = new Scene();
+        scene.resources().setMemoryBudget(1);
+        assertTrue(scene.resources().loadImage("/img/bomb.png", "bomb"));
+        var bomb = scene.animations().define("bomb", animations ->
+                animations.addAnimation("idle").addFrames("bomb", 4, 2, 0, 3));
+        var image = bomb.get("idle").getFrame(0).image;
+        var sprite = scene.root().addChild(new AnimatedSprite());
+        sprite.setAnimations(bomb);
+        var title = scene.root().addChild(new Sprite("bomb"));
+
+        // Still used by the sprites
+        assertTrue(scene.animations().remove("bomb"));
+        assertTrue(scene.resources().loadImage("/img/particles.png", "particles"));
+        assertSame(image, acquiredImage(scene, "bomb"));
+
+        sprite.remove();
+        assertTrue(scene.resources().loadImage("/img/smick.png", "smick"));
+        assertSame(image, acquiredImage(scene, "bomb"));
+
+        // Evicted once the last sprite is destroyed
+        title.remove();
+        assertTrue(scene.resources().loadImage("/img/player.png", "player"));
+        assertNotSame(image, acquiredImage(scene, "bomb"));
+    }
+
+    private static BufferedImage acquiredImage(Scene scene, String id) {
+        var handle = scene.resources().acquireImage(id);
+        var image = handle.get();
+        handle.release();
+        return image;
+    }
+
+}
@@ -0,0 +1,35 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.Rect2;
+import gyromite.scene.AtlasFrame;
+
+import java.awt.image.BufferedImage;
+import static org.junit.Assert.*;
+
+public class TestAtlasFrame {
+
+    @Test
+    public void sharesFrames() {
+        var image = new BufferedImage(96, 80, BufferedImage.TYPE_INT_ARGB);
+        var frame = AtlasFrame.of(image, 6, 5, 8);
+        assertSame(image, frame.image);
+        assertEquals(32, frame.x);
+        assertEquals(16, frame.y);
+        assertEquals(16, frame.width);
+        assertEquals(16, frame.height);
+
+        assertSame(frame, AtlasFrame.of(image, 6, 5, 8));
+        assertSame(frame, AtlasFrame.of(image, new Rect2(32, 16, 48, 32)));
+        assertNotSame(frame, AtlasFrame.of(image, 6, 5, 9));
+        assertNotSame(frame, AtlasFrame.of(new BufferedImage(96, 80, BufferedImage.TYPE_INT_ARGB), 6, 5, 8));
+        assertEquals(96, AtlasFrame.of(image).width);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFrameOutsideImage() {
+        AtlasFrame.of(new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB), 8, 8, 16, 16);
+    }
+
+}
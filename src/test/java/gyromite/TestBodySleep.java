@@ -0,0 +1,172 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.scene.Node;
+import gyromite.scene.Scene;
+import gyromite.scene.physics.*;
+import static org.junit.Assert.*;
+
+public class TestBodySleep {
+
+    private static void step(Scene scene, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            scene.physics().step();
+        }
+    }
+
+    @Test
+    public void staticBodiesFallAsleep() {
+        var scene = new Scene();
+        var tile = scene.root().addChild(new Node());
+        Body body = tile.setBody(new PolygonShape(8, 8), Body.Mode.STATIC);
+
+        step(scene, 2);
+        assertTrue(body.isSleeping());
+        assertEquals(0, scene.physics().activeBodyCount());
+    }
+
+    @Test
+    public void velocityChangeWakes() {
+        var scene = new Scene();
+        var column = scene.root().addChild(new Node());
+        Body body = column.setBody(new PolygonShape(8, 8), Body.Mode.STATIC);
+        step(scene, 2);
+
+        body.setVelocity(0, 0);
+        assertTrue(body.isSleeping());
+        body.setVelocityY(50.0);
+        assertFalse(body.isSleeping());
+        step(scene, 1);
+        assertEquals(1.0, column.position().y, 1e-9);
+    }
+
+    @Test
+    public void ownerMoveWakes() {
+        var scene = new Scene();
+        var owner = scene.root().addChild(new Node());
+        var child = owner.addChild(new Node());
+        Body body = child.setBody(new CircleShape(4), Body.Mode.TRANSPARENT);
+        step(scene, 2);
+        assertTrue(body.isSleeping());
+
+        // Same world transform, the body keeps sleeping
+        owner.setPosition(0, 0);
+        assertTrue(body.isSleeping());
+
+        owner.setPosition(100, 20);
+        assertFalse(body.isSleeping());
+        step(scene, 1);
+        assertEquals(96.0, body.aabb().min.x, 1e-9);
+        assertEquals(16.0, body.aabb().min.y, 1e-9);
+    }
+
+    @Test
+    public void sleepingBodiesHaveNoContacts() {
+        var scene = new Scene();
+        var tile = scene.root().addChild(new Node());
+        var area = scene.root().addChild(new Node());
+        area.setPosition(6, 0);
+        Body tileBody = tile.setBody(new PolygonShape(4, 4), Body.Mode.STATIC);
+        Body areaBody = area.setBody(new CircleShape(4), Body.Mode.TRANSPARENT);
+        int[] events = new int[2];
+        tileBody.addBodyListener(new BodyListener() {
+            @Override
+            public void bodyEntered(Body b) {
+                events[0]++;
+            }
+            @Override
+            public void bodyExited(Body b) {
+                events[1]++;
+            }
+        });
+
+        step(scene, 1);
+        assertTrue(tileBody.isSleeping());
+        assertTrue(tileBody.contacts().isEmpty());
+        assertEquals(1, events[0]);
+
+        // Woken while still touching, the contact is not entered again
+        areaBody.wake();
+        step(scene, 1);
+        assertEquals(1, events[0]);
+        assertEquals(0, events[1]);
+
+        // Woken after the area moved away, the contact is exited
+        area.setPosition(60, 0);
+        tileBody.wake();
+        step(scene, 1);
+        assertEquals(1, events[0]);
+        assertEquals(1, events[1]);
+    }
+
+    @Test
+    public void removedBodiesLeaveTheStep() {
+        var scene = new Scene();
+        var node = scene.root().addChild(new Node());
+        node.setBody(new PolygonShape(8, 8), Body.Mode.RIGID);
+        step(scene, 1);
+        assertEquals(1, scene.physics().activeBodyCount());
+
+        node.removeBody();
+        step(scene, 1);
+        assertEquals(0, scene.physics().activeBodyCount());
+    }
+
+    @Test
+    public void wokenBodiesWakeTheBodiesTheyTouch() {
+        var scene = new Scene();
+        Body[] chain = new Body[3];
+        for (int i = 0; i < chain.length; i++) {
+            var node = scene.root().addChild(new Node());
+            node.setPosition(i * 6.0, 0);
+            chain[i] = node.setBody(new CircleShape(4), i == 0 ? Body.Mode.RIGID : Body.Mode.TRANSPARENT);
+        }
+        chain[0].setGravity(0, 0);
+        step(scene, PhysicsProvider.SLEEP_TICKS + 1);
+        assertEquals(0, scene.physics().activeBodyCount());
+
+        var solver = scene.physics().contactSolver();
+        boolean[] lastPairSolved = new boolean[1];
+        scene.physics().setContactSolver((bodies, contacts, dt, iterations) -> {
+            for (Manifold m : contacts) {
+                lastPairSolved[0] |= m.A == chain[1] && m.B == chain[2];
+            }
+            solver.solve(bodies, contacts, dt, iterations);
+        });
+
+        // The last body is only touched by the body woken by the first one
+        chain[0].setVelocity(10, 0);
+        step(scene, 1);
+        assertTrue(lastPairSolved[0]);
+    }
+
+    @Test
+    public void wakesDuringTheStepAreDeferred() {
+        var scene = new Scene();
+        var column = scene.root().addChild(new Node());
+        Body body = column.setBody(new PolygonShape(8, 8), Body.Mode.STATIC);
+        var other = scene.root().addChild(new Node());
+        other.setPosition(100, 0);
+        other.setBody(new PolygonShape(8, 8), Body.Mode.STATIC).setVelocityY(50.0);
+        step(scene, 2);
+        assertTrue(body.isSleeping());
+
+        var solver = scene.physics().contactSolver();
+        scene.physics().setContactSolver((bodies, contacts, dt, iterations) -> {
+            assertFalse(bodies.contains(body));
+            body.setVelocityY(50.0);
+            solver.solve(bodies, contacts, dt, iterations);
+            assertFalse(bodies.contains(body));
+        });
+        step(scene, 1);
+        assertFalse(body.isSleeping());
+        assertEquals(2, scene.physics().activeBodyCount());
+        assertEquals(0.0, column.position().y, 1e-9);
+
+        scene.physics().setContactSolver(solver);
+        step(scene, 1);
+        assertEquals(1.0, column.position().y, 1e-9);
+    }
+
+}
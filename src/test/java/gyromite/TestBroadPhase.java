@@ -0,0 +1,46 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.MainLoop;
+import gyromite.scene.Node;
+import gyromite.scene.physics.*;
+import gyromite.util.Pair;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+public class TestBroadPhase {
+
+    @Test
+    public void sameAsBruteForce() {
+        PhysicsProvider physics = new PhysicsProvider(MainLoop.DT, 10);
+        Random random = new Random(42);
+
+        var bodies = new ArrayList<Body>();
+        for (int i = 0; i < 500; i++) {
+            Body body = physics.add(new Node(), new PolygonShape(8, 8), Body.Mode.RIGID);
+            double x = random.nextDouble() * 1000.0 - 500.0;
+            double y = random.nextDouble() * 1000.0 - 500.0;
+            double w = random.nextDouble() * 80.0;
+            double h = random.nextDouble() * 80.0;
+            body.aabb().set(x, y, x + w, y + h);
+            bodies.add(body);
+        }
+
+        var expected = new HashSet<Pair<Body, Body>>();
+        new BruteForceBroadPhase().findPairs(bodies, bodies, (a, b) -> expected.add(new Pair<>(a, b)));
+
+        var found = new HashSet<Pair<Body, Body>>();
+        new SpatialHashBroadPhase(32).findPairs(bodies, bodies, (a, b) -> {
+            assertTrue("Pair reported twice", found.add(new Pair<>(a, b)));
+            assertTrue("Pair not ordered", bodies.indexOf(a) < bodies.indexOf(b));
+        });
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, found);
+    }
+
+}
@@ -0,0 +1,29 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.MainLoop;
+import gyromite.scene.Node;
+import gyromite.scene.physics.*;
+import static org.junit.Assert.*;
+
+public class TestContactSolver {
+
+    @Test
+    public void removedBodyStateIsReset() {
+        PhysicsProvider physics = new PhysicsProvider(MainLoop.DT, 10);
+        Body removed = physics.add(new Node(), new CircleShape(5), Body.Mode.RIGID);
+        removed.setVelocity(10, 20);
+        removed.setRestitution(0.0);
+        physics.remove(removed);
+        physics.step();
+
+        Body body = physics.add(new Node(), new CircleShape(5), Body.Mode.RIGID);
+        assertEquals(0.0, body.velocity().x, 0.0);
+        assertEquals(0.0, body.velocity().y, 0.0);
+        assertEquals(0.2, body.restitution(), 0.0);
+        assertEquals(physics.gravity.y, body.gravity().y, 0.0);
+        assertEquals(1, physics.activeBodyCount());
+    }
+
+}
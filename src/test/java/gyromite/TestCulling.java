@@ -0,0 +1,153 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.core.Rect2;
+import gyromite.scene.Drawable;
+import gyromite.scene.Node;
+import gyromite.scene.Scene;
+import static org.junit.Assert.*;
+
+public class TestCulling {
+
+    private static class CountingNode extends Node {
+        int drawn = 0;
+        int boundsRead = 0;
+        double halfSize = 8;
+
+        @Override
+        protected boolean localBounds(Rect2 out) {
+            boundsRead++;
+            out.set(-halfSize, -halfSize, halfSize, halfSize);
+            return true;
+        }
+
+        @Override
+        protected Drawable snapshot() {
+            drawn++;
+            return g -> { };
+        }
+    }
+
+    private static class UnboundedNode extends Node {
+        int drawn = 0;
+
+        @Override
+        protected boolean localBounds(Rect2 out) {
+            return false;
+        }
+
+        @Override
+        protected Drawable snapshot() {
+            drawn++;
+            return null;
+        }
+    }
+
+    private static class CullingScene extends Scene {
+        CountingNode inside, outside, outsideChild, partly;
+        UnboundedNode unbounded;
+
+        @Override
+        protected void init() {
+            inside = root().addChild(new CountingNode());
+            outside = root().addChild(new CountingNode());
+            outside.setPosition(2000, 0);
+            var group = root().addChild(new Node());
+            group.setPosition(-2000, 0);
+            outsideChild = group.addChild(new CountingNode());
+            partly = root().addChild(new CountingNode());
+            partly.setPosition(405, 0);
+            unbounded = root().addChild(new UnboundedNode());
+            unbounded.setPosition(0, 5000);
+        }
+    }
+
+    @Test
+    public void skipsNodesOutsideCamera() {
+        var scene = new CullingScene();
+        scene.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        var runner = new FixedStepRunner(scene);
+        runner.render();
+
+        assertEquals(1, scene.inside.drawn);
+        assertEquals(0, scene.outside.drawn);
+        assertEquals(0, scene.outsideChild.drawn);
+        assertEquals(1, scene.partly.drawn);
+        assertEquals(1, scene.unbounded.drawn);
+
+        scene.camera().position().set(2000, 0);
+        runner.render();
+        assertEquals(1, scene.inside.drawn);
+        assertEquals(1, scene.outside.drawn);
+    }
+
+    @Test
+    public void followsMovesAndBoundsChanges() {
+        var scene = new CullingScene();
+        scene.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        var runner = new FixedStepRunner(scene);
+        runner.render();
+        assertEquals(0, scene.outside.drawn);
+
+        // Bounds grown without moving the node
+        scene.outside.halfSize = 1900;
+        runner.render();
+        assertEquals(1, scene.outside.drawn);
+
+        // Node moved back outside
+        scene.outside.setPosition(6000, scene.outside.position().y);
+        runner.render();
+        assertEquals(1, scene.outside.drawn);
+
+        // Owner moved
+        scene.outsideChild.owner().setPosition(0, 0);
+        runner.render();
+        assertEquals(1, scene.outsideChild.drawn);
+    }
+
+    @Test
+    public void testsCachedSubtreeBounds() {
+        var scene = new CullingScene();
+        scene.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        var runner = new FixedStepRunner(scene);
+        runner.render();
+        var group = scene.outsideChild.owner();
+        var deepChild = scene.outsideChild.addChild(new CountingNode());
+        runner.render();
+        assertEquals(0, deepChild.drawn);
+
+        // Only the group is tested, its descendants are not read again
+        scene.outsideChild.boundsRead = 0;
+        deepChild.boundsRead = 0;
+        runner.render();
+        runner.render();
+        assertEquals(0, scene.outsideChild.boundsRead);
+        assertEquals(0, deepChild.boundsRead);
+
+        // Descendant moved into the view
+        deepChild.setPosition(2000, 0);
+        runner.render();
+        assertEquals(1, deepChild.drawn);
+
+        // Descendant removed
+        scene.outsideChild.removeChild(deepChild);
+        runner.render();
+        assertEquals(1, deepChild.drawn);
+
+        // Descendant bounds grown, read again after the update
+        scene.outsideChild.halfSize = 1900;
+        runner.run(1);
+        runner.render();
+        assertEquals(2, scene.outsideChild.drawn);
+
+        // Group hidden and shown again
+        group.setVisible(false);
+        runner.render();
+        group.setVisible(true);
+        runner.render();
+        assertEquals(3, scene.outsideChild.drawn);
+    }
+
+}
@@ -0,0 +1,76 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.scene.Node;
+import gyromite.scene.Scene;
+import gyromite.scene.physics.Body;
+import gyromite.scene.physics.PolygonShape;
+import static org.junit.Assert.*;
+
+public class TestFixedStepRunner {
+
+    private static class FallingScene extends Scene {
+        Node box;
+
+        @Override
+        protected void init() {
+            box = root().addChild(new Node());
+            box.setBody(new PolygonShape(8, 8), Body.Mode.RIGID);
+        }
+    }
+
+    @Test
+    public void runsTicksOnVirtualClock() {
+        var scene = new FallingScene();
+        scene.setDisplayMode(Scene.DisplayMode.NONE);
+        var runner = new FixedStepRunner(scene);
+
+        runner.runFor(2.0);
+
+        assertEquals(100, scene.ticks());
+        assertEquals(2.0, scene.time(), 1e-9);
+        assertEquals(100, runner.ranTicks());
+        assertTrue(runner.ticksPerSecond() > 0);
+        assertTrue(scene.box.position().y > 0);
+
+        long ran = runner.runUntil(() -> scene.box.position().y > 1000.0, 10000);
+        assertTrue(ran < 10000);
+        assertTrue(scene.box.position().y > 1000.0);
+    }
+
+    @Test
+    public void isDeterministic() {
+        var a = new FallingScene();
+        var b = new FallingScene();
+        a.setDisplayMode(Scene.DisplayMode.NONE);
+        b.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        new FixedStepRunner(a).run(500);
+        var runner = new FixedStepRunner(b);
+        runner.setRenderInterval(10);
+        runner.run(500);
+
+        assertEquals(a.box.position().y, b.box.position().y, 0.0);
+        assertNotNull(b.offscreenImage());
+    }
+
+    @Test
+    public void pausedLoopRunsNoTicks() {
+        var scene = new FallingScene();
+        scene.setDisplayMode(Scene.DisplayMode.NONE);
+        var runner = new FixedStepRunner(scene);
+        runner.setRenderInterval(1);
+        runner.init();
+        scene.setPaused(true);
+
+        assertEquals(0, runner.runUntil(() -> false, 100));
+        assertEquals(0, scene.ticks());
+        assertEquals(0, runner.ranTicks());
+
+        scene.setPaused(false);
+        assertEquals(100, runner.runUntil(() -> false, 100));
+        assertEquals(100, scene.ticks());
+    }
+
+}
@@ -0,0 +1,46 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.FramePacer;
+import gyromite.core.FrameStats;
+import gyromite.core.HybridPacer;
+import gyromite.core.SleepPacer;
+import gyromite.core.VsyncPacer;
+import static org.junit.Assert.*;
+
+public class TestFramePacer {
+
+    @Test
+    public void frameStats() {
+        var stats = new FrameStats(10_000_000);
+        long[] frames = { 0, 10_000_000, 20_000_000, 36_000_000, 46_000_000 };
+        for (long frame : frames) {
+            stats.addFrame(1_000 + frame);
+        }
+
+        assertEquals(4, stats.frames());
+        assertEquals(11.5, stats.meanInterval(), 1e-9);
+        assertEquals(3.0, stats.jitter(), 1e-9);
+        assertEquals(16.0, stats.maxInterval(), 1e-9);
+        assertEquals(1, stats.missedFrames());
+
+        stats.reset();
+        assertEquals(0, stats.frames());
+        assertEquals(0.0, stats.jitter(), 0.0);
+    }
+
+    @Test
+    public void pacersWaitUntilDeadline() {
+        for (FramePacer pacer : new FramePacer[] { new SleepPacer(), new HybridPacer(), new VsyncPacer() }) {
+            for (int i = 0; i < 5; i++) {
+                long deadline = System.nanoTime() + 2_000_000;
+                pacer.waitUntil(deadline);
+                assertTrue(System.nanoTime() - deadline >= 0);
+            }
+            assertTrue(pacer.stats().maxLateness() >= 0.0);
+        }
+        assertTrue(FramePacer.create("hybrid") instanceof HybridPacer);
+    }
+
+}
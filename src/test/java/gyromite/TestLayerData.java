@@ -0,0 +1,81 @@
+package gyromite;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gyromite.core.resources.tilemap.Layer;
+import io.airlift.compress.zstd.ZstdCompressor;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import static org.junit.Assert.*;
+
+public class TestLayerData {
+    private static final int[] GIDS = { 0, 1, 6, 14, 0x80000005, 0x40000002, 0xe0000001, 376 };
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private Layer parse(String data, String compression) throws IOException {
+        String json = String.format("{\"id\":1,\"width\":8,\"height\":1,\"data\":%s,\"encoding\":\"base64\"%s}",
+                data, compression == null ? "" : ",\"compression\":\"" + compression + "\"");
+        return mapper.readValue(json, Layer.class);
+    }
+
+    private static byte[] littleEndian(int[] gids) {
+        var buffer = ByteBuffer.allocate(gids.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(gids);
+        return buffer.array();
+    }
+
+    private static String base64(byte[] bytes) {
+        return "\"" + Base64.getEncoder().encodeToString(bytes) + "\"";
+    }
+
+    @Test
+    public void readsCsvData() throws IOException {
+        String csv = Arrays.toString(Arrays.stream(GIDS).mapToLong(Integer::toUnsignedLong).toArray());
+        var layer = mapper.readValue("{\"id\":1,\"data\":" + csv + ",\"name\":\"csv\"}", Layer.class);
+        assertArrayEquals(GIDS, layer.data);
+        assertEquals("csv", layer.name);
+    }
+
+    @Test
+    public void readsBase64Data() throws IOException {
+        assertArrayEquals(GIDS, parse(base64(littleEndian(GIDS)), null).data);
+        assertArrayEquals(GIDS, parse(base64(littleEndian(GIDS)), "").data);
+    }
+
+    @Test
+    public void readsCompressedData() throws IOException {
+        var zlib = new ByteArrayOutputStream();
+        try (var out = new DeflaterOutputStream(zlib)) {
+            out.write(littleEndian(GIDS));
+        }
+        assertArrayEquals(GIDS, parse(base64(zlib.toByteArray()), "zlib").data);
+
+        var gzip = new ByteArrayOutputStream();
+        try (var out = new GZIPOutputStream(gzip)) {
+            out.write(littleEndian(GIDS));
+        }
+        assertArrayEquals(GIDS, parse(base64(gzip.toByteArray()), "gzip").data);
+
+        byte[] raw = littleEndian(GIDS);
+        var compressor = new ZstdCompressor();
+        byte[] zstd = new byte[compressor.maxCompressedLength(raw.length)];
+        int length = compressor.compress(raw, 0, raw.length, zstd, 0, zstd.length);
+        assertArrayEquals(GIDS, parse(base64(Arrays.copyOf(zstd, length)), "zstd").data);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsUnknownCompression() throws IOException {
+        parse(base64(littleEndian(GIDS)), "lz4");
+    }
+
+}
@@ -0,0 +1,23 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.MathUtils;
+import static org.junit.Assert.*;
+
+public class TestMathUtils {
+
+    @Test
+    public void lerpAngleTakesShortestArc() {
+        double a = MathUtils.PI - 0.1;
+        double b = -MathUtils.PI + 0.1;
+        double mid = MathUtils.lerpAngle(a, b, 0.5);
+        assertEquals(0.0, Math.sin(mid), 1e-9);
+        assertEquals(-1.0, Math.cos(mid), 1e-9);
+
+        assertEquals(0.5, MathUtils.lerpAngle(0.0, 1.0, 0.5), 1e-12);
+        assertEquals(-0.5, MathUtils.lerpAngle(0.0, -1.0, 0.5), 1e-12);
+        assertEquals(0.25, MathUtils.lerpAngle(0.0, 2.0 * MathUtils.PI + 0.5, 0.5), 1e-12);
+    }
+
+}
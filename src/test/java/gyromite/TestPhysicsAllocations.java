@@ -0,0 +1,71 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.MainLoop;
+import gyromite.scene.Node;
+import gyromite.scene.physics.*;
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+
+public class TestPhysicsAllocations {
+
+    @Test
+    public void stepDoesNotAllocate() {
+        PhysicsProvider physics = new PhysicsProvider(MainLoop.DT, 10);
+
+        // Floor and walls
+        for (int i = 0; i < 20; i++) {
+            Node tile = new Node();
+            tile.setPosition(i * 16.0, 160.0);
+            physics.add(tile, new PolygonShape(8, 8), Body.Mode.STATIC);
+        }
+        for (int i = 0; i < 10; i++) {
+            Node left = new Node();
+            left.setPosition(-16.0, 144.0 - i * 16.0);
+            physics.add(left, new PolygonShape(8, 8), Body.Mode.STATIC);
+            Node right = new Node();
+            right.setPosition(320.0, 144.0 - i * 16.0);
+            physics.add(right, new PolygonShape(8, 8), Body.Mode.STATIC);
+        }
+
+        // Falling boxes and circles, one of them in a rotated parent
+        Node parent = new Node();
+        parent.setOrient(0.3);
+        for (int i = 0; i < 30; i++) {
+            Node node = new Node();
+            node.setPosition(20.0 + (i % 10) * 28.0, 100.0 - (i / 10) * 30.0);
+            if (i == 0) {
+                parent.addChild(node);
+            }
+            Shape shape = i % 2 == 0 ? new PolygonShape(6, 6) : new CircleShape(6);
+            physics.add(node, shape, Body.Mode.RIGID);
+        }
+
+        // A character walking back and forth, keeping bodies awake
+        Node character = new Node();
+        character.setPosition(150.0, 120.0);
+        Body body = physics.add(character, new PolygonShape(7, 7), Body.Mode.CHARACTER);
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up the pools and the JIT
+        for (int i = 0; i < 5000; i++) {
+            body.setVelocityX((i / 100) % 2 == 0 ? 60.0 : -60.0);
+            physics.step();
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1000; i++) {
+            body.setVelocityX((i / 100) % 2 == 0 ? 60.0 : -60.0);
+            physics.step();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("Bodies should be active", physics.activeBodyCount() > 0);
+        assertTrue("Physics step allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+}
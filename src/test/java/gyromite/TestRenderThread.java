@@ -0,0 +1,61 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.core.Size2;
+import gyromite.scene.Scene;
+import gyromite.scene.Sprite;
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+public class TestRenderThread {
+
+    private static class SpriteScene extends Scene {
+        @Override
+        protected void init() {
+            var image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+            var g = image.createGraphics();
+            g.setColor(Color.RED);
+            g.fillRect(0, 0, 4, 2);
+            g.dispose();
+
+            var sprite = root().addChild(new Sprite(image));
+            sprite.setSize(new Size2(64, 64));
+            sprite.setPosition(40, 30);
+        }
+    }
+
+    @Test
+    public void rendersSnapshotsOnRenderThread() throws InterruptedException {
+        var direct = new SpriteScene();
+        direct.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        var runner = new FixedStepRunner(direct);
+        runner.run(1);
+        runner.render();
+
+        var threaded = new SpriteScene();
+        threaded.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        threaded.setRenderThreaded(true);
+        threaded.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (threaded.pacer().stats().frames() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        threaded.destroy();
+
+        BufferedImage a = direct.offscreenImage();
+        BufferedImage b = threaded.offscreenImage();
+        assertNotNull(b);
+        assertEquals(a.getWidth(), b.getWidth());
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                assertEquals(a.getRGB(x, y), b.getRGB(x, y));
+            }
+        }
+        assertNotEquals(a.getRGB(0, 0), a.getRGB(a.getWidth() / 2 + 40, a.getHeight() / 2 + 30 - 16));
+    }
+
+}
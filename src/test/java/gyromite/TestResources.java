@@ -0,0 +1,121 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.resources.Resources;
+import static org.junit.Assert.*;
+
+public class TestResources {
+
+    @Test
+    public void loadsInBackground() {
+        var resources = new Resources();
+        assertEquals(1.0, resources.progress(), 0.0);
+        assertFalse(resources.isLoading());
+
+        var image = resources.loadImageAsync("/img/bomb.png", "bomb");
+        var font = resources.loadFontAsync("/fonts/pixel.ttf", "pixel");
+        var tilemap = resources.loadTilemapAsync("/tilemaps/phase_01.json", "phase");
+        var missing = resources.loadImageAsync("/img/missing.png", "missing");
+
+        resources.finishLoading();
+        assertTrue(image.join());
+        assertTrue(font.join());
+        assertTrue(tilemap.join());
+        assertFalse(missing.join());
+        assertFalse(resources.isLoading());
+        assertEquals(1.0, resources.progress(), 0.0);
+        assertNotNull(resources.getImage("bomb"));
+        assertNotNull(resources.getFont("pixel"));
+        assertNotNull(resources.getTilemap("phase"));
+        assertNull(resources.getImage("missing"));
+    }
+
+    @Test
+    public void evictsUnreferencedResources() {
+        var resources = new Resources();
+        resources.setMemoryBudget(1);
+        assertTrue(resources.loadImage("/img/bomb.png", "bomb"));
+        long bombSize = resources.memoryUsage();
+        assertTrue(bombSize > 0);
+
+        // A referenced resource is kept until released
+        var handle = resources.acquireImage("bomb");
+        var kept = handle.get();
+        assertTrue(resources.loadImage("/img/particles.png", "particles"));
+        var other = resources.acquireImage("bomb");
+        assertSame(kept, other.get());
+        other.release();
+        handle.release();
+        assertTrue(handle.isReleased());
+        handle.release();
+
+        // Loading another image evicts the least recently used one without reference
+        assertTrue(resources.loadImage("/img/smick.png", "smick"));
+        var reloaded = resources.acquireImage("bomb"); // Read again from its source
+        assertNotNull(reloaded);
+        assertNotSame(kept, reloaded.get());
+        reloaded.release();
+    }
+
+    @Test
+    public void evictsResourcesReturnedWithoutHandle() {
+        var resources = new Resources();
+        resources.setMemoryBudget(1);
+        assertTrue(resources.loadImage("/img/bomb.png", "bomb"));
+        var bomb = resources.getImage("bomb");
+        assertNotNull(bomb);
+
+        // Not referenced, the image is evicted and read again
+        assertTrue(resources.loadImage("/img/particles.png", "particles"));
+        var reloaded = resources.getImage("bomb");
+        assertNotNull(reloaded);
+        assertNotSame(bomb, reloaded);
+    }
+
+    @Test
+    public void sharesTilesetImages() {
+        var resources = new Resources();
+        assertTrue(resources.loadTilemap("/tilemaps/phase_01.json", "phase"));
+        long tilemapUsage = resources.memoryUsage();
+        var tileset = resources.getTilemap("phase").tilesets.get(0);
+        assertNotNull(tileset.loadedImage);
+
+        // The image of the tileset is the image loaded with the same name
+        assertTrue(resources.loadImage("/tilemaps/tileset.png", "tileset"));
+        assertEquals(tilemapUsage, resources.memoryUsage());
+        assertSame(tileset.loadedImage, resources.getImage("tileset"));
+        assertSame(tileset.loadedImage, resources.getImage(tileset.loadedImageId));
+
+        // Kept for the tilemap when unloaded by id
+        assertTrue(resources.unloadImage("tileset"));
+        assertNull(resources.getImage("tileset"));
+        assertSame(tileset.loadedImage, resources.getImage(tileset.loadedImageId));
+    }
+
+    @Test
+    public void unloadsResources() {
+        var resources = new Resources();
+        assertTrue(resources.loadTilemap("/tilemaps/phase_01.json", "phase"));
+        var handle = resources.acquireTilemap("phase");
+        assertNotNull(handle);
+        assertTrue(resources.memoryUsage() > 0);
+
+        assertTrue(resources.unloadTilemap("phase"));
+        assertFalse(resources.unloadTilemap("phase"));
+        assertNull(resources.getTilemap("phase"));
+        assertNull(resources.acquireTilemap("phase"));
+        assertNotNull(handle.get()); // Still usable until released
+        handle.release();
+        assertTrue(resources.memoryUsage() > 0); // The tileset image is cached apart
+        assertTrue(resources.unloadImage("/tilemaps/tileset.png"));
+        assertEquals(0, resources.memoryUsage());
+
+        try {
+            handle.get();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+}
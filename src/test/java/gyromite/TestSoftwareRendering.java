@@ -0,0 +1,84 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.core.Size2;
+import gyromite.scene.Scene;
+import gyromite.scene.Sprite;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import static org.junit.Assert.*;
+
+public class TestSoftwareRendering {
+
+    private static class SpritesScene extends Scene {
+        @Override
+        protected void init() {
+            var image = new BufferedImage(16, 8, BufferedImage.TYPE_INT_ARGB_PRE);
+            var random = new Random(7);
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    int a = random.nextInt(4) * 85;
+                    image.setRGB(x, y, a << 24 | random.nextInt(0x1000000));
+                }
+            }
+            for (int i = 0; i < 16; i++) {
+                var sprite = root().addChild(new Sprite(image));
+                sprite.setHframes(2);
+                sprite.setFrame(i % 2);
+                sprite.setSize(new Size2(8 * (1 + i % 3), 8 * (1 + i % 2)));
+                sprite.setPosition(-48 + (i % 4) * 32, -48 + (i / 4) * 32);
+                sprite.flipH((i & 1) != 0);
+                sprite.flipV((i & 2) != 0);
+                sprite.flipD((i & 4) != 0);
+                sprite.setOpacity((i & 8) != 0 ? 0.5 : 1.0);
+            }
+        }
+    }
+
+    private static BufferedImage render(boolean software, int bands) {
+        var scene = new SpritesScene();
+        scene.camera().setSize(new Size2(128, 128));
+        scene.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        scene.setSoftwareRendering(software);
+        scene.setRenderBands(bands);
+        new FixedStepRunner(scene).render();
+        return scene.offscreenImage();
+    }
+
+    @Test
+    public void drawsLikeJava2D() {
+        var expected = render(false, 1);
+        var actual = render(true, 1);
+        assertSameImage(expected, actual);
+    }
+
+    @Test
+    public void drawsBandsLikeOneBand() {
+        var expected = render(true, 1);
+        for (int bands : new int[] { 2, 3, 7, 128, 200 }) {
+            assertSameImage(expected, render(true, bands));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNoBands() {
+        new Scene().setRenderBands(0);
+    }
+
+    private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        int drawn = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals("Pixel " + x + ", " + y, expected.getRGB(x, y), actual.getRGB(x, y));
+                drawn += (expected.getRGB(x, y) & 0xffffff) != 0 ? 1 : 0;
+            }
+        }
+        assertTrue(drawn > 0);
+    }
+
+}
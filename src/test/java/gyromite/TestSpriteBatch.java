@@ -0,0 +1,99 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.core.Rect2;
+import gyromite.scene.Node;
+import gyromite.scene.Scene;
+import gyromite.scene.SpriteBatch;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import static org.junit.Assert.*;
+
+public class TestSpriteBatch {
+
+    @Test
+    public void drawsLikeGraphics() {
+        var atlas = new BufferedImage(32, 16, BufferedImage.TYPE_INT_ARGB_PRE);
+        var ag = atlas.createGraphics();
+        ag.setColor(Color.RED);
+        ag.fillRect(0, 0, 16, 16);
+        ag.setColor(Color.BLUE);
+        ag.fillOval(16, 0, 16, 16);
+        ag.dispose();
+
+        var local = AffineTransform.getScaleInstance(2, 2);
+        var half = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f);
+
+        var expected = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        var g = expected.createGraphics();
+        g.translate(4, 4);
+        g.transform(local);
+        g.drawImage(atlas, 0, 0, 16, 16, 16, 0, 32, 16, null);
+        g.setComposite(half);
+        g.translate(8, 8);
+        g.drawImage(atlas, 0, 0, 16, 16, 0, 0, 16, 16, null);
+        g.dispose();
+
+        var actual = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        g = actual.createGraphics();
+        var batch = new SpriteBatch();
+        batch.add(atlas, 16, 0, 16, 16, AffineTransform.getTranslateInstance(4, 4), local, null);
+        batch.add(atlas, 0, 0, 16, 16, AffineTransform.getTranslateInstance(20, 20), local, half);
+        assertEquals(2, batch.size());
+        var composite = g.getComposite();
+        batch.flush(g);
+        assertEquals(0, batch.size());
+        assertSame(composite, g.getComposite());
+        assertTrue(g.getTransform().isIdentity());
+        g.dispose();
+
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    private static class RenderingNode extends Node {
+        int rendered = 0;
+
+        @Override
+        protected boolean batchable() {
+            return false;
+        }
+
+        @Override
+        protected boolean localBounds(Rect2 out) {
+            out.set(-4, -4, 4, 4);
+            return true;
+        }
+
+        @Override
+        protected void render(Graphics2D g) {
+            super.render(g);
+            rendered++;
+            g.setColor(Color.GREEN);
+            g.fillRect(-4, -4, 8, 8);
+        }
+    }
+
+    @Test
+    public void rendersUnbatchableNodesWithGraphics() {
+        var scene = new Scene();
+        scene.setDisplayMode(Scene.DisplayMode.OFFSCREEN);
+        var node = scene.root().addChild(new RenderingNode());
+        var runner = new FixedStepRunner(scene);
+        runner.render();
+
+        assertEquals(1, node.rendered);
+        var frame = scene.offscreenImage();
+        assertEquals(Color.GREEN.getRGB(), frame.getRGB(frame.getWidth() / 2, frame.getHeight() / 2));
+    }
+
+}
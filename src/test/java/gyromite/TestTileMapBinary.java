@@ -0,0 +1,65 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.resources.Resources;
+import gyromite.core.resources.tilemap.Layer;
+import gyromite.core.resources.tilemap.TileMapBinary;
+import gyromite.core.resources.tilemap.TileMapData;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import static org.junit.Assert.*;
+
+public class TestTileMapBinary {
+
+    private static byte[] write(TileMapData tilemap) throws IOException {
+        var out = new ByteArrayOutputStream();
+        TileMapBinary.write(tilemap, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        var resources = new Resources();
+        assertTrue(resources.loadTilemap("/tilemaps/phase_01.json", "phase"));
+        var tilemap = resources.getTilemap("phase");
+
+        byte[] bytes = write(tilemap);
+        var read = TileMapBinary.read(ByteBuffer.wrap(bytes));
+        assertArrayEquals(bytes, write(read));
+
+        assertEquals(tilemap.width, read.width);
+        assertEquals(tilemap.tilewidth, read.tilewidth);
+        assertEquals(tilemap.orientation, read.orientation);
+        assertEquals(tilemap.tilesets.size(), read.tilesets.size());
+        assertEquals(tilemap.tilesets.get(0).tiles.size(), read.tilesets.get(0).tiles.size());
+        assertEquals(tilemap.tilesets.get(0).tiles.get(0).type, read.tilesets.get(0).tiles.get(0).type);
+        assertEquals(tilemap.layers.size(), read.layers.size());
+        for (int i = 0; i < tilemap.layers.size(); i++) {
+            Layer layer = tilemap.layers.get(i), readLayer = read.layers.get(i);
+            assertEquals(layer.name, readLayer.name);
+            assertArrayEquals(layer.data, readLayer.data);
+            if (layer.objects != null) {
+                assertEquals(layer.objects.size(), readLayer.objects.size());
+                var object = layer.objects.get(0);
+                var readObject = readLayer.objects.get(0);
+                assertEquals(object.type, readObject.type);
+                assertEquals(object.x, readObject.x, 0.0);
+                assertEquals(object.properties.size(), readObject.properties.size());
+                for (int j = 0; j < object.properties.size(); j++) {
+                    assertEquals(object.properties.get(j).value, readObject.properties.get(j).value);
+                }
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedData() throws IOException {
+        var resources = new Resources();
+        assertTrue(resources.loadTilemap("/tilemaps/phase_01.json", "phase"));
+        byte[] bytes = write(resources.getTilemap("phase"));
+        TileMapBinary.read(ByteBuffer.wrap(bytes, 0, bytes.length / 2));
+    }
+
+}
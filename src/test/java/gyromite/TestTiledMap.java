@@ -0,0 +1,195 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.FixedStepRunner;
+import gyromite.core.Rect2;
+import gyromite.core.resources.tilemap.Layer;
+import gyromite.scene.Node;
+import gyromite.scene.Scene;
+import gyromite.scene.map.Tile;
+import gyromite.scene.map.TiledMap;
+import gyromite.scene.physics.Body;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestTiledMap {
+
+    private static class MapScene extends Scene {
+        TiledMap map;
+        boolean merge = true;
+
+        @Override
+        protected void preload() {
+            resources().loadTilemap("/tilemaps/phase_01.json", "phase");
+        }
+
+        @Override
+        protected void init() {
+            map = root().addChild(new TiledMap("phase")).enableCollisions(1, 2, 3, 4, 5, 6, 14)
+                    .mergeCollisions(merge);
+            map.build();
+        }
+    }
+
+    @Test
+    public void queriesEveryTileLayer() {
+        var scene = new MapScene();
+        scene.setDisplayMode(Scene.DisplayMode.NONE);
+        new FixedStepRunner(scene).run(1);
+
+        var tilemap = scene.map.tilemap();
+        for (var layer : tilemap.layers) {
+            if (!layer.type.equals(Layer.TILE)) {
+                continue;
+            }
+            int count = 0;
+            for (int y = 0; y < layer.height; y++) {
+                for (int x = 0; x < layer.width; x++) {
+                    int gid = layer.data[y * layer.width + x];
+                    assertEquals(gid & 0x1fffffff, scene.map.getTileGid(layer.id, x, y));
+                    var tile = scene.map.getTile(layer.id, x, y);
+                    if (gid == 0) {
+                        assertNull(tile);
+                        continue;
+                    }
+                    count++;
+                    assertEquals(layer.id, tile.layerId);
+                    assertEquals(x, tile.getX());
+                    assertEquals(y, tile.getY());
+                    assertArrayEquals(new int[] { x, y },
+                            scene.map.getTileCoordFromPosition(layer.id, tile.position()));
+                }
+            }
+            var all = scene.map.tilesIn(layer.id, new Rect2(-10000, -10000, 10000, 10000));
+            assertEquals(count, all.size());
+        }
+        assertNull(scene.map.getTile(1, -1, 0));
+        assertEquals(0, scene.map.getTileGid(1, 0, 1000));
+    }
+
+    @Test
+    public void queriesExactTilesInArea() {
+        var scene = new MapScene();
+        scene.setDisplayMode(Scene.DisplayMode.NONE);
+        new FixedStepRunner(scene).run(1);
+
+        var tilemap = scene.map.tilemap();
+        int w = tilemap.tilewidth;
+        int h = tilemap.tileheight;
+        int bottom = tilemap.height - 1;
+        // Top left corner of the cell (0, 0), from the center of a floor tile
+        var floor = scene.map.getTile(1, 0, bottom);
+        double originX = floor.position().x - w / 2.0;
+        double originY = floor.position().y - h / 2.0 - bottom * h;
+
+        // Exactly one cell, the edges shared with the neighbours are excluded
+        var cell = scene.map.tilesIn(1, new Rect2(originX + 2 * w, originY + bottom * h,
+                originX + 3 * w, originY + (bottom + 1) * h));
+        assertTiles(scene, new int[][] { { 2, bottom } }, cell);
+
+        // Straddling cell edges, from the middle of the cell (1, bottom - 1) to the middle of the cell (3, bottom)
+        var straddling = scene.map.tilesIn(1, new Rect2(originX + 1.5 * w, originY + (bottom - 0.5) * h,
+                originX + 3.5 * w, originY + (bottom + 0.5) * h));
+        var expected = new ArrayList<int[]>();
+        for (int y = bottom - 1; y <= bottom; y++) {
+            for (int x = 1; x <= 3; x++) {
+                if (scene.map.getTileGid(1, x, y) != 0) {
+                    expected.add(new int[] { x, y });
+                }
+            }
+        }
+        assertTrue(expected.size() >= 3);
+        assertTiles(scene, expected.toArray(new int[0][]), straddling);
+
+        // Outside of the layer
+        assertTrue(scene.map.tilesIn(1, new Rect2(originX - 3 * w, originY - 3 * h, originX, originY)).isEmpty());
+    }
+
+    private static void assertTiles(MapScene scene, int[][] expected, List<Tile> tiles) {
+        assertEquals(expected.length, tiles.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], tiles.get(i).getX());
+            assertEquals(expected[i][1], tiles.get(i).getY());
+            assertSame(scene.map.getTile(1, expected[i][0], expected[i][1]), tiles.get(i));
+        }
+    }
+
+    @Test
+    public void mergesSolidRows() {
+        var merged = new MapScene();
+        merged.setDisplayMode(Scene.DisplayMode.NONE);
+        new FixedStepRunner(merged).run(1);
+        var separate = new MapScene();
+        separate.merge = false;
+        separate.setDisplayMode(Scene.DisplayMode.NONE);
+        new FixedStepRunner(separate).run(1);
+
+        int mergedBodies = countStaticBodies(merged.root());
+        int separateBodies = countStaticBodies(separate.root());
+        assertTrue(mergedBodies > 0);
+        assertTrue(mergedBodies * 2 < separateBodies);
+
+        // The bottom row is made of a single kind of floor tile, owned by the map
+        int y = merged.map.tilemap().height - 1;
+        assertEquals(0, countStaticBodies(merged.map.getTile(1, 0, y)));
+        assertEquals(0, countStaticBodies(merged.map.getTile(1, 1, y)));
+        List<Rect2> run = rowBoxes(merged.map, y);
+        assertEquals(1, run.size());
+        assertEquals(merged.map.size().width, run.get(0).max.x - run.get(0).min.x, 1e-9);
+    }
+
+    @Test
+    public void rebuildsRunsOfRemovedTiles() {
+        var scene = new MapScene();
+        scene.setDisplayMode(Scene.DisplayMode.NONE);
+        var runner = new FixedStepRunner(scene);
+        runner.run(1);
+        var map = scene.map;
+        int y = map.tilemap().height - 1;
+        int tw = map.tilemap().tilewidth;
+        int before = countStaticBodies(scene.root());
+
+        // Remove the first and a middle tile of the run
+        map.getTile(1, 0, y).remove();
+        map.getTile(1, 5, y).remove();
+        runner.run(1);
+
+        List<Rect2> run = rowBoxes(map, y);
+        assertEquals(2, run.size());
+        assertEquals(before + 1, countStaticBodies(scene.root()));
+        run.sort((a, b) -> Double.compare(a.min.x, b.min.x));
+        double left = -map.size().width / 2.0; // The map is centered
+        assertEquals(left + tw, run.get(0).min.x, 1e-9);
+        assertEquals(left + 5 * tw, run.get(0).max.x, 1e-9);
+        assertEquals(left + 6 * tw, run.get(1).min.x, 1e-9);
+        assertEquals(-left, run.get(1).max.x, 1e-9);
+    }
+
+    private static List<Rect2> rowBoxes(TiledMap map, int y) {
+        List<Rect2> boxes = new ArrayList<>();
+        double top = y * map.tilemap().tileheight - map.size().height / 2.0;
+        for (var child : map.children()) {
+            if (!(child instanceof Tile)) {
+                continue;
+            }
+            for (var node : child.children()) {
+                if (node.body() != null && node.body().aabb().min.y >= top) {
+                    boxes.add(node.body().aabb());
+                }
+            }
+        }
+        return boxes;
+    }
+
+    private static int countStaticBodies(Node node) {
+        int count = node.body() != null && node.body().mode() == Body.Mode.STATIC ? 1 : 0;
+        for (var child : node.children()) {
+            count += countStaticBodies(child);
+        }
+        return count;
+    }
+
+}
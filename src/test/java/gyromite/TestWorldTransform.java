@@ -0,0 +1,55 @@
+package gyromite;
+
+import org.junit.Test;
+
+import gyromite.core.Vector2;
+import gyromite.scene.Node;
+import static org.junit.Assert.*;
+
+public class TestWorldTransform {
+
+    @Test
+    public void followsOwnerMoves() {
+        var root = new Node();
+        var middle = root.addChild(new Node());
+        var leaf = middle.addChild(new Node());
+        middle.setPosition(10, 0);
+        leaf.setPosition(5, 0);
+        assertEquals(15.0, leaf.worldPosition().x, 1e-9);
+
+        // The leaf is clean, the move of the root must still reach it
+        root.setPosition(100, 0);
+        assertEquals(115.0, leaf.worldPosition().x, 1e-9);
+        assertEquals(110.0, middle.worldPosition().x, 1e-9);
+
+        root.setOrient(Math.PI / 2.0);
+        Vector2 pos = leaf.worldPosition(new Vector2());
+        assertEquals(100.0, pos.x, 1e-9);
+        assertEquals(15.0, pos.y, 1e-9);
+        assertEquals(Math.PI / 2.0, leaf.worldOrient(), 1e-9);
+    }
+
+    @Test
+    public void followsNewOwner() {
+        var owner = new Node();
+        owner.setPosition(50, 50);
+        var child = new Node();
+        var grandChild = child.addChild(new Node());
+        grandChild.setPosition(1, 2);
+        assertEquals(1.0, grandChild.worldPosition().x, 1e-9);
+
+        owner.addChild(child);
+        assertEquals(51.0, grandChild.worldPosition().x, 1e-9);
+        assertEquals(52.0, grandChild.worldPosition().y, 1e-9);
+    }
+
+    @Test
+    public void positionIsACopy() {
+        var node = new Node();
+        node.setPosition(3, 4);
+        node.position().x = 100;
+        assertEquals(3.0, node.position().x, 0.0);
+        assertEquals(3.0, node.worldPosition().x, 0.0);
+    }
+
+}
@@ -0,0 +1,64 @@
+package gyromite.scene;
+
+import org.junit.Test;
+
+import gyromite.core.Rect2;
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+
+public class TestRenderSnapshot {
+
+    private static class RecordingNode extends Node {
+        double drawnX;
+
+        @Override
+        protected boolean localBounds(Rect2 out) {
+            out.set(-4, -4, 4, 4);
+            return true;
+        }
+
+        @Override
+        protected Drawable snapshot() {
+            return g -> drawnX = g.getTransform().getTranslateX();
+        }
+    }
+
+    private static double draw(RenderSnapshot current, RenderSnapshot previous, double alpha, RecordingNode node) {
+        var image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+        var g = image.createGraphics();
+        current.draw(g, previous, alpha, new SpriteBatch());
+        g.dispose();
+        return node.drawnX;
+    }
+
+    @Test
+    public void interpolatesMovedNodes() {
+        var scene = new Scene();
+        scene.setRenderThreaded(true);
+        scene.viewport().setSize(200, 200);
+        var node = scene.root().addChild(new RecordingNode());
+
+        var first = new RenderSnapshot(scene, 0);
+        node.setPosition(10, 0);
+        var second = new RenderSnapshot(scene, 1);
+        double from = draw(first, null, 1.0, node);
+        double to = draw(second, null, 1.0, node);
+        assertNotEquals(from, to, 1e-9);
+        assertEquals((from + to) / 2.0, draw(second, first, 0.5, node), 1e-9);
+
+        // A teleported node is drawn at its new position
+        node.setPosition(40, 0);
+        node.resetPreviousTransform();
+        var third = new RenderSnapshot(scene, 2);
+        double teleported = draw(third, null, 1.0, node);
+        assertEquals(teleported, draw(third, second, 0.5, node), 1e-9);
+
+        // Then interpolated again
+        node.setPosition(50, 0);
+        var fourth = new RenderSnapshot(scene, 3);
+        double moved = draw(fourth, null, 1.0, node);
+        assertEquals((teleported + moved) / 2.0, draw(fourth, third, 0.5, node), 1e-9);
+    }
+
+}